@@ -0,0 +1,86 @@
+package org.natera.test.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Shapes of generated benchmark graphs.
+ * Vertexes are numbered from 0 to size - 1, edges are returned as flat array of (from, to) pairs.
+ */
+public enum GraphShape {
+
+    /**
+     * Uniformly random edges, 4 per vertex on average.
+     */
+    RANDOM {
+        @Override
+        public int[] generateEdges(int size, Random random) {
+            int[] edges = new int[size * 8];
+            for (int i = 0; i < edges.length; i++) {
+                edges[i] = random.nextInt(size);
+            }
+            return edges;
+        }
+    },
+
+    /**
+     * Square grid with edges to the right and to the bottom neighbour.
+     */
+    GRID {
+        @Override
+        public int[] generateEdges(int size, Random random) {
+            int side = Math.max(1, (int) Math.sqrt(size));
+            int[] edges = new int[size * 4];
+            int count = 0;
+            for (int vertex = 0; vertex < size; vertex++) {
+                if (vertex % side != side - 1 && vertex + 1 < size) {
+                    edges[count++] = vertex;
+                    edges[count++] = vertex + 1;
+                }
+                if (vertex + side < size) {
+                    edges[count++] = vertex;
+                    edges[count++] = vertex + side;
+                }
+            }
+            return Arrays.copyOf(edges, count);
+        }
+    },
+
+    /**
+     * Barabasi-Albert preferential attachment, every new vertex links to 3 vertexes chosen by degree.
+     */
+    SCALE_FREE {
+        @Override
+        public int[] generateEdges(int size, Random random) {
+            int linksPerVertex = 3;
+            int[] edges = new int[Math.max(0, size - 1) * linksPerVertex * 2];
+            int count = 0;
+            for (int vertex = 1; vertex < size; vertex++) {
+                for (int link = 0; link < linksPerVertex; link++) {
+                    //an endpoint of a random existing edge is chosen proportionally to its degree
+                    int target = count == 0 ? 0 : edges[random.nextInt(count)];
+                    edges[count++] = vertex;
+                    edges[count++] = target;
+                }
+            }
+            return edges;
+        }
+    },
+
+    /**
+     * Single chain 0 -> 1 -> ... -> size - 1, the worst case for path length.
+     */
+    CHAIN {
+        @Override
+        public int[] generateEdges(int size, Random random) {
+            int[] edges = new int[Math.max(0, size - 1) * 2];
+            for (int vertex = 0; vertex + 1 < size; vertex++) {
+                edges[vertex * 2] = vertex;
+                edges[vertex * 2 + 1] = vertex + 1;
+            }
+            return edges;
+        }
+    };
+
+    public abstract int[] generateEdges(int size, Random random);
+}
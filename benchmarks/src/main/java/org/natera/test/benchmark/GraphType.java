@@ -0,0 +1,45 @@
+package org.natera.test.benchmark;
+
+import org.natera.test.DirectedGraph;
+import org.natera.test.Graph;
+import org.natera.test.UndirectedGraph;
+
+/**
+ * Graph implementations under benchmark.
+ */
+public enum GraphType {
+
+    DIRECTED {
+        @Override
+        public Graph<Integer> create() {
+            return new DirectedGraph<>();
+        }
+    },
+
+    UNDIRECTED {
+        @Override
+        public Graph<Integer> create() {
+            return new UndirectedGraph<>();
+        }
+    };
+
+    public abstract Graph<Integer> create();
+
+    /**
+     * Creates graph of the specified shape.
+     *
+     * @param size number of vertexes
+     * @param edges flat array of (from, to) pairs
+     * @return new graph
+     */
+    public Graph<Integer> create(int size, int[] edges) {
+        Graph<Integer> graph = create();
+        for (int vertex = 0; vertex < size; vertex++) {
+            graph.addVertex(vertex);
+        }
+        for (int i = 0; i < edges.length; i += 2) {
+            graph.addEdge(edges[i], edges[i + 1]);
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,50 @@
+package org.natera.test.benchmark;
+
+import org.natera.test.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of building a graph with {@link Graph#addVertex(Object)} and {@link Graph#addEdge(Object, Object)}.
+ * One operation is one whole graph, divide by size or number of edges to get per call numbers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InsertBenchmark {
+
+    @Param({"DIRECTED", "UNDIRECTED"})
+    private GraphType type;
+
+    @Param({"RANDOM", "GRID", "SCALE_FREE", "CHAIN"})
+    private GraphShape shape;
+
+    @Param({"10000"})
+    private int size;
+
+    private int[] edges;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        edges = shape.generateEdges(size, new Random(42));
+    }
+
+    @Benchmark
+    public Graph<Integer> addVertexes() {
+        Graph<Integer> graph = type.create();
+        for (int vertex = 0; vertex < size; vertex++) {
+            graph.addVertex(vertex);
+        }
+        return graph;
+    }
+
+    @Benchmark
+    public Graph<Integer> addVertexesAndEdges() {
+        return type.create(size, edges);
+    }
+}
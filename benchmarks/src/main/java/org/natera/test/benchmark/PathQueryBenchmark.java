@@ -0,0 +1,59 @@
+package org.natera.test.benchmark;
+
+import org.natera.test.Edge;
+import org.natera.test.Graph;
+import org.natera.test.PathStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link Graph#getPath(Object, Object)} between random pairs of vertexes.
+ * Sample time mode reports percentiles of the latency distribution.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PathQueryBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"DIRECTED", "UNDIRECTED"})
+    private GraphType type;
+
+    @Param({"RANDOM", "GRID", "SCALE_FREE", "CHAIN"})
+    private GraphShape shape;
+
+    @Param({"10000"})
+    private int size;
+
+    @Param({"BIDIRECTIONAL", "SHORTEST", "PARALLEL", "ANY"})
+    private PathStrategy strategy;
+
+    private Graph<Integer> graph;
+    private int[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        graph = type.create(size, shape.generateEdges(size, random));
+        graph.setPathStrategy(strategy);
+        queries = new int[QUERIES * 2];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public List<Edge<Integer>> getPath() {
+        int query = next;
+        next = (next + 2) & (queries.length - 1);
+        return graph.getPath(queries[query], queries[query + 1]);
+    }
+}
@@ -0,0 +1,300 @@
+package org.natera.test;
+
+import java.util.Arrays;
+
+/**
+ * Set of vertex ids which adapts its representation to its size.
+ *
+ * Up to {@link AdjacencySet#INLINE_LIMIT} ids live in an exactly sized sorted array searched linearly,
+ * up to {@link AdjacencySet#SORTED_LIMIT} ids in a sorted array searched by binary search. Larger sets are
+ * open addressing tables with linear probing, and turn into a bitmap of ids once it takes less memory
+ * than the table, that is when more than 1 of 64 ids below the greatest one is in the set.
+ * A bitmap turns back into a table when an id added far beyond the greatest one breaks that density,
+ * otherwise sets never go back to a smaller representation.
+ *
+ * Elements are iterated with cursors in ascending order, except hashed sets:
+ * <pre>
+ * for (int cursor = set.next(0); cursor >= 0; cursor = set.next(cursor + 1)) {
+ *     int id = set.idAt(cursor);
+ * }
+ * </pre>
+ *
+ * Not thread safe.
+ */
+final class AdjacencySet {
+
+    static final int INLINE_LIMIT = 8;
+    static final int SORTED_LIMIT = 128;
+
+    private static final int EMPTY = -1;
+    private static final int[] NO_IDS = new int[0];
+
+    private static final byte SORTED = 0;
+    private static final byte HASHED = 1;
+    private static final byte BITMAP = 2;
+
+    private byte kind = SORTED;
+    private int size;
+    //sorted ids or open addressing table
+    private int[] ids = NO_IDS;
+    private long[] words;
+    private int maxId = -1;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Prepares an empty set for the specified number of ids.
+     *
+     * @param expectedSize expected number of ids
+     */
+    void ensureCapacity(int expectedSize) {
+        if (size > 0 || expectedSize <= ids.length) {
+            return;
+        }
+        if (expectedSize <= SORTED_LIMIT) {
+            ids = new int[expectedSize];
+        } else if (kind == SORTED) {
+            kind = HASHED;
+            ids = newTable(IntHashSet.capacityFor(expectedSize));
+        }
+    }
+
+    boolean contains(int id) {
+        switch (kind) {
+            case SORTED:
+                return indexOf(id) >= 0;
+            case HASHED:
+                int mask = ids.length - 1;
+                for (int slot = IntHashSet.slot(id, mask); ids[slot] != EMPTY; slot = (slot + 1) & mask) {
+                    if (ids[slot] == id) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                return (id >>> 6) < words.length && (words[id >>> 6] & (1L << id)) != 0;
+        }
+    }
+
+    /**
+     * @param id not negative vertex id
+     * @return true if the id was not in the set
+     */
+    boolean add(int id) {
+        switch (kind) {
+            case SORTED:
+                int index = indexOf(id);
+                if (index >= 0) {
+                    return false;
+                }
+                if (size == SORTED_LIMIT) {
+                    toHashed();
+                    return add(id);
+                }
+                insertSorted(-index - 1, id);
+                break;
+            case HASHED:
+                if (!insertHashed(ids, id)) {
+                    return false;
+                }
+                if ((size + 1) * 2 > ids.length) {
+                    growHashed(Math.max(maxId, id));
+                }
+                break;
+            default:
+                if ((id >>> 6) >= words.length) {
+                    if ((long) (size + 1) * 64 <= id + 1L) {
+                        bitmapToHashed();
+                        return add(id);
+                    }
+                    //doubling stops where the bitmap would get sparser than the table
+                    words = Arrays.copyOf(words, Math.max((id >>> 6) + 1, Math.min(words.length * 2, size + 1)));
+                }
+                long bit = 1L << id;
+                if ((words[id >>> 6] & bit) != 0) {
+                    return false;
+                }
+                words[id >>> 6] |= bit;
+        }
+        size++;
+        maxId = Math.max(maxId, id);
+        return true;
+    }
+
+    /**
+     * @return true if the id was in the set
+     */
+    boolean remove(int id) {
+        switch (kind) {
+            case SORTED:
+                int index = indexOf(id);
+                if (index < 0) {
+                    return false;
+                }
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                break;
+            case HASHED:
+                if (!removeHashed(id)) {
+                    return false;
+                }
+                break;
+            default:
+                if (!contains(id)) {
+                    return false;
+                }
+                words[id >>> 6] &= ~(1L << id);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * @param cursor position to start from
+     * @return first position not before the cursor holding an id, -1 if there is no such position
+     */
+    int next(int cursor) {
+        switch (kind) {
+            case SORTED:
+                return cursor < size ? cursor : -1;
+            case HASHED:
+                for (int slot = cursor; slot < ids.length; slot++) {
+                    if (ids[slot] != EMPTY) {
+                        return slot;
+                    }
+                }
+                return -1;
+            default:
+                int word = cursor >>> 6;
+                if (word >= words.length) {
+                    return -1;
+                }
+                long bits = words[word] & (-1L << cursor);
+                while (bits == 0) {
+                    if (++word == words.length) {
+                        return -1;
+                    }
+                    bits = words[word];
+                }
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+        }
+    }
+
+    /**
+     * @param cursor position returned by {@link AdjacencySet#next(int)}
+     * @return id at the position
+     */
+    int idAt(int cursor) {
+        return kind == BITMAP ? cursor : ids[cursor];
+    }
+
+    private int indexOf(int id) {
+        if (size <= INLINE_LIMIT) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] >= id) {
+                    return ids[i] == id ? i : -i - 1;
+                }
+            }
+            return -size - 1;
+        }
+        return Arrays.binarySearch(ids, 0, size, id);
+    }
+
+    private void insertSorted(int index, int id) {
+        if (size == ids.length) {
+            int capacity = size < INLINE_LIMIT ? size + 1 : Math.min(size * 2, SORTED_LIMIT);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        ids[index] = id;
+    }
+
+    private void toHashed() {
+        int[] table = newTable(IntHashSet.capacityFor(size * 2));
+        for (int i = 0; i < size; i++) {
+            insertHashed(table, ids[i]);
+        }
+        ids = table;
+        kind = HASHED;
+    }
+
+    private void growHashed(int greatestId) {
+        if ((long) (size + 1) * 64 > greatestId + 1L) {
+            words = new long[(greatestId >>> 6) + 1];
+            for (int id : ids) {
+                if (id != EMPTY) {
+                    words[id >>> 6] |= 1L << id;
+                }
+            }
+            ids = NO_IDS;
+            kind = BITMAP;
+            return;
+        }
+        int[] table = newTable(ids.length * 2);
+        for (int id : ids) {
+            if (id != EMPTY) {
+                insertHashed(table, id);
+            }
+        }
+        ids = table;
+    }
+
+    private void bitmapToHashed() {
+        int[] table = newTable(IntHashSet.capacityFor(size * 2));
+        for (int cursor = next(0); cursor >= 0; cursor = next(cursor + 1)) {
+            insertHashed(table, cursor);
+        }
+        ids = table;
+        words = null;
+        kind = HASHED;
+    }
+
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    private static boolean insertHashed(int[] table, int id) {
+        int mask = table.length - 1;
+        int slot = IntHashSet.slot(id, mask);
+        while (table[slot] != EMPTY) {
+            if (table[slot] == id) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = id;
+        return true;
+    }
+
+    /**
+     * Removes the id and shifts back the following ids of its probe sequence.
+     */
+    private boolean removeHashed(int id) {
+        int mask = ids.length - 1;
+        int slot = IntHashSet.slot(id, mask);
+        while (ids[slot] != id) {
+            if (ids[slot] == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int gap = slot;
+        for (int next = (gap + 1) & mask; ids[next] != EMPTY; next = (next + 1) & mask) {
+            int home = IntHashSet.slot(ids[next], mask);
+            //move the id into the gap unless its home slot lies cyclically in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                ids[gap] = ids[next];
+                gap = next;
+            }
+        }
+        ids[gap] = EMPTY;
+        return true;
+    }
+}
@@ -0,0 +1,57 @@
+package org.natera.test;
+
+/**
+ * Depth-first search which returns the first path found, not necessarily the shortest one.
+ *
+ * The search keeps an explicit stack of vertex ids in the {@link TraversalContext} queue, so its depth is not
+ * limited by the thread stack. A vertex is marked visited when it is pushed, every vertex is pushed at most once,
+ * and the search stops as soon as the target is pushed.
+ * The whole search is reported as one level of {@link GraphMetrics#recordTraversal}.
+ */
+class AnyPathFinder implements PathFinder {
+
+    @Override
+    public <T> Path<T> findPath(Graph<T> graph, T vertexValueFrom, T vertexValueTo,
+                                TraversalContext context) {
+        int source = graph.getVertex(vertexValueFrom).getId();
+        int target = graph.getVertex(vertexValueTo).getId();
+        context.begin(graph.getVertexIdBound());
+        int[] stack = context.getQueue(TraversalContext.FORWARD);
+        int size = 0;
+        context.visit(TraversalContext.FORWARD, source, -1, 0);
+        stack[size++] = source;
+
+        int expanded = 0;
+        long scannedEdges = 0;
+        while (size > 0) {
+            int current = stack[--size];
+            int nextDepth = context.getDepth(TraversalContext.FORWARD, current) + 1;
+            expanded++;
+            AdjacencySet edgesTo = graph.getVertexById(current).getEdgesToIds();
+            for (int cursor = edgesTo.next(0); cursor >= 0; cursor = edgesTo.next(cursor + 1)) {
+                scannedEdges++;
+                int next = edgesTo.idAt(cursor);
+                if (context.isVisited(TraversalContext.FORWARD, next)) {
+                    continue;
+                }
+                context.visit(TraversalContext.FORWARD, next, current, nextDepth);
+                if (next == target) {
+                    context.addLevel(expanded, scannedEdges);
+                    return collectPath(graph, context, target, nextDepth);
+                }
+                stack[size++] = next;
+            }
+        }
+        context.addLevel(expanded, scannedEdges);
+        return Path.empty();
+    }
+
+    private <T> Path<T> collectPath(Graph<T> graph, TraversalContext context, int target, int length) {
+        Object[] vertexes = new Object[length + 1];
+        for (int current = target, index = length; index >= 0; index--) {
+            vertexes[index] = graph.getVertexById(current).getValue();
+            current = context.getParent(TraversalContext.FORWARD, current);
+        }
+        return new Path<>(vertexes);
+    }
+}
@@ -0,0 +1,118 @@
+package org.natera.test;
+
+/**
+ * Breadth-first search running from both vertexes at once.
+ *
+ * On every step the smaller frontier is expanded by one whole level. The search stops at the first level
+ * where the frontiers meet, the meeting vertex with the smallest total distance gives the shortest path.
+ * The backward search follows incoming edges, see {@link Graph#getIncomingIds(Graph.Vertex)}.
+ * Graphs without the index of incoming edges are searched by {@link ShortestPathFinder}.
+ * Search state lives in the {@link TraversalContext}, every direction keeps its visited vertexes in its queue
+ * and the frontier is the last level of the queue.
+ */
+class BidirectionalPathFinder implements PathFinder {
+
+    private static final int FORWARD = TraversalContext.FORWARD;
+    private static final int BACKWARD = TraversalContext.BACKWARD;
+    private static final ShortestPathFinder FORWARD_FINDER = new ShortestPathFinder();
+
+    @Override
+    public <T> Path<T> findPath(Graph<T> graph, T vertexValueFrom, T vertexValueTo,
+                                      TraversalContext context) {
+        if (!graph.isIncomingIndexed()) {
+            return FORWARD_FINDER.findPath(graph, vertexValueFrom, vertexValueTo, context);
+        }
+        int source = graph.getVertex(vertexValueFrom).getId();
+        int target = graph.getVertex(vertexValueTo).getId();
+        context.begin(graph.getVertexIdBound());
+        context.visit(FORWARD, source, -1, 0);
+        context.visit(BACKWARD, target, -1, 0);
+        context.getQueue(FORWARD)[0] = source;
+        context.getQueue(BACKWARD)[0] = target;
+
+        //frontier of a direction is queue[levelStart[side]] ... queue[levelEnd[side] - 1]
+        int forwardStart = 0;
+        int forwardEnd = 1;
+        int backwardStart = 0;
+        int backwardEnd = 1;
+        int meeting = -1;
+        while (meeting < 0 && forwardStart < forwardEnd && backwardStart < backwardEnd) {
+            if (forwardEnd - forwardStart <= backwardEnd - backwardStart) {
+                int nextEnd = expandLevel(graph, context, FORWARD, forwardStart, forwardEnd);
+                meeting = bestMeeting(context, FORWARD, forwardEnd, nextEnd);
+                forwardStart = forwardEnd;
+                forwardEnd = nextEnd;
+            } else {
+                int nextEnd = expandLevel(graph, context, BACKWARD, backwardStart, backwardEnd);
+                meeting = bestMeeting(context, BACKWARD, backwardEnd, nextEnd);
+                backwardStart = backwardEnd;
+                backwardEnd = nextEnd;
+            }
+        }
+
+        if (meeting < 0) {
+            return Path.empty();
+        }
+        return collectPath(graph, context, meeting);
+    }
+
+    /**
+     * Appends not visited neighbours of the frontier to the queue.
+     *
+     * @return end of the new level in the queue
+     */
+    private <T> int expandLevel(Graph<T> graph, TraversalContext context, int side, int start, int end) {
+        int[] queue = context.getQueue(side);
+        int tail = end;
+        long scannedEdges = 0;
+        for (int i = start; i < end; i++) {
+            int current = queue[i];
+            int nextDepth = context.getDepth(side, current) + 1;
+            Graph.Vertex<T> vertex = graph.getVertexById(current);
+            AdjacencySet neighbours = side == FORWARD ? vertex.getEdgesToIds() : graph.getIncomingIds(vertex);
+            scannedEdges += neighbours.size();
+            for (int cursor = neighbours.next(0); cursor >= 0; cursor = neighbours.next(cursor + 1)) {
+                int next = neighbours.idAt(cursor);
+                if (!context.isVisited(side, next)) {
+                    context.visit(side, next, current, nextDepth);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        context.addLevel(end - start, scannedEdges);
+        return tail;
+    }
+
+    /**
+     * @return vertex of the new level visited by the opposite direction with the smallest total distance,
+     * -1 if the directions don't meet
+     */
+    private int bestMeeting(TraversalContext context, int side, int start, int end) {
+        int opposite = side == FORWARD ? BACKWARD : FORWARD;
+        int[] queue = context.getQueue(side);
+        int meeting = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = start; i < end; i++) {
+            int vertex = queue[i];
+            if (context.isVisited(opposite, vertex) && context.getDepth(opposite, vertex) < bestDistance) {
+                bestDistance = context.getDepth(opposite, vertex);
+                meeting = vertex;
+            }
+        }
+        return meeting;
+    }
+
+    private <T> Path<T> collectPath(Graph<T> graph, TraversalContext context, int meeting) {
+        int forwardLength = context.getDepth(FORWARD, meeting);
+        Object[] vertexes = new Object[forwardLength + context.getDepth(BACKWARD, meeting) + 1];
+        for (int current = meeting, index = forwardLength; current >= 0;
+             current = context.getParent(FORWARD, current), index--) {
+            vertexes[index] = graph.getVertexById(current).getValue();
+        }
+        for (int current = context.getParent(BACKWARD, meeting), index = forwardLength + 1; current >= 0;
+             current = context.getParent(BACKWARD, current), index++) {
+            vertexes[index] = graph.getVertexById(current).getValue();
+        }
+        return new Path<>(vertexes);
+    }
+}
@@ -0,0 +1,24 @@
+package org.natera.test;
+
+/**
+ * Thread safe implementation of directed graph
+ *
+ * Value of a vertex must be not null.
+ * Thread safe, {@link ConcurrentGraph#getPath(Object, Object)} never blocks.
+ *
+ * @param <T>
+ */
+public class ConcurrentDirectedGraph<T> extends ConcurrentGraph<T> {
+
+    /**
+     * Adds new directed edge between specified vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    @Override
+    public void addEdge(T vertexValueFrom, T vertexValueTo) {
+        addPaths(vertexValueFrom, vertexValueTo, false);
+    }
+}
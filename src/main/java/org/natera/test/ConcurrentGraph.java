@@ -0,0 +1,147 @@
+package org.natera.test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Abstract implementation of thread safe graph.
+ *
+ * Vertexes and edges live in concurrent hash maps, so writers of different vertexes do not contend.
+ * Every new edge is stamped with a version from {@link VersionClock}. {@link ConcurrentGraph#getPath(T, T)}
+ * takes no locks: it reads the committed version once and ignores edges of changes committed later,
+ * so it sees every change either completely or not at all.
+ *
+ * Value of a vertex must be not null.
+ * Thread safe.
+ *
+ * @param <T>
+ */
+public abstract class ConcurrentGraph<T> {
+
+    private final ConcurrentMap<T, Node<T>> vertexes = new ConcurrentHashMap<>();
+    private final VersionClock clock = new VersionClock();
+
+    /**
+     * Add new vertex to graph.
+     * If the vertex already exists in the graph, nothing happens.
+     *
+     * @param value vertex value
+     * @throws IllegalArgumentException if value is null
+     */
+    public void addVertex(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must be not null");
+        }
+        if (!vertexes.containsKey(value)) {
+            vertexes.putIfAbsent(value, new Node<>());
+        }
+    }
+
+    /**
+     * Abstract method for adding new edge between specified vertexes.
+     * All edges added by one call must be added with {@link ConcurrentGraph#addPaths(T, T, boolean)}.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     */
+    public abstract void addEdge(T vertexValueFrom, T vertexValueTo);
+
+    /**
+     * Return path between two vertexes.
+     * Breadth-first search which stops as soon as the target vertex is reached. Never blocks.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    public List<Edge<T>> getPath(T vertexValueFrom, T vertexValueTo) {
+        getNode(vertexValueFrom);
+        getNode(vertexValueTo);
+        if (vertexValueFrom.equals(vertexValueTo)) {
+            return Collections.emptyList();
+        }
+
+        long visible = clock.visible();
+        Map<T, T> parents = new HashMap<>();
+        Deque<T> queue = new ArrayDeque<>();
+        parents.put(vertexValueFrom, vertexValueFrom);
+        queue.add(vertexValueFrom);
+        while (!queue.isEmpty()) {
+            T currentVertex = queue.poll();
+            for (Map.Entry<T, Long> edge : vertexes.get(currentVertex).getEdgesTo().entrySet()) {
+                T nextVertex = edge.getKey();
+                if (edge.getValue() > visible || parents.containsKey(nextVertex)) {
+                    continue;
+                }
+                parents.put(nextVertex, currentVertex);
+                if (nextVertex.equals(vertexValueTo)) {
+                    return collectPath(vertexValueFrom, vertexValueTo, parents);
+                }
+                queue.add(nextVertex);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private List<Edge<T>> collectPath(T vertexValueFrom, T vertexValueTo, Map<T, T> parents) {
+        List<Edge<T>> fullPath = new ArrayList<>();
+        T currentVertex = vertexValueTo;
+        while (!currentVertex.equals(vertexValueFrom)) {
+            T previousVertex = parents.get(currentVertex);
+            fullPath.add(new Edge<>(previousVertex, currentVertex));
+            currentVertex = previousVertex;
+        }
+        Collections.reverse(fullPath);
+        return fullPath;
+    }
+
+    /**
+     * Add directed edge between two vertexes, and the opposite one if requested, as one change.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @param bothDirections whether edge from vertexValueTo to vertexValueFrom is added too
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    protected void addPaths(T vertexValueFrom, T vertexValueTo, boolean bothDirections) {
+        Node<T> vertexFrom = getNode(vertexValueFrom);
+        Node<T> vertexTo = getNode(vertexValueTo);
+        long version = clock.begin();
+        try {
+            vertexFrom.addEdgeTo(vertexValueTo, version);
+            if (bothDirections) {
+                vertexTo.addEdgeTo(vertexValueFrom, version);
+            }
+        } finally {
+            clock.commit(version);
+        }
+    }
+
+    private Node<T> getNode(T vertexValue) {
+        if (vertexValue == null) {
+            throw new IllegalArgumentException("Value is null");
+        }
+        Node<T> node = vertexes.get(vertexValue);
+        if (node == null) {
+            throw new IllegalArgumentException("Vertex" + vertexValue + " doesn't exist");
+        }
+        return node;
+    }
+
+    /**
+     * Outgoing edges of a vertex mapped to versions of the changes which added them.
+     */
+    private static class Node<V> {
+        private final ConcurrentMap<V, Long> edgesTo = new ConcurrentHashMap<>();
+
+        public ConcurrentMap<V, Long> getEdgesTo() {
+            return edgesTo;
+        }
+
+        public void addEdgeTo(V value, long version) {
+            edgesTo.putIfAbsent(value, version);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.natera.test;
+
+/**
+ * Thread safe implementation of undirected graph
+ *
+ * Value of a vertex must be not null.
+ * Thread safe, {@link ConcurrentGraph#getPath(Object, Object)} never blocks.
+ *
+ * @param <T>
+ */
+public class ConcurrentUndirectedGraph<T> extends ConcurrentGraph<T> {
+
+    /**
+     * Adds new undirected edge between specified vertexes.
+     * Readers see both directions of the edge or none of them.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    @Override
+    public void addEdge(T vertexValueFrom, T vertexValueTo) {
+        addPaths(vertexValueFrom, vertexValueTo, true);
+    }
+}
@@ -0,0 +1,293 @@
+package org.natera.test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Reachability index of a directed graph.
+ *
+ * Strongly connected components are found by Tarjan's algorithm and numbered in the order they are completed,
+ * so every edge of the condensation goes from a greater component to a lower one. Every component is labeled
+ * by {@link CondensationIndex#LABELINGS} intervals of randomized depth first traversals of the condensation
+ * (GRAIL): a component can reach another one only if its intervals contain the intervals of the other one.
+ * Pairs passing both filters are checked by a depth first search pruned by the same filters.
+ *
+ * Added vertexes keep the index current, an edge between different components or a removal makes it stale
+ * until {@link CondensationIndex#rebuild()}.
+ *
+ * Not thread safe.
+ */
+final class CondensationIndex implements ReachabilityIndex {
+
+    private static final int LABELINGS = 2;
+
+    private final Graph<?> graph;
+    private final Random random = new Random(0);
+    private boolean current;
+    private int[] components = new int[0];
+    private int componentCount;
+    private int[] dagOffsets = new int[1];
+    private int[] dagTargets = new int[0];
+    private int[][] lows = new int[LABELINGS][0];
+    private int[][] posts = new int[LABELINGS][0];
+    //next post order number, shared by all labelings so added components get unique intervals
+    private int nextPost;
+    private int[] visited = new int[0];
+    private int epoch;
+    private int[] stack = new int[0];
+
+    CondensationIndex(Graph<?> graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public boolean isCurrent() {
+        return current;
+    }
+
+    @Override
+    public void rebuild() {
+        GraphSnapshot<?> snapshot = graph.snapshot();
+        int[] offsets = snapshot.getOffsets();
+        int[] targets = snapshot.getTargets();
+        int vertexCount = offsets.length - 1;
+        findComponents(offsets, targets, vertexCount);
+        buildCondensation(offsets, targets, vertexCount);
+        nextPost = 0;
+        for (int labeling = 0; labeling < LABELINGS; labeling++) {
+            label(lows[labeling], posts[labeling]);
+        }
+        visited = new int[componentCount];
+        epoch = 0;
+        current = true;
+    }
+
+    private void findComponents(int[] offsets, int[] targets, int vertexCount) {
+        components = new int[Math.max(16, vertexCount)];
+        componentCount = 0;
+        int[] indexes = new int[vertexCount];
+        Arrays.fill(indexes, -1);
+        int[] lowLinks = new int[vertexCount];
+        int[] positions = new int[vertexCount];
+        boolean[] onStack = new boolean[vertexCount];
+        int[] componentStack = new int[vertexCount];
+        int componentStackSize = 0;
+        int[] callStack = new int[vertexCount];
+        int nextIndex = 0;
+
+        for (int root = 0; root < vertexCount; root++) {
+            if (indexes[root] != -1) {
+                continue;
+            }
+            int callStackSize = 0;
+            callStack[callStackSize++] = root;
+            indexes[root] = lowLinks[root] = nextIndex++;
+            positions[root] = offsets[root];
+            componentStack[componentStackSize++] = root;
+            onStack[root] = true;
+            while (callStackSize > 0) {
+                int vertex = callStack[callStackSize - 1];
+                if (positions[vertex] < offsets[vertex + 1]) {
+                    int next = targets[positions[vertex]++];
+                    if (indexes[next] == -1) {
+                        callStack[callStackSize++] = next;
+                        indexes[next] = lowLinks[next] = nextIndex++;
+                        positions[next] = offsets[next];
+                        componentStack[componentStackSize++] = next;
+                        onStack[next] = true;
+                    } else if (onStack[next]) {
+                        lowLinks[vertex] = Math.min(lowLinks[vertex], indexes[next]);
+                    }
+                    continue;
+                }
+                callStackSize--;
+                if (lowLinks[vertex] == indexes[vertex]) {
+                    int member;
+                    do {
+                        member = componentStack[--componentStackSize];
+                        onStack[member] = false;
+                        components[member] = componentCount;
+                    } while (member != vertex);
+                    componentCount++;
+                }
+                if (callStackSize > 0) {
+                    int parent = callStack[callStackSize - 1];
+                    lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[vertex]);
+                }
+            }
+        }
+    }
+
+    private void buildCondensation(int[] offsets, int[] targets, int vertexCount) {
+        int capacity = Math.max(16, componentCount);
+        dagOffsets = new int[capacity + 1];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            for (int position = offsets[vertex]; position < offsets[vertex + 1]; position++) {
+                if (components[vertex] != components[targets[position]]) {
+                    dagOffsets[components[vertex] + 1]++;
+                }
+            }
+        }
+        for (int component = 0; component < capacity; component++) {
+            dagOffsets[component + 1] += dagOffsets[component];
+        }
+        dagTargets = new int[dagOffsets[componentCount]];
+        int[] fill = Arrays.copyOf(dagOffsets, componentCount);
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            for (int position = offsets[vertex]; position < offsets[vertex + 1]; position++) {
+                int target = components[targets[position]];
+                if (components[vertex] != target) {
+                    dagTargets[fill[components[vertex]]++] = target;
+                }
+            }
+        }
+        for (int labeling = 0; labeling < LABELINGS; labeling++) {
+            lows[labeling] = new int[capacity];
+            posts[labeling] = new int[capacity];
+        }
+    }
+
+    /**
+     * Depth first traversal of the condensation visiting children from a random position.
+     * Post order number of a component and the lowest post order number below it form its interval.
+     */
+    private void label(int[] low, int[] post) {
+        int[] starts = new int[componentCount];
+        int[] positions = new int[componentCount];
+        boolean[] seen = new boolean[componentCount];
+        int[] callStack = new int[componentCount];
+        //sources of the condensation have the greatest numbers
+        for (int root = componentCount - 1; root >= 0; root--) {
+            if (seen[root]) {
+                continue;
+            }
+            int callStackSize = 0;
+            callStack[callStackSize++] = root;
+            enter(root, starts, positions, seen, low);
+            while (callStackSize > 0) {
+                int component = callStack[callStackSize - 1];
+                int degree = dagOffsets[component + 1] - dagOffsets[component];
+                if (positions[component] < degree) {
+                    int rotated = (starts[component] + positions[component]++) % degree;
+                    int child = dagTargets[dagOffsets[component] + rotated];
+                    if (!seen[child]) {
+                        callStack[callStackSize++] = child;
+                        enter(child, starts, positions, seen, low);
+                    } else {
+                        low[component] = Math.min(low[component], low[child]);
+                    }
+                    continue;
+                }
+                callStackSize--;
+                post[component] = nextPost++;
+                low[component] = Math.min(low[component], post[component]);
+                if (callStackSize > 0) {
+                    int parent = callStack[callStackSize - 1];
+                    low[parent] = Math.min(low[parent], low[component]);
+                }
+            }
+        }
+    }
+
+    private void enter(int component, int[] starts, int[] positions, boolean[] seen, int[] low) {
+        int degree = dagOffsets[component + 1] - dagOffsets[component];
+        starts[component] = degree > 1 ? random.nextInt(degree) : 0;
+        positions[component] = 0;
+        seen[component] = true;
+        low[component] = Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean isReachable(int from, int to) {
+        int componentFrom = components[from];
+        int componentTo = components[to];
+        if (componentFrom == componentTo) {
+            return true;
+        }
+        if (!mayReach(componentFrom, componentTo)) {
+            return false;
+        }
+        if (++epoch == 0) {
+            Arrays.fill(visited, 0);
+            epoch = 1;
+        }
+        if (stack.length < componentCount) {
+            stack = new int[componentCount];
+        }
+        int stackSize = 0;
+        stack[stackSize++] = componentFrom;
+        visited[componentFrom] = epoch;
+        while (stackSize > 0) {
+            int component = stack[--stackSize];
+            for (int position = dagOffsets[component]; position < dagOffsets[component + 1]; position++) {
+                int child = dagTargets[position];
+                if (child == componentTo) {
+                    return true;
+                }
+                if (visited[child] != epoch && mayReach(child, componentTo)) {
+                    visited[child] = epoch;
+                    stack[stackSize++] = child;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return false if component from certainly can't reach component to
+     */
+    private boolean mayReach(int componentFrom, int componentTo) {
+        if (componentFrom < componentTo) {
+            return false;
+        }
+        for (int labeling = 0; labeling < LABELINGS; labeling++) {
+            if (lows[labeling][componentFrom] > lows[labeling][componentTo]
+                    || posts[labeling][componentFrom] < posts[labeling][componentTo]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void onVertexAdded(int id) {
+        if (!current) {
+            return;
+        }
+        //a new vertex is a new component without edges, its interval doesn't overlap others
+        if (id >= components.length) {
+            components = Arrays.copyOf(components, Math.max(id + 1, components.length * 2));
+        }
+        if (componentCount + 1 >= dagOffsets.length) {
+            int capacity = dagOffsets.length * 2;
+            dagOffsets = Arrays.copyOf(dagOffsets, capacity);
+            visited = Arrays.copyOf(visited, capacity);
+            for (int labeling = 0; labeling < LABELINGS; labeling++) {
+                lows[labeling] = Arrays.copyOf(lows[labeling], capacity);
+                posts[labeling] = Arrays.copyOf(posts[labeling], capacity);
+            }
+        } else if (componentCount >= visited.length) {
+            visited = Arrays.copyOf(visited, dagOffsets.length);
+        }
+        int component = componentCount++;
+        components[id] = component;
+        dagOffsets[component + 1] = dagOffsets[component];
+        int post = nextPost++;
+        for (int labeling = 0; labeling < LABELINGS; labeling++) {
+            lows[labeling][component] = post;
+            posts[labeling][component] = post;
+        }
+    }
+
+    @Override
+    public void onEdgeAdded(int from, int to) {
+        if (current && components[from] != components[to]) {
+            current = false;
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        current = false;
+    }
+}
@@ -0,0 +1,170 @@
+package org.natera.test;
+
+import java.util.Arrays;
+
+/**
+ * Adjacency lists of vertexes numbered 0 ... size - 1, stored as int arrays.
+ *
+ * Edges of a vertex are appended to its array, duplicates are found by a linear scan while the vertex
+ * has few edges and by an {@link IntHashSet} afterwards. Path search reuses epoch stamped scratch arrays,
+ * so it allocates nothing except the returned path.
+ *
+ * Not thread safe.
+ */
+final class DenseAdjacency {
+
+    private static final int[] NO_EDGES = new int[0];
+    //max degree checked for duplicates by linear scan
+    private static final int SCAN_LIMIT = 16;
+
+    private final boolean directed;
+    private int[][] edges = new int[16][];
+    private int[] degrees = new int[16];
+    private IntHashSet[] edgeSets;
+    private int size;
+
+    //scratch space of the path search, visits of the current search are stamped with epoch
+    private int[] stamps = NO_EDGES;
+    private int[] parents = NO_EDGES;
+    private int[] queue = NO_EDGES;
+    private int epoch;
+
+    DenseAdjacency(boolean directed) {
+        this.directed = directed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return index of the new vertex
+     */
+    int addVertex() {
+        if (size == edges.length) {
+            edges = Arrays.copyOf(edges, size * 2);
+            degrees = Arrays.copyOf(degrees, size * 2);
+            if (edgeSets != null) {
+                edgeSets = Arrays.copyOf(edgeSets, size * 2);
+            }
+        }
+        edges[size] = NO_EDGES;
+        return size++;
+    }
+
+    /**
+     * Adds edge, in both directions if the adjacency is undirected.
+     *
+     * @return true if the edge did not exist
+     */
+    boolean addEdge(int from, int to) {
+        if (!addArc(from, to)) {
+            return false;
+        }
+        if (!directed && from != to) {
+            addArc(to, from);
+        }
+        return true;
+    }
+
+    boolean containsEdge(int from, int to) {
+        if (edgeSets != null && edgeSets[from] != null) {
+            return edgeSets[from].contains(to);
+        }
+        int[] vertexEdges = edges[from];
+        for (int i = 0; i < degrees[from]; i++) {
+            if (vertexEdges[i] == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int degree(int vertex) {
+        return degrees[vertex];
+    }
+
+    private boolean addArc(int from, int to) {
+        if (containsEdge(from, to)) {
+            return false;
+        }
+        int degree = degrees[from];
+        if (degree == edges[from].length) {
+            edges[from] = Arrays.copyOf(edges[from], Math.max(2, degree * 2));
+        }
+        edges[from][degree] = to;
+        degrees[from] = degree + 1;
+        if (degree + 1 > SCAN_LIMIT) {
+            if (edgeSets == null) {
+                edgeSets = new IntHashSet[edges.length];
+            }
+            if (edgeSets[from] == null) {
+                edgeSets[from] = new IntHashSet(degree * 2);
+                for (int i = 0; i <= degree; i++) {
+                    edgeSets[from].add(edges[from][i]);
+                }
+            } else {
+                edgeSets[from].add(to);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Breadth-first search which stops as soon as the target is reached.
+     *
+     * @return indexes of vertexes on the path from source to target, empty if path does not exist
+     * or source equals target
+     */
+    int[] findPath(int source, int target) {
+        if (source == target) {
+            return NO_EDGES;
+        }
+        startSearch();
+        int head = 0;
+        int tail = 0;
+        stamps[source] = epoch;
+        queue[tail++] = source;
+        while (head < tail) {
+            int current = queue[head++];
+            int[] vertexEdges = edges[current];
+            for (int i = 0; i < degrees[current]; i++) {
+                int next = vertexEdges[i];
+                if (stamps[next] != epoch) {
+                    stamps[next] = epoch;
+                    parents[next] = current;
+                    if (next == target) {
+                        return collectPath(source, target);
+                    }
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return NO_EDGES;
+    }
+
+    private void startSearch() {
+        if (stamps.length < size) {
+            stamps = new int[edges.length];
+            parents = new int[edges.length];
+            queue = new int[edges.length];
+            epoch = 0;
+        }
+        if (++epoch == 0) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+
+    private int[] collectPath(int source, int target) {
+        int length = 1;
+        for (int current = target; current != source; current = parents[current]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int current = target; length > 0; current = parents[current]) {
+            path[--length] = current;
+        }
+        return path;
+    }
+}
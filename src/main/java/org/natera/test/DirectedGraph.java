@@ -3,6 +3,10 @@ package org.natera.test;
 /**
  * Implementation of directed graph
  *
+ * By default every vertex also keeps the set of vertexes with an edge to it, which serves backward searches,
+ * {@link Graph#getPredecessors(Object)} and removals. The index can be turned off to save about half of the
+ * adjacency memory, then these queries scan all vertexes and {@link PathStrategy#BIDIRECTIONAL} searches forward.
+ *
  * Value of a vertex must be not null.
  * Not thread safe.
  *
@@ -10,6 +14,19 @@ package org.natera.test;
  */
 public class DirectedGraph<T> extends Graph<T> {
 
+    private final boolean incomingIndexed;
+
+    public DirectedGraph() {
+        this(true);
+    }
+
+    /**
+     * @param incomingIndexed whether to keep the index of incoming edges
+     */
+    public DirectedGraph(boolean incomingIndexed) {
+        this.incomingIndexed = incomingIndexed;
+    }
+
     /**
      * Adds new directed edge between specified vertexes.
      *
@@ -19,6 +36,47 @@ public class DirectedGraph<T> extends Graph<T> {
      */
     @Override
     public void addEdge(T vertexValueFrom, T vertexValueTo) {
+        long start = startOperation();
         addPath(vertexValueFrom, vertexValueTo);
+        finishOperation(GraphMetrics.Operation.ADD_EDGE, start);
+    }
+
+    /**
+     * Adds new weighted directed edge between specified vertexes.
+     * If the edge already exists, its weight is replaced.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @param weight not negative weight of the edge
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph, or weight is negative
+     */
+    @Override
+    public void addEdge(T vertexValueFrom, T vertexValueTo, double weight) {
+        long start = startOperation();
+        addPath(vertexValueFrom, vertexValueTo, weight);
+        finishOperation(GraphMetrics.Operation.ADD_EDGE, start);
+    }
+
+    /**
+     * Removes directed edge between specified vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return true if the edge existed
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    @Override
+    public boolean removeEdge(T vertexValueFrom, T vertexValueTo) {
+        return removePath(vertexValueFrom, vertexValueTo);
+    }
+
+    @Override
+    protected boolean isDirected() {
+        return true;
+    }
+
+    @Override
+    protected boolean isIncomingIndexed() {
+        return incomingIndexed;
     }
 }
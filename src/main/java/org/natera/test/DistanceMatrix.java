@@ -0,0 +1,181 @@
+package org.natera.test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Distances between all pairs of vertexes of a {@link GraphSnapshot}.
+ *
+ * Distances are numbers of edges, weights are ignored. They are kept in one int array, row per source vertex.
+ * Rows are filled by bit-parallel breadth-first searches: a batch of 64 sources is searched at once,
+ * every vertex keeps a 64 bit mask of the sources which visited it and of the sources in whose frontier it is,
+ * so one scan of an edge advances the searches of all sources of the batch. Every level visits only
+ * the vertexes of its frontier and the vertexes they reach, never the whole graph.
+ * A vertex is in the frontier of at most as many levels as there are distinct distances to it from the sources
+ * of the batch, so a batch costs between one and 64 searches, depending on how close its sources are to each
+ * other. Batches run in parallel on a {@link ForkJoinPool}.
+ *
+ * No parents are kept, a path is found by walking from the source to a neighbour one edge closer to the target.
+ *
+ * The matrix takes 4 * n * n bytes.
+ * Thread safe.
+ *
+ * @param <T>
+ */
+public final class DistanceMatrix<T> {
+
+    /**
+     * Distance of vertexes which are not connected.
+     */
+    public static final int UNREACHABLE = -1;
+
+    private static final int BATCH_SIZE = Long.SIZE;
+
+    private final GraphSnapshot<T> snapshot;
+    private final int vertexCount;
+    //distances[from * vertexCount + to]
+    private final int[] distances;
+
+    DistanceMatrix(GraphSnapshot<T> snapshot, ForkJoinPool pool) {
+        this.snapshot = snapshot;
+        this.vertexCount = snapshot.getVertexCount();
+        long size = (long) vertexCount * vertexCount;
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Graph with " + vertexCount + " vertexes is too large for a matrix");
+        }
+        distances = new int[(int) size];
+        int batchCount = (vertexCount + BATCH_SIZE - 1) / BATCH_SIZE;
+        if (batchCount > 0) {
+            pool.invoke(new BatchTask(0, batchCount));
+        }
+    }
+
+    /**
+     * Searches batches from ... to - 1.
+     */
+    private final class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        private BatchTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BatchTask(from, middle), new BatchTask(middle, to));
+                return;
+            }
+            fillRows(from * BATCH_SIZE, Math.min(vertexCount, (from + 1) * BATCH_SIZE));
+        }
+    }
+
+    /**
+     * Bit-parallel breadth-first search from sources first ... last - 1, bit i stands for source first + i.
+     */
+    private void fillRows(int first, int last) {
+        int[] offsets = snapshot.getOffsets();
+        int[] targets = snapshot.getTargets();
+        Arrays.fill(distances, first * vertexCount, last * vertexCount, UNREACHABLE);
+        long[] visited = new long[vertexCount];
+        long[] frontier = new long[vertexCount];
+        long[] next = new long[vertexCount];
+        for (int source = first; source < last; source++) {
+            long bit = 1L << (source - first);
+            visited[source] |= bit;
+            frontier[source] |= bit;
+            distances[source * vertexCount + source] = 0;
+        }
+
+        //ids with a not empty frontier mask, and ids reached by the current level
+        int[] active = new int[vertexCount];
+        int activeCount = 0;
+        int[] touched = new int[vertexCount];
+        for (int source = first; source < last; source++) {
+            active[activeCount++] = source;
+        }
+        for (int level = 1; activeCount > 0; level++) {
+            int touchedCount = 0;
+            for (int k = 0; k < activeCount; k++) {
+                int id = active[k];
+                long sources = frontier[id];
+                frontier[id] = 0;
+                for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                    int target = targets[i];
+                    if (next[target] == 0) {
+                        touched[touchedCount++] = target;
+                    }
+                    next[target] |= sources;
+                }
+            }
+            activeCount = 0;
+            for (int k = 0; k < touchedCount; k++) {
+                int id = touched[k];
+                long reached = next[id] & ~visited[id];
+                next[id] = 0;
+                if (reached != 0) {
+                    frontier[id] = reached;
+                    visited[id] |= reached;
+                    active[activeCount++] = id;
+                    for (; reached != 0; reached &= reached - 1) {
+                        int source = first + Long.numberOfTrailingZeros(reached);
+                        distances[source * vertexCount + id] = level;
+                    }
+                }
+            }
+        }
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Return number of edges in the shortest path between two vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return distance or {@link DistanceMatrix#UNREACHABLE}
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    public int getDistance(T vertexValueFrom, T vertexValueTo) {
+        return distances[snapshot.requireId(vertexValueFrom) * vertexCount + snapshot.requireId(vertexValueTo)];
+    }
+
+    /**
+     * Return shortest path between two vertexes, built from the distances in O(path length * degree).
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    public List<Edge<T>> getPath(T vertexValueFrom, T vertexValueTo) {
+        int source = snapshot.requireId(vertexValueFrom);
+        int target = snapshot.requireId(vertexValueTo);
+        int length = distances[source * vertexCount + target];
+        if (length <= 0) {
+            return Collections.emptyList();
+        }
+        int[] offsets = snapshot.getOffsets();
+        int[] targets = snapshot.getTargets();
+        List<Edge<T>> fullPath = new ArrayList<>(length);
+        for (int current = source, remaining = length; remaining > 0; remaining--) {
+            int previous = current;
+            for (int i = offsets[previous]; i < offsets[previous + 1]; i++) {
+                if (distances[targets[i] * vertexCount + target] == remaining - 1) {
+                    current = targets[i];
+                    break;
+                }
+            }
+            fullPath.add(new Edge<>(snapshot.valueOf(previous), snapshot.valueOf(current)));
+        }
+        return fullPath;
+    }
+}
@@ -0,0 +1,99 @@
+package org.natera.test;
+
+import java.util.*;
+
+/**
+ * Breadth-first search tree of a {@link GraphSnapshot} rooted at a source vertex.
+ *
+ * Keeps distance and parent of every vertex in int arrays indexed by vertex id, paths are built
+ * from the parent array only when requested. Distances are numbers of edges, weights are ignored.
+ *
+ * Thread safe.
+ *
+ * @param <T>
+ */
+public final class DistanceTree<T> {
+
+    /**
+     * Distance of vertexes which are not reachable from the source.
+     */
+    public static final int UNREACHABLE = -1;
+
+    private final GraphSnapshot<T> snapshot;
+    private final int source;
+    private final int[] distances;
+    private final int[] parents;
+    private final int reachableCount;
+
+    DistanceTree(GraphSnapshot<T> snapshot, int source) {
+        this.snapshot = snapshot;
+        this.source = source;
+        int[] offsets = snapshot.getOffsets();
+        int[] targets = snapshot.getTargets();
+        distances = new int[snapshot.getVertexCount()];
+        Arrays.fill(distances, UNREACHABLE);
+        parents = new int[distances.length];
+        //visited vertexes are the prefix of the queue
+        int[] queue = new int[distances.length];
+        int head = 0;
+        int tail = 0;
+        distances[source] = 0;
+        parents[source] = -1;
+        queue[tail++] = source;
+        while (head < tail) {
+            int current = queue[head++];
+            for (int i = offsets[current]; i < offsets[current + 1]; i++) {
+                int next = targets[i];
+                if (distances[next] == UNREACHABLE) {
+                    distances[next] = distances[current] + 1;
+                    parents[next] = current;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        reachableCount = tail;
+    }
+
+    public T getSource() {
+        return snapshot.valueOf(source);
+    }
+
+    /**
+     * @return number of vertexes reachable from the source, including the source
+     */
+    public int getReachableCount() {
+        return reachableCount;
+    }
+
+    /**
+     * Return number of edges in the shortest path from the source.
+     *
+     * @param vertexValue vertex to
+     * @return distance or {@link DistanceTree#UNREACHABLE}
+     * @throws IllegalArgumentException if vertex is null or not in the graph
+     */
+    public int getDistance(T vertexValue) {
+        return distances[snapshot.requireId(vertexValue)];
+    }
+
+    /**
+     * Return shortest path from the source, built from the parent array.
+     *
+     * @param vertexValue vertex to
+     * @return list of edges. If path does not exist or the vertex is the source, empty list is returned.
+     * @throws IllegalArgumentException if vertex is null or not in the graph
+     */
+    public List<Edge<T>> getPath(T vertexValue) {
+        int target = snapshot.requireId(vertexValue);
+        int length = distances[target];
+        if (length <= 0) {
+            return Collections.emptyList();
+        }
+        @SuppressWarnings("unchecked")
+        Edge<T>[] fullPath = (Edge<T>[]) new Edge<?>[length];
+        for (int current = target; current != source; current = parents[current]) {
+            fullPath[--length] = new Edge<>(snapshot.valueOf(parents[current]), snapshot.valueOf(current));
+        }
+        return Arrays.asList(fullPath);
+    }
+}
@@ -0,0 +1,567 @@
+package org.natera.test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Graph whose mutations are recorded in a write-ahead log, so they survive a crash.
+ *
+ * Every mutation changes the graph and appends a record to an in-memory buffer. A background thread writes
+ * the buffer to the log and forces it to the disk every {@link DurableGraph#setSyncInterval(long)} milliseconds,
+ * so one fsync commits all records appended since the previous one (group commit). {@link DurableGraph#sync()}
+ * waits until all records appended before it are on the disk, a crash may lose only records not synced yet.
+ *
+ * Once the log grows over {@link DurableGraph#setCompactionThreshold(long)} bytes a snapshot of the graph is
+ * taken and new records go to the next log. The background thread writes the snapshot as a {@link GraphFile}
+ * and deletes older logs and snapshots. The directory holds:
+ * <pre>
+ * snapshot-N.graph  graph built by all records of logs before N
+ * log-N.wal         records appended after snapshot N was taken
+ * </pre>
+ * Opening the directory loads the latest snapshot and replays only the logs written after it. A record is
+ * {@code int length, int crc32, byte type, values}, every value is {@code int length, bytes} encoded by
+ * the {@link VertexCodec}. Replay stops at the first torn or corrupt record and the log is truncated there.
+ *
+ * Edge weights are not logged. The graph returned by {@link DurableGraph#getGraph()} must be changed only
+ * through this object.
+ * Not thread safe.
+ *
+ * @param <T>
+ */
+public final class DurableGraph<T> implements Closeable {
+
+    static final byte VERTEX_ADDED = 1;
+    static final byte EDGE_ADDED = 2;
+    static final byte VERTEX_REMOVED = 3;
+    static final byte EDGE_REMOVED = 4;
+
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final long DEFAULT_SYNC_INTERVAL_MILLIS = 10;
+    private static final long DEFAULT_COMPACTION_THRESHOLD = 64L << 20;
+    private static final Pattern LOG_NAME = Pattern.compile("log-(\\d+)\\.wal");
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d+)\\.graph");
+
+    private final Path directory;
+    private final Graph<T> graph;
+    private final VertexCodec<T> codec;
+    private final Thread syncThread;
+    private volatile long syncIntervalMillis = DEFAULT_SYNC_INTERVAL_MILLIS;
+    private volatile long compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    //generation of the log receiving new records and its size
+    private long generation;
+    private long logSize;
+
+    private final Object lock = new Object();
+    //guarded by the lock
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private Rotation<T> rotation;
+    private long appendedCount;
+    private long syncedCount;
+    private long compactedGeneration;
+    private boolean syncRequested;
+    private boolean closed;
+    private IOException failure;
+
+    //used by the sync thread only
+    private FileChannel log;
+
+    private DurableGraph(Path directory, Graph<T> graph, VertexCodec<T> codec) throws IOException {
+        this.directory = directory;
+        this.graph = graph;
+        this.codec = codec;
+        recover();
+        syncThread = new Thread(this::runSync, "graph-log-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+    }
+
+    /**
+     * Opens the directory, creating it if needed, and loads its content into the graph.
+     *
+     * @param directory directory of logs and snapshots
+     * @param graph empty graph of the same kind, directed or undirected, as the one kept in the directory
+     * @param codec encoding of vertex values
+     * @return durable graph
+     * @throws IllegalArgumentException if an argument is null or the graph is not empty
+     * @throws IOException if the directory cannot be read or holds a graph of another kind
+     */
+    public static <T> DurableGraph<T> open(Path directory, Graph<T> graph, VertexCodec<T> codec)
+            throws IOException {
+        if (directory == null || graph == null || codec == null) {
+            throw new IllegalArgumentException("Directory, graph and codec must be not null");
+        }
+        if (!graph.getVertexes().isEmpty()) {
+            throw new IllegalArgumentException("Graph must be empty");
+        }
+        Files.createDirectories(directory);
+        return new DurableGraph<>(directory, graph, codec);
+    }
+
+    /**
+     * @return graph with all changes, for queries only
+     */
+    public Graph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Sets max time a record waits for the fsync, 10 milliseconds by default.
+     *
+     * @param syncIntervalMillis interval in milliseconds
+     * @return this durable graph
+     * @throws IllegalArgumentException if interval is not positive
+     */
+    public DurableGraph<T> setSyncInterval(long syncIntervalMillis) {
+        if (syncIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Sync interval must be positive");
+        }
+        this.syncIntervalMillis = syncIntervalMillis;
+        return this;
+    }
+
+    /**
+     * Sets size of the log which triggers a snapshot, 64MB by default.
+     *
+     * @param compactionThreshold size in bytes
+     * @return this durable graph
+     * @throws IllegalArgumentException if threshold is not positive
+     */
+    public DurableGraph<T> setCompactionThreshold(long compactionThreshold) {
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("Compaction threshold must be positive");
+        }
+        this.compactionThreshold = compactionThreshold;
+        return this;
+    }
+
+    /**
+     * Add new vertex to graph.
+     * If the vertex already exists in the graph, nothing happens.
+     *
+     * @param value vertex value
+     * @throws IllegalArgumentException if value is null
+     * @throws UncheckedIOException if the log has failed
+     */
+    public void addVertex(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must be not null");
+        }
+        checkOpen();
+        if (!graph.getVertexes().containsKey(value)) {
+            graph.addVertex(value);
+            append(VERTEX_ADDED, value, null);
+        }
+    }
+
+    /**
+     * Adds new edge between specified vertexes, directed or undirected as the edges of the graph.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     * @throws UncheckedIOException if the log has failed
+     */
+    public void addEdge(T vertexValueFrom, T vertexValueTo) {
+        checkOpen();
+        Graph.Vertex<T> vertexFrom = graph.getVertex(vertexValueFrom);
+        graph.getVertex(vertexValueTo);
+        if (!vertexFrom.getEdgesTo().contains(vertexValueTo)) {
+            graph.addEdge(vertexValueFrom, vertexValueTo);
+            append(EDGE_ADDED, vertexValueFrom, vertexValueTo);
+        }
+    }
+
+    /**
+     * Removes vertex with all its edges, see {@link Graph#removeVertex(Object)}.
+     *
+     * @param value vertex value
+     * @return true if the vertex was removed, false if it doesn't exist
+     * @throws UncheckedIOException if the log has failed
+     */
+    public boolean removeVertex(T value) {
+        checkOpen();
+        if (!graph.removeVertex(value)) {
+            return false;
+        }
+        append(VERTEX_REMOVED, value, null);
+        return true;
+    }
+
+    /**
+     * Removes edge between specified vertexes, see {@link Graph#removeEdge(Object, Object)}.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return true if the edge was removed, false if it doesn't exist
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     * @throws UncheckedIOException if the log has failed
+     */
+    public boolean removeEdge(T vertexValueFrom, T vertexValueTo) {
+        checkOpen();
+        if (!graph.removeEdge(vertexValueFrom, vertexValueTo)) {
+            return false;
+        }
+        append(EDGE_REMOVED, vertexValueFrom, vertexValueTo);
+        return true;
+    }
+
+    /**
+     * Waits until all changes made before the call are on the disk.
+     *
+     * @throws IOException if the log has failed or the wait is interrupted
+     */
+    public void sync() throws IOException {
+        synchronized (lock) {
+            long target = appendedCount;
+            syncRequested = true;
+            lock.notifyAll();
+            while (syncedCount < target && failure == null) {
+                waitForSync();
+            }
+            checkFailure();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the graph and waits until it is written and older logs are deleted.
+     *
+     * @throws IOException if the log or the snapshot has failed or the wait is interrupted
+     */
+    public void compact() throws IOException {
+        checkOpen();
+        long target = startCompaction();
+        synchronized (lock) {
+            while (compactedGeneration < target && failure == null) {
+                waitForSync();
+            }
+            checkFailure();
+        }
+    }
+
+    /**
+     * Writes all changes to the disk and stops the sync thread.
+     *
+     * @throws IOException if the log has failed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            syncThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the log");
+        }
+        synchronized (lock) {
+            checkFailure();
+        }
+    }
+
+    private void append(byte type, T first, T second) {
+        byte[] firstBytes = codec.encode(first);
+        byte[] secondBytes = second == null ? null : codec.encode(second);
+        int payloadSize = 1 + Integer.BYTES + firstBytes.length
+                + (secondBytes == null ? 0 : Integer.BYTES + secondBytes.length);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadSize);
+        record.putInt(payloadSize).putInt(0).put(type).putInt(firstBytes.length).put(firstBytes);
+        if (secondBytes != null) {
+            record.putInt(secondBytes.length).put(secondBytes);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), RECORD_HEADER_SIZE, payloadSize);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+
+        synchronized (lock) {
+            pending.write(record.array(), 0, record.capacity());
+            appendedCount++;
+        }
+        logSize += record.capacity();
+        if (logSize >= compactionThreshold) {
+            startCompaction();
+        }
+    }
+
+    /**
+     * Takes a snapshot and switches new records to the next log, unless a snapshot is already waiting
+     * for the sync thread.
+     *
+     * @return generation of the snapshot
+     */
+    private long startCompaction() {
+        synchronized (lock) {
+            if (rotation != null) {
+                return rotation.generation;
+            }
+        }
+        GraphSnapshot<T> snapshot = graph.snapshot();
+        synchronized (lock) {
+            generation++;
+            rotation = new Rotation<>(snapshot, generation, pending.toByteArray());
+            pending = new ByteArrayOutputStream();
+            syncRequested = true;
+            lock.notifyAll();
+        }
+        logSize = 0;
+        return generation;
+    }
+
+    private void runSync() {
+        while (true) {
+            Rotation<T> currentRotation;
+            byte[] records;
+            long target;
+            boolean stop;
+            synchronized (lock) {
+                if (!syncRequested && !closed) {
+                    try {
+                        lock.wait(syncIntervalMillis);
+                    } catch (InterruptedException e) {
+                        //keep syncing until closed
+                    }
+                }
+                syncRequested = false;
+                currentRotation = rotation;
+                rotation = null;
+                records = pending.toByteArray();
+                pending.reset();
+                target = appendedCount;
+                stop = closed;
+            }
+            try {
+                if (currentRotation != null) {
+                    //records appended before the snapshot belong to the previous log
+                    write(currentRotation.records);
+                    log.force(false);
+                    log.close();
+                    log = openLog(currentRotation.generation);
+                }
+                if (records.length > 0) {
+                    write(records);
+                    log.force(false);
+                }
+                if (currentRotation != null) {
+                    writeSnapshot(currentRotation.snapshot, currentRotation.generation);
+                    deleteOlderThan(currentRotation.generation);
+                }
+                synchronized (lock) {
+                    syncedCount = target;
+                    if (currentRotation != null) {
+                        compactedGeneration = currentRotation.generation;
+                    }
+                    lock.notifyAll();
+                }
+                if (stop) {
+                    log.close();
+                    return;
+                }
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                try {
+                    log.close();
+                } catch (IOException ignored) {
+                    //the failure is already reported
+                }
+                return;
+            }
+        }
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            log.write(buffer);
+        }
+    }
+
+    private FileChannel openLog(long logGeneration) throws IOException {
+        return FileChannel.open(directory.resolve("log-" + logGeneration + ".wal"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void writeSnapshot(GraphSnapshot<T> snapshot, long snapshotGeneration) throws IOException {
+        Path file = directory.resolve("snapshot-" + snapshotGeneration + ".graph");
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        GraphFile.write(snapshot, temporary, codec);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            //directories can't be forced on some platforms, the rename is still atomic
+        }
+    }
+
+    private void deleteOlderThan(long oldestGeneration) throws IOException {
+        for (Path file : listFiles(LOG_NAME).headMap(oldestGeneration).values()) {
+            Files.deleteIfExists(file);
+        }
+        for (Path file : listFiles(SNAPSHOT_NAME).headMap(oldestGeneration).values()) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private TreeMap<Long, Path> listFiles(Pattern name) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                Matcher matcher = name.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    files.put(Long.parseLong(matcher.group(1)), file);
+                }
+            }
+        }
+        return files;
+    }
+
+    private void recover() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.tmp")) {
+            for (Path file : stream) {
+                Files.delete(file);
+            }
+        }
+        TreeMap<Long, Path> snapshots = listFiles(SNAPSHOT_NAME);
+        TreeMap<Long, Path> logs = listFiles(LOG_NAME);
+        long snapshotGeneration = 0;
+        if (!snapshots.isEmpty()) {
+            snapshotGeneration = snapshots.lastKey();
+            MappedGraph<T> snapshot = MappedGraph.open(snapshots.lastEntry().getValue(), codec);
+            if (snapshot.isDirected() != graph.isDirected()) {
+                throw new IOException("Snapshot " + snapshots.lastEntry().getValue() + " is of another graph kind");
+            }
+            snapshot.copyTo(graph);
+        }
+        for (Path file : logs.tailMap(snapshotGeneration).values()) {
+            replay(file);
+        }
+        generation = logs.isEmpty() ? snapshotGeneration : Math.max(snapshotGeneration, logs.lastKey());
+        compactedGeneration = snapshotGeneration;
+        log = openLog(generation);
+        logSize = log.size();
+        deleteOlderThan(snapshotGeneration);
+    }
+
+    /**
+     * Applies valid records of the log to the graph and truncates the log after the last one.
+     */
+    private void replay(Path file) throws IOException {
+        long validSize = 0;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            long fileSize = Files.size(file);
+            while (fileSize - validSize >= RECORD_HEADER_SIZE) {
+                int payloadSize = input.readInt();
+                int checksum = input.readInt();
+                if (payloadSize <= 0 || payloadSize > fileSize - validSize - RECORD_HEADER_SIZE) {
+                    break;
+                }
+                byte[] payload = new byte[payloadSize];
+                input.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload, 0, payloadSize);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                apply(ByteBuffer.wrap(payload), file);
+                validSize += RECORD_HEADER_SIZE + payloadSize;
+            }
+        }
+        if (validSize < Files.size(file)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validSize);
+                channel.force(false);
+            }
+        }
+    }
+
+    private void apply(ByteBuffer payload, Path file) throws IOException {
+        byte type = payload.get();
+        try {
+            T first = readValue(payload);
+            switch (type) {
+                case VERTEX_ADDED:
+                    graph.addVertex(first);
+                    break;
+                case EDGE_ADDED:
+                    graph.addEdge(first, readValue(payload));
+                    break;
+                case VERTEX_REMOVED:
+                    graph.removeVertex(first);
+                    break;
+                case EDGE_REMOVED:
+                    graph.removeEdge(first, readValue(payload));
+                    break;
+                default:
+                    throw new IOException("Unknown record type " + type + " in " + file);
+            }
+        } catch (IllegalArgumentException | java.nio.BufferUnderflowException e) {
+            throw new IOException("Record of " + file + " doesn't match the graph", e);
+        }
+    }
+
+    private T readValue(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getInt()];
+        payload.get(bytes);
+        return codec.decode(bytes);
+    }
+
+    private void checkOpen() {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Graph is closed");
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Write-ahead log has failed", failure);
+            }
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Write-ahead log has failed", failure);
+        }
+    }
+
+    private void waitForSync() throws InterruptedIOException {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the log");
+        }
+    }
+
+    /**
+     * Snapshot waiting for the sync thread with the records of the log it closes.
+     */
+    private static final class Rotation<T> {
+        private final GraphSnapshot<T> snapshot;
+        private final long generation;
+        private final byte[] records;
+
+        private Rotation(GraphSnapshot<T> snapshot, long generation, byte[] records) {
+            this.snapshot = snapshot;
+            this.generation = generation;
+            this.records = records;
+        }
+    }
+}
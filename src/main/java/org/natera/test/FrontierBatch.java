@@ -0,0 +1,69 @@
+package org.natera.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Vertexes visited by one level of a distributed search, sent to the shard owning them.
+ * Vertex {@code getVertexes().get(i)} was reached from {@code getParents().get(i)}.
+ *
+ * Batches returned by {@link Shard#expand} also tell whether the shard reached the target and how many
+ * of its own vertexes it visited for the next level.
+ *
+ * Immutable if the vertex values are immutable.
+ *
+ * @param <T>
+ */
+public final class FrontierBatch<T> {
+
+    private static final FrontierBatch<?> EMPTY =
+            new FrontierBatch<>(Collections.emptyList(), Collections.emptyList(), false, 0);
+
+    private final List<T> vertexes;
+    private final List<T> parents;
+    private final boolean targetReached;
+    private final int localFrontierSize;
+
+    /**
+     * @param vertexes visited vertexes
+     * @param parents vertexes they were reached from, a vertex is its own parent at the start of the search
+     * @param targetReached whether the shard has visited the target
+     * @param localFrontierSize number of vertexes the shard visited for the next level
+     * @throws IllegalArgumentException if lists are null or have different sizes
+     */
+    public FrontierBatch(List<T> vertexes, List<T> parents, boolean targetReached, int localFrontierSize) {
+        if (vertexes == null || parents == null || vertexes.size() != parents.size()) {
+            throw new IllegalArgumentException("Every vertex must have a parent");
+        }
+        this.vertexes = Collections.unmodifiableList(new ArrayList<>(vertexes));
+        this.parents = Collections.unmodifiableList(new ArrayList<>(parents));
+        this.targetReached = targetReached;
+        this.localFrontierSize = localFrontierSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> FrontierBatch<T> empty() {
+        return (FrontierBatch<T>) EMPTY;
+    }
+
+    public List<T> getVertexes() {
+        return vertexes;
+    }
+
+    public List<T> getParents() {
+        return parents;
+    }
+
+    public int size() {
+        return vertexes.size();
+    }
+
+    public boolean isTargetReached() {
+        return targetReached;
+    }
+
+    public int getLocalFrontierSize() {
+        return localFrontierSize;
+    }
+}
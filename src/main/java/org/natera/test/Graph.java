@@ -1,6 +1,8 @@
 package org.natera.test;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleBiFunction;
 
 /**
  * Abstract implementation of graph.
@@ -12,12 +14,69 @@ import java.util.*;
  */
 public abstract class Graph<T> {
 
-    private final Map<T, Vertex<T>> vertexes = new HashMap<>();
+    private static final MultiTargetPathFinder MULTI_TARGET_FINDER = new MultiTargetPathFinder();
+    private static final WeightedPathFinder WEIGHTED_FINDER = new WeightedPathFinder();
+    private static final ReversePathFinder REVERSE_FINDER = new ReversePathFinder();
 
+    /**
+     * Weight of edges added without a weight.
+     */
+    public static final double DEFAULT_WEIGHT = 1.0;
+
+    /**
+     * Default min size of a frontier expanded in parallel by {@link PathStrategy#PARALLEL}.
+     */
+    public static final int DEFAULT_PARALLEL_FRONTIER_THRESHOLD = 1024;
+
+    private final VertexIndex<T> vertexes = new VertexIndex<>(KeyEncoding.natural());
+    private final ArrayList<Vertex<T>> vertexesById = new ArrayList<>();
+    private PathStrategy pathStrategy = PathStrategy.BIDIRECTIONAL;
+    //incremented on every change of vertexes or edges
+    private long modCount;
+    //number of directed edges, an undirected edge is counted in both directions
+    private long arcCount;
+    private GraphSnapshot<T> frozenSnapshot;
+    private long frozenModCount;
+    //snapshot with reverse rows for getPathReverse of graphs without the index of incoming edges
+    private GraphSnapshot<T> reverseSnapshot;
+    private long reverseModCount;
+    private PathCache<T> pathCache;
+    private ForkJoinPool parallelPool = ForkJoinPool.commonPool();
+    private int parallelFrontierThreshold = DEFAULT_PARALLEL_FRONTIER_THRESHOLD;
+    //union-find kept from the first vertex for undirected graphs, built on the first query for directed ones
+    private ReachabilityIndex reachability;
+    private GraphMetrics metrics;
+
+    /**
+     * @return read only map of vertexes by their values, keys are compared by the {@link KeyEncoding} of the graph
+     */
     public Map<T, Vertex<T>> getVertexes() {
         return vertexes;
     }
 
+    public KeyEncoding<T> getKeyEncoding() {
+        return vertexes.getEncoding();
+    }
+
+    /**
+     * Sets hashing and equality of vertex values, {@link KeyEncoding#natural()} by default.
+     * Values are hashed once per call and only their vertex ids are used by searches,
+     * see {@link KeyEncoding}.
+     *
+     * @param keyEncoding encoding of vertex values
+     * @throws IllegalArgumentException if encoding is null
+     * @throws IllegalStateException if the graph already has vertexes
+     */
+    public void setKeyEncoding(KeyEncoding<T> keyEncoding) {
+        if (keyEncoding == null) {
+            throw new IllegalArgumentException("Key encoding must be not null");
+        }
+        if (!vertexes.isEmpty()) {
+            throw new IllegalStateException("Key encoding must be set before vertexes are added");
+        }
+        vertexes.setEncoding(keyEncoding);
+    }
+
     /**
      * Add new vertex to graph.
      * If the vertex already exists in the graph, nothing happens.
@@ -29,7 +88,166 @@ public abstract class Graph<T> {
         if (value == null) {
             throw new IllegalArgumentException("Value must be not null");
         }
-        vertexes.computeIfAbsent(value, Vertex::new);
+        long start = startOperation();
+        addVertexIfAbsent(value);
+        finishOperation(GraphMetrics.Operation.ADD_VERTEX, start);
+    }
+
+    Vertex<T> addVertexIfAbsent(T value) {
+        int hash = vertexes.hash(value);
+        Vertex<T> vertex = vertexes.get(value, hash);
+        if (vertex == null) {
+            vertex = createVertex(value, hash);
+            vertexes.add(vertex);
+        }
+        return vertex;
+    }
+
+    /**
+     * Prepares the graph for the specified number of vertexes, so adding them does not resize the vertex map.
+     *
+     * @param expectedVertexes expected total number of vertexes
+     */
+    void ensureVertexCapacity(int expectedVertexes) {
+        if (expectedVertexes <= vertexes.size()) {
+            return;
+        }
+        vertexes.ensureCapacity(expectedVertexes);
+        vertexesById.ensureCapacity(expectedVertexes);
+    }
+
+    private Vertex<T> createVertex(T value, int keyHash) {
+        Vertex<T> vertex = new Vertex<>(this, value, vertexesById.size(), keyHash);
+        vertexesById.add(vertex);
+        modCount++;
+        if (pathCache != null) {
+            pathCache.onVertexAdded(modCount);
+        }
+        if (reachability == null && !isDirected()) {
+            reachability = new UnionFind(this);
+            reachability.rebuild();
+        } else if (reachability != null) {
+            reachability.onVertexAdded(vertex.getId());
+        }
+        return vertex;
+    }
+
+    /**
+     * Removes vertex and all edges going to and from it.
+     * Costs O(degree): edges going to the vertex are found in the index of incoming edges.
+     * Directed graphs without the index scan all vertexes instead.
+     * The vertex added last takes the dense id of the removed one.
+     *
+     * @param value vertex value
+     * @return true if the vertex existed
+     * @throws IllegalArgumentException if value is null
+     */
+    public boolean removeVertex(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must be not null");
+        }
+        Vertex<T> vertex = vertexes.remove(value);
+        if (vertex == null) {
+            return false;
+        }
+        int id = vertex.getId();
+        AdjacencySet edgesTo = vertex.getEdgesToIds();
+        arcCount -= edgesTo.size();
+        for (int cursor = edgesTo.next(0); cursor >= 0; cursor = edgesTo.next(cursor + 1)) {
+            int next = edgesTo.idAt(cursor);
+            if (next == id) {
+                continue;
+            }
+            if (isDirected()) {
+                vertexesById.get(next).removeEdgeFrom(vertex);
+            } else {
+                vertexesById.get(next).removeEdgeTo(vertex);
+                arcCount--;
+            }
+        }
+        if (isDirected() && isIncomingIndexed()) {
+            AdjacencySet edgesFrom = vertex.getEdgesFromIds();
+            for (int cursor = edgesFrom.next(0); cursor >= 0; cursor = edgesFrom.next(cursor + 1)) {
+                int previous = edgesFrom.idAt(cursor);
+                if (previous != id) {
+                    vertexesById.get(previous).removeEdgeTo(vertex);
+                    arcCount--;
+                }
+            }
+        } else if (isDirected()) {
+            for (Vertex<T> previous : vertexesById) {
+                if (previous != vertex && previous.removeEdgeTo(vertex)) {
+                    arcCount--;
+                }
+            }
+        }
+
+        Vertex<T> last = vertexesById.remove(vertexesById.size() - 1);
+        if (last != vertex) {
+            renumber(last, id);
+            vertexesById.set(id, last);
+        }
+        onRemoved();
+        return true;
+    }
+
+    /**
+     * Moves vertex to a new id, replacing its old id in the edge sets of its neighbours.
+     */
+    private void renumber(Vertex<T> vertex, int newId) {
+        int oldId = vertex.getId();
+        AdjacencySet edgesTo = vertex.getEdgesToIds();
+        if (isIncomingIndexed()) {
+            for (int cursor = edgesTo.next(0); cursor >= 0; cursor = edgesTo.next(cursor + 1)) {
+                int next = edgesTo.idAt(cursor);
+                if (next != oldId) {
+                    AdjacencySet incoming = getIncomingIds(vertexesById.get(next));
+                    incoming.remove(oldId);
+                    incoming.add(newId);
+                    if (!isDirected()) {
+                        vertexesById.get(next).renumberWeight(oldId, newId);
+                    }
+                }
+            }
+        }
+        if (isDirected() && !isIncomingIndexed()) {
+            for (Vertex<T> previous : vertexesById) {
+                AdjacencySet outgoing = previous.getEdgesToIds();
+                if (previous != vertex && outgoing.remove(oldId)) {
+                    outgoing.add(newId);
+                    previous.renumberWeight(oldId, newId);
+                }
+            }
+        } else if (isDirected()) {
+            AdjacencySet edgesFrom = vertex.getEdgesFromIds();
+            for (int cursor = edgesFrom.next(0); cursor >= 0; cursor = edgesFrom.next(cursor + 1)) {
+                int previous = edgesFrom.idAt(cursor);
+                if (previous != oldId) {
+                    AdjacencySet outgoing = vertexesById.get(previous).getEdgesToIds();
+                    outgoing.remove(oldId);
+                    outgoing.add(newId);
+                    vertexesById.get(previous).renumberWeight(oldId, newId);
+                }
+            }
+            if (edgesFrom.remove(oldId)) {
+                edgesFrom.add(newId);
+            }
+        }
+        if (edgesTo.remove(oldId)) {
+            edgesTo.add(newId);
+            vertex.renumberWeight(oldId, newId);
+        }
+        vertex.id = newId;
+    }
+
+    private void onRemoved() {
+        modCount++;
+        if (pathCache != null) {
+            pathCache.onGraphChanged(modCount);
+        }
+        if (reachability != null) {
+            reachability.invalidate();
+        }
     }
 
     /**
@@ -41,61 +259,562 @@ public abstract class Graph<T> {
      */
     public abstract void addEdge(T vertexValueFrom, T vertexValueTo);
 
+    /**
+     * Abstract method for adding new weighted edge between specified vertexes.
+     * If the edge already exists, its weight is replaced.
+     * {@link Graph#addPath(T, T, double)} must be used for adding new directed edge.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @param weight not negative weight of the edge
+     */
+    public abstract void addEdge(T vertexValueFrom, T vertexValueTo, double weight);
+
+    /**
+     * Abstract method for removing edge between specified vertexes.
+     * {@link Graph#removePath(T, T)} must be used for removing directed edge.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return true if the edge existed
+     */
+    public abstract boolean removeEdge(T vertexValueFrom, T vertexValueTo);
+
+    /**
+     * Return weight of the edge between two vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return weight of the edge, {@link Graph#DEFAULT_WEIGHT} if the edge was added without a weight
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph, or there is no such edge
+     */
+    public double getEdgeWeight(T vertexValueFrom, T vertexValueTo) {
+        Vertex<T> vertexFrom = getVertex(vertexValueFrom);
+        Vertex<T> vertexTo = getVertex(vertexValueTo);
+        if (!vertexFrom.getEdgesToIds().contains(vertexTo.getId())) {
+            throw new IllegalArgumentException("Edge " + vertexValueFrom + " -> " + vertexValueTo + " doesn't exist");
+        }
+        return vertexFrom.getWeight(vertexTo.getId());
+    }
+
     /**
      * Return path between two vertexes.
+     * The path is searched with the current {@link PathStrategy}, {@link PathStrategy#BIDIRECTIONAL} by default.
+     * If the graph was frozen and has not been changed since then, the frozen snapshot is used instead.
+     * If the path cache is enabled, returned lists are unmodifiable.
+     * Pairs known to be not connected by {@link Graph#isConnected(T, T)} are answered without a search.
+     * The list is built from the {@link Path} returned by {@link Graph#findPath(T, T)}.
      *
      * @param vertexValueFrom vertex from
      * @param vertexValueTo vertex to
-     * @return list of edges. If path does not exist, empty list is returned.
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
      * @throws IllegalAccessException if from or to vertex is null or not in the graph
      */
     public List<Edge<T>> getPath(T vertexValueFrom, T vertexValueTo) {
+        return getPath(vertexValueFrom, vertexValueTo, TraversalContext.current());
+    }
+
+    /**
+     * Return path between two vertexes, see {@link Graph#getPath(T, T)}.
+     * The search keeps its state in the specified context instead of the context of the current thread.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @param context scratch space of the search
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph, or context is null
+     */
+    public List<Edge<T>> getPath(T vertexValueFrom, T vertexValueTo, TraversalContext context) {
+        Path<T> path = findPath(vertexValueFrom, vertexValueTo, context);
+        //cached paths are shared, so they are returned as the unmodifiable view
+        return pathCache == null ? path.toList() : path.asList();
+    }
+
+    /**
+     * Return path between two vertexes, see {@link Graph#getPath(T, T)}.
+     * Edges of the path are not created unless they are requested.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return path. If path does not exist or vertexes are equal, empty path is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    public Path<T> findPath(T vertexValueFrom, T vertexValueTo) {
+        return findPath(vertexValueFrom, vertexValueTo, TraversalContext.current());
+    }
+
+    /**
+     * Return path between two vertexes, see {@link Graph#getPath(T, T)}.
+     * The search keeps its state in the specified context instead of the context of the current thread.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @param context scratch space of the search
+     * @return path. If path does not exist or vertexes are equal, empty path is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph, or context is null
+     */
+    public Path<T> findPath(T vertexValueFrom, T vertexValueTo, TraversalContext context) {
+        if (context == null) {
+            throw new IllegalArgumentException("Context must be not null");
+        }
+        if (metrics == null) {
+            return lookupPath(vertexValueFrom, vertexValueTo, context);
+        }
+        long start = System.nanoTime();
+        context.clearTraversal();
+        Path<T> path = lookupPath(vertexValueFrom, vertexValueTo, context);
+        metrics.recordLatency(GraphMetrics.Operation.GET_PATH, System.nanoTime() - start);
+        context.reportTraversal(metrics);
+        return path;
+    }
+
+    private Path<T> lookupPath(T vertexValueFrom, T vertexValueTo, TraversalContext context) {
         //check if in graph
-        getVertex(vertexValueFrom);
-        getVertex(vertexValueTo);
-
-        Map<T, VisitedVertex<T>> paths = new HashMap<>();
-        Set<T> shouldBeVisited = new HashSet<>();
-        
-        paths.put(vertexValueFrom, new VisitedVertex<>(null, 0));
-        shouldBeVisited.add(vertexValueFrom);
-
-        while (!shouldBeVisited.isEmpty()) {
-            Set<T> vertexWithUpdatedDistance = new HashSet<>();
-            for (T currentVertex : shouldBeVisited) {
-                long currentDistance = paths.get(currentVertex).getDistance();
-                for (T nextVertex : vertexes.get(currentVertex).getEdgesTo()) {
-                    long nextDistance = Optional.ofNullable(paths.get(nextVertex))
-                            .map(VisitedVertex::getDistance)
-                            .orElse(Long.MAX_VALUE);
-                    if (nextDistance > currentDistance + 1) {
-                        paths.put(nextVertex, new VisitedVertex<>(currentVertex, currentDistance + 1));
-                        vertexWithUpdatedDistance.add(nextVertex);
-                    }
-                }
-            }
-            shouldBeVisited = vertexWithUpdatedDistance;
+        Vertex<T> vertexFrom = getVertex(vertexValueFrom);
+        Vertex<T> vertexTo = getVertex(vertexValueTo);
+
+        if (vertexFrom == vertexTo) {
+            return Path.empty();
+        }
+        if (reachability != null && reachability.isCurrent()
+                && !reachability.isReachable(vertexFrom.getId(), vertexTo.getId())) {
+            return Path.empty();
+        }
+        if (pathCache == null) {
+            return searchPath(vertexValueFrom, vertexValueTo, context);
+        }
+        Path<T> path = pathCache.get(vertexFrom.getId(), vertexTo.getId());
+        if (path == null) {
+            path = searchPath(vertexValueFrom, vertexValueTo, context);
+            pathCache.put(vertexFrom.getId(), vertexTo.getId(), path, modCount);
+        }
+        return path;
+    }
+
+    /**
+     * Checks whether there is a path between two vertexes.
+     * Undirected graphs keep connected components in a union-find updated by every new edge.
+     * Directed graphs index the condensation of strongly connected components, the index is built
+     * by the first call and rebuilt by the first call after an edge joining different components is added.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return true if path exists or vertexes are equal
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    public boolean isConnected(T vertexValueFrom, T vertexValueTo) {
+        Vertex<T> vertexFrom = getVertex(vertexValueFrom);
+        Vertex<T> vertexTo = getVertex(vertexValueTo);
+        if (vertexFrom == vertexTo) {
+            return true;
+        }
+        if (reachability == null) {
+            reachability = isDirected() ? new CondensationIndex(this) : new UnionFind(this);
+        }
+        if (!reachability.isCurrent()) {
+            reachability.rebuild();
         }
+        return reachability.isReachable(vertexFrom.getId(), vertexTo.getId());
+    }
 
-        return collectPath(vertexValueFrom, vertexValueTo, paths);
+    /**
+     * Return path with the lowest total weight between two vertexes, found by Dijkstra's algorithm.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    public List<Edge<T>> getShortestPath(T vertexValueFrom, T vertexValueTo) {
+        return getShortestPath(vertexValueFrom, vertexValueTo, null);
     }
 
-    private List<Edge<T>> collectPath(T vertexValueFrom, T vertexValueTo, Map<T, VisitedVertex<T>> paths) {
-        T currentVertex = vertexValueTo;
-        VisitedVertex<T> pathToCurrent = paths.get(currentVertex);
-        if (pathToCurrent == null) {
+    /**
+     * Return path with the lowest total weight between two vertexes, found by A* search.
+     * The heuristic must never overestimate the weight of the rest of the path, otherwise the result
+     * may be not optimal.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @param heuristic lower bound of the path weight from a vertex (first argument) to the target (second argument),
+     *                  null for Dijkstra's algorithm
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    public List<Edge<T>> getShortestPath(T vertexValueFrom, T vertexValueTo, ToDoubleBiFunction<T, T> heuristic) {
+        if (getVertex(vertexValueFrom) == getVertex(vertexValueTo)) {
+            return Collections.emptyList();
+        }
+        return WEIGHTED_FINDER.findPath(this, vertexValueFrom, vertexValueTo, heuristic, TraversalContext.current())
+                .toList();
+    }
+
+    private Path<T> searchPath(T vertexValueFrom, T vertexValueTo, TraversalContext context) {
+        if (frozenSnapshot != null && frozenModCount == modCount) {
+            return frozenSnapshot.findPath(vertexValueFrom, vertexValueTo, context);
+        }
+        return pathStrategy.getFinder().findPath(this, vertexValueFrom, vertexValueTo, context);
+    }
+
+    /**
+     * Return shortest path between two vertexes found by breadth-first search from the target vertex
+     * over incoming edges, see {@link Graph#getPredecessors(T)}. The path is as long as the one found by
+     * {@link PathStrategy#SHORTEST}, the backward search is cheaper when edges fan in to the target.
+     * If the graph was frozen and has not been changed since then, the search runs over the incoming edges
+     * of the frozen snapshot. A directed graph which doesn't keep the index of incoming edges builds a snapshot
+     * and its incoming edges in O(V + E) on the first call after every change and reuses them until the next one,
+     * so between changes prefer {@link Graph#freeze()} or {@link DirectedGraph#DirectedGraph(boolean)}.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    public List<Edge<T>> getPathReverse(T vertexValueFrom, T vertexValueTo) {
+        if (getVertex(vertexValueFrom) == getVertex(vertexValueTo)) {
             return Collections.emptyList();
         }
+        if (frozenSnapshot != null && frozenModCount == modCount) {
+            return frozenSnapshot.getPathReverse(vertexValueFrom, vertexValueTo);
+        }
+        if (!isIncomingIndexed()) {
+            if (reverseSnapshot == null || reverseModCount != modCount) {
+                reverseSnapshot = snapshot();
+                reverseModCount = modCount;
+            }
+            return reverseSnapshot.getPathReverse(vertexValueFrom, vertexValueTo);
+        }
+        return REVERSE_FINDER.findPath(this, vertexValueFrom, vertexValueTo, TraversalContext.current()).toList();
+    }
+
+    /**
+     * Returns values of vertexes which have an edge to the specified vertex.
+     * The set is a read only view of the index of incoming edges kept by {@link Graph#addPath(T, T)}.
+     * Directed graphs without the index return a copy built by scanning all vertexes.
+     *
+     * @param vertexValue vertex value
+     * @return set of vertex values
+     * @throws IllegalArgumentException if vertex is null or not in the graph
+     */
+    public Set<T> getPredecessors(T vertexValue) {
+        Vertex<T> vertex = getVertex(vertexValue);
+        if (isIncomingIndexed()) {
+            return getIncomingEdges(vertex);
+        }
+        Set<T> predecessors = new HashSet<>();
+        for (Vertex<T> previous : vertexesById) {
+            if (previous.getEdgesToIds().contains(vertex.getId())) {
+                predecessors.add(previous.getValue());
+            }
+        }
+        return Collections.unmodifiableSet(predecessors);
+    }
+
+    /**
+     * Returns number of edges going to the vertex, see {@link Graph#getPredecessors(T)}.
+     *
+     * @param vertexValue vertex value
+     * @return number of incoming edges
+     * @throws IllegalArgumentException if vertex is null or not in the graph
+     */
+    public int getInDegree(T vertexValue) {
+        Vertex<T> vertex = getVertex(vertexValue);
+        if (isIncomingIndexed()) {
+            return getIncomingIds(vertex).size();
+        }
+        int degree = 0;
+        for (Vertex<T> previous : vertexesById) {
+            if (previous.getEdgesToIds().contains(vertex.getId())) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * @param vertexValue vertex value
+     * @return number of edges going out of the vertex
+     * @throws IllegalArgumentException if vertex is null or not in the graph
+     */
+    public int getOutDegree(T vertexValue) {
+        return getVertex(vertexValue).getEdgesToIds().size();
+    }
+
+    /**
+     * Enables cache of {@link Graph#getPath(T, T)} results invalidated by any change of the graph.
+     *
+     * @param maximumSize max number of cached paths
+     * @return new cache, its statistics are available until the cache is replaced or disabled
+     * @throws IllegalArgumentException if maximum size is not positive
+     */
+    public PathCache<T> enablePathCache(int maximumSize) {
+        return enablePathCache(maximumSize, false);
+    }
+
+    /**
+     * Enables cache of {@link Graph#getPath(T, T)} results, see {@link PathCache}.
+     *
+     * @param maximumSize max number of cached paths
+     * @param preciseInvalidation whether to keep paths which a change of the graph cannot affect
+     * @return new cache, its statistics are available until the cache is replaced or disabled
+     * @throws IllegalArgumentException if maximum size is not positive
+     */
+    public PathCache<T> enablePathCache(int maximumSize, boolean preciseInvalidation) {
+        pathCache = new PathCache<>(maximumSize, preciseInvalidation, modCount);
+        return pathCache;
+    }
+
+    public void disablePathCache() {
+        pathCache = null;
+    }
+
+    /**
+     * @return current path cache or null if the cache is disabled
+     */
+    public PathCache<T> getPathCache() {
+        return pathCache;
+    }
+
+    /**
+     * Return paths from one vertex to several vertexes.
+     * One breadth-first search is run for all targets, it stops when every target is reached.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValuesTo vertexes to
+     * @return map of every target to the list of edges. If path does not exist or vertexes are equal,
+     * the target is mapped to empty list. Keys of the returned map are compared by their own equals.
+     * @throws IllegalArgumentException if any vertex is null or not in the graph
+     */
+    public Map<T, List<Edge<T>>> getPaths(T vertexValueFrom, Collection<T> vertexValuesTo) {
+        Vertex<T> vertexFrom = getVertex(vertexValueFrom);
+        int[] idsTo = new int[vertexValuesTo.size()];
+        int index = 0;
+        for (T vertexValueTo : vertexValuesTo) {
+            idsTo[index++] = getVertex(vertexValueTo).getId();
+        }
+        List<List<Edge<T>>> found = MULTI_TARGET_FINDER.findPaths(this, vertexFrom.getId(), idsTo);
+        Map<T, List<Edge<T>>> paths = new LinkedHashMap<>();
+        index = 0;
+        for (T vertexValueTo : vertexValuesTo) {
+            paths.put(vertexValueTo, found.get(index++));
+        }
+        return paths;
+    }
+
+    /**
+     * Return paths for several pairs of vertexes.
+     * Pairs are grouped by the vertex from, one search is run for every distinct vertex from,
+     * see {@link Graph#getPaths(T, Collection)}.
+     *
+     * @param pairs pairs of vertex from and vertex to
+     * @return map of every pair to the list of edges. If path does not exist or vertexes are equal,
+     * the pair is mapped to empty list. Keys of the returned map are compared by their own equals.
+     * @throws IllegalArgumentException if any pair or vertex is null or not in the graph
+     */
+    public Map<Edge<T>, List<Edge<T>>> getPaths(Collection<Edge<T>> pairs) {
+        //pairs are grouped by the id of vertex from, every pair remembers its position in the group
+        int[] idsFrom = new int[pairs.size()];
+        int[] positions = new int[pairs.size()];
+        Map<Integer, IdList> targetsBySource = new LinkedHashMap<>();
+        int index = 0;
+        for (Edge<T> pair : pairs) {
+            if (pair == null) {
+                throw new IllegalArgumentException("Pair is null");
+            }
+            idsFrom[index] = getVertex(pair.getVertexFrom()).getId();
+            IdList targets = targetsBySource.computeIfAbsent(idsFrom[index], source -> new IdList());
+            positions[index++] = targets.size;
+            targets.add(getVertex(pair.getVertexTo()).getId());
+        }
+
+        Map<Integer, List<List<Edge<T>>>> pathsBySource = new HashMap<>();
+        for (Map.Entry<Integer, IdList> targets : targetsBySource.entrySet()) {
+            pathsBySource.put(targets.getKey(),
+                    MULTI_TARGET_FINDER.findPaths(this, targets.getKey(), targets.getValue().toArray()));
+        }
+        Map<Edge<T>, List<Edge<T>>> paths = new LinkedHashMap<>();
+        index = 0;
+        for (Edge<T> pair : pairs) {
+            paths.put(pair, pathsBySource.get(idsFrom[index]).get(positions[index]));
+            index++;
+        }
+        return paths;
+    }
+
+    /**
+     * Growable list of vertex ids.
+     */
+    private static final class IdList {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
 
-        List<Edge<T>> fullPath = new ArrayList<>();
-        fullPath.add(new Edge<>(pathToCurrent.getPreviousVertex(), currentVertex));
-        while (!pathToCurrent.getPreviousVertex().equals(vertexValueFrom)) {
-            currentVertex = pathToCurrent.getPreviousVertex();
-            pathToCurrent = paths.get(currentVertex);
-            fullPath.add(new Edge<>(pathToCurrent.getPreviousVertex(), currentVertex));
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
         }
-        Collections.reverse(fullPath);
-        return fullPath;
+    }
+
+    /**
+     * Return distances and shortest paths from the vertex to every vertex of the graph, see {@link DistanceTree}.
+     * One breadth-first search over a snapshot of the graph, the frozen snapshot is used if it is current.
+     *
+     * @param vertexValue source vertex
+     * @return distance tree, later changes of the graph are not visible in it
+     * @throws IllegalArgumentException if vertex is null or doesn't exist
+     */
+    public DistanceTree<T> distancesFrom(T vertexValue) {
+        getVertex(vertexValue);
+        return currentSnapshot().distancesFrom(vertexValue);
+    }
+
+    /**
+     * Return distances between all pairs of vertexes, see {@link DistanceMatrix}.
+     * Sources are searched 64 at a time on the {@link Graph#getParallelPool()}.
+     *
+     * @return distance matrix, later changes of the graph are not visible in it
+     * @throws IllegalArgumentException if the matrix doesn't fit in an array
+     */
+    public DistanceMatrix<T> allPairsDistances() {
+        return currentSnapshot().allPairsDistances(parallelPool);
+    }
+
+    private GraphSnapshot<T> currentSnapshot() {
+        return frozenSnapshot != null && frozenModCount == modCount ? frozenSnapshot : snapshot();
+    }
+
+    /**
+     * Creates immutable compressed sparse row copy of the graph.
+     * Later changes of the graph are not visible in the snapshot.
+     *
+     * @return snapshot of the graph
+     */
+    public GraphSnapshot<T> snapshot() {
+        int vertexCount = vertexesById.size();
+        Object[] values = new Object[vertexCount];
+        int[] offsets = new int[vertexCount + 1];
+        for (Vertex<T> vertex : vertexesById) {
+            values[vertex.getId()] = vertex.getValue();
+            offsets[vertex.getId() + 1] = vertex.getEdgesTo().size();
+        }
+        for (int id = 0; id < vertexCount; id++) {
+            offsets[id + 1] += offsets[id];
+        }
+        int[] targets = new int[offsets[vertexCount]];
+        for (Vertex<T> vertex : vertexesById) {
+            int position = offsets[vertex.getId()];
+            AdjacencySet edgesTo = vertex.getEdgesToIds();
+            for (int cursor = edgesTo.next(0); cursor >= 0; cursor = edgesTo.next(cursor + 1)) {
+                targets[position++] = edgesTo.idAt(cursor);
+            }
+        }
+        return new GraphSnapshot<>(isDirected(), values, offsets, targets, vertexes.getEncoding());
+    }
+
+    /**
+     * Creates snapshot of the graph and uses it for {@link Graph#getPath(T, T)} until the graph is changed.
+     * Changes of the graph are still accepted, the first one drops the frozen snapshot.
+     *
+     * @return snapshot of the graph
+     */
+    public GraphSnapshot<T> freeze() {
+        if (frozenSnapshot == null || frozenModCount != modCount) {
+            frozenSnapshot = snapshot();
+            frozenModCount = modCount;
+        }
+        return frozenSnapshot;
+    }
+
+    public GraphMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets listener of operation latencies and path search statistics, see {@link MetricsRegistry}.
+     * Without metrics, the default, operations don't read the clock.
+     *
+     * @param metrics listener or null to disable metrics
+     */
+    public void setMetrics(GraphMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Starts timing of an operation, see {@link Graph#finishOperation(GraphMetrics.Operation, long)}.
+     *
+     * @return start time or 0 if metrics are disabled
+     */
+    protected final long startOperation() {
+        return metrics == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Records latency of an operation if metrics are enabled.
+     *
+     * @param operation operation
+     * @param start value returned by {@link Graph#startOperation()}
+     */
+    protected final void finishOperation(GraphMetrics.Operation operation, long start) {
+        if (metrics != null) {
+            metrics.recordLatency(operation, System.nanoTime() - start);
+        }
+    }
+
+    public PathStrategy getPathStrategy() {
+        return pathStrategy;
+    }
+
+    /**
+     * Sets algorithm used by {@link Graph#getPath(T, T)}.
+     *
+     * @param pathStrategy path strategy
+     * @throws IllegalArgumentException if strategy is null
+     */
+    public void setPathStrategy(PathStrategy pathStrategy) {
+        if (pathStrategy == null) {
+            throw new IllegalArgumentException("Path strategy must be not null");
+        }
+        this.pathStrategy = pathStrategy;
+    }
+
+    public ForkJoinPool getParallelPool() {
+        return parallelPool;
+    }
+
+    /**
+     * Sets pool used by {@link PathStrategy#PARALLEL}, the common pool by default.
+     *
+     * @param parallelPool pool
+     * @throws IllegalArgumentException if pool is null
+     */
+    public void setParallelPool(ForkJoinPool parallelPool) {
+        if (parallelPool == null) {
+            throw new IllegalArgumentException("Pool must be not null");
+        }
+        this.parallelPool = parallelPool;
+    }
+
+    public int getParallelFrontierThreshold() {
+        return parallelFrontierThreshold;
+    }
+
+    /**
+     * Sets min size of a frontier expanded in parallel by {@link PathStrategy#PARALLEL},
+     * smaller frontiers are expanded by the calling thread.
+     *
+     * @param parallelFrontierThreshold number of vertexes
+     * @throws IllegalArgumentException if threshold is not positive
+     */
+    public void setParallelFrontierThreshold(int parallelFrontierThreshold) {
+        if (parallelFrontierThreshold <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        this.parallelFrontierThreshold = parallelFrontierThreshold;
     }
 
     /**
@@ -106,12 +825,151 @@ public abstract class Graph<T> {
      * @throws IllegalAccessException if from or to vertex is null or not in the graph
      */
     protected void addPath(T vertexValueFrom, T vertexValueTo) {
+        addPath(getVertex(vertexValueFrom), getVertex(vertexValueTo));
+    }
+
+    void addPath(Vertex<T> vertexFrom, Vertex<T> vertexTo) {
+        //without the index any vertex may have incoming edges
+        boolean unreachableFrom = isIncomingIndexed() && getIncomingIds(vertexFrom).isEmpty();
+        if (!vertexFrom.addEdgeTo(vertexTo)) {
+            return;
+        }
+        if (isDirected() && isIncomingIndexed()) {
+            vertexTo.addEdgeFrom(vertexFrom);
+        }
+        arcCount++;
+        modCount++;
+        if (pathCache != null) {
+            pathCache.onEdgeAdded(vertexFrom.getId(), unreachableFrom, modCount);
+        }
+        if (reachability != null) {
+            reachability.onEdgeAdded(vertexFrom.getId(), vertexTo.getId());
+        }
+    }
+
+    /**
+     * Add weighted directed edge between two vertexes.
+     * If the edge already exists, its weight is replaced.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @param weight not negative weight of the edge
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph, or weight is negative or NaN
+     */
+    protected void addPath(T vertexValueFrom, T vertexValueTo, double weight) {
+        addPath(getVertex(vertexValueFrom), getVertex(vertexValueTo), weight);
+    }
+
+    void addPath(Vertex<T> vertexFrom, Vertex<T> vertexTo, double weight) {
+        if (!(weight >= 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Weight must be not negative and finite");
+        }
+        addPath(vertexFrom, vertexTo);
+        vertexFrom.setWeight(vertexTo.getId(), weight);
+    }
+
+    /**
+     * Remove directed edge between two vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return true if the edge existed
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    protected boolean removePath(T vertexValueFrom, T vertexValueTo) {
         Vertex<T> vertexFrom = getVertex(vertexValueFrom);
         Vertex<T> vertexTo = getVertex(vertexValueTo);
-        vertexFrom.addEdgeTo(vertexTo.getValue());
+        if (!vertexFrom.removeEdgeTo(vertexTo)) {
+            return false;
+        }
+        if (isDirected()) {
+            vertexTo.removeEdgeFrom(vertexFrom);
+        }
+        arcCount--;
+        onRemoved();
+        return true;
     }
 
-    private Vertex<T> getVertex(T vertexValue) {
+    /**
+     * Adds edge between two vertexes of the graph, in both directions if the graph is undirected.
+     *
+     * @param vertexFrom vertex from
+     * @param vertexTo vertex to
+     * @param weight weight of the edge, NaN for an edge without weight
+     */
+    void addEdge(Vertex<T> vertexFrom, Vertex<T> vertexTo, double weight) {
+        if (Double.isNaN(weight)) {
+            addPath(vertexFrom, vertexTo);
+            if (!isDirected()) {
+                addPath(vertexTo, vertexFrom);
+            }
+        } else {
+            addPath(vertexFrom, vertexTo, weight);
+            if (!isDirected()) {
+                addPath(vertexTo, vertexFrom, weight);
+            }
+        }
+    }
+
+    /**
+     * Whether edges of the graph are directed.
+     * Directed graphs keep an index of incoming edges for the backward search, in undirected graphs
+     * incoming edges are the same as outgoing ones.
+     *
+     * @return true if the graph is directed
+     */
+    protected abstract boolean isDirected();
+
+    /**
+     * Whether incoming edges of every vertex are indexed, see {@link Graph#getIncomingIds(Vertex)}.
+     * Without the index incoming edges are found by scanning all vertexes.
+     *
+     * @return true if the index is kept
+     */
+    protected boolean isIncomingIndexed() {
+        return true;
+    }
+
+    /**
+     * Returns values of vertexes which have an edge to the specified vertex.
+     *
+     * @param vertex vertex of the graph
+     * @return set of vertex values
+     */
+    Set<T> getIncomingEdges(Vertex<T> vertex) {
+        return isDirected() ? vertex.getEdgesFrom() : vertex.getEdgesTo();
+    }
+
+    /**
+     * Returns ids of vertexes which have an edge to the specified vertex.
+     * The set is empty if the graph doesn't keep the index of incoming edges.
+     *
+     * @param vertex vertex of the graph
+     * @return set of vertex ids
+     */
+    AdjacencySet getIncomingIds(Vertex<T> vertex) {
+        return isDirected() ? vertex.getEdgesFromIds() : vertex.getEdgesToIds();
+    }
+
+    /**
+     * @return upper bound (exclusive) of vertex ids
+     */
+    int getVertexIdBound() {
+        return vertexesById.size();
+    }
+
+    /**
+     * @return number of directed edges, an undirected edge is counted in both directions
+     */
+    long getArcCount() {
+        return arcCount;
+    }
+
+    Vertex<T> getVertexById(int id) {
+        return vertexesById.get(id);
+    }
+
+    Vertex<T> getVertex(T vertexValue) {
         if (vertexValue == null) {
             throw new IllegalArgumentException("Value is null");
         }
@@ -122,65 +980,154 @@ public abstract class Graph<T> {
         return vertex;
     }
 
-    private class VisitedVertex<V> {
-        private final V previousVertex;
-        private final long distance;
+    /**
+     * Vertex of the graph. Edges are kept as {@link AdjacencySet}s of vertex ids,
+     * {@link Vertex#getEdgesTo()} and {@link Vertex#getEdgesFrom()} are read only views of vertex values.
+     */
+    static class Vertex<V> {
+        private static final AdjacencySet NO_EDGES = new AdjacencySet();
+
+        private final Graph<V> graph;
+        private final V value;
+        private int id;
+        private final AdjacencySet edgesTo = new AdjacencySet();
+        //null until the first incoming edge of a directed graph is added
+        private AdjacencySet edgesFrom;
+        //hash of the value by the key encoding of the graph
+        private final int keyHash;
+        //weights different from the default one by target ids, null until such edge is added
+        private IntDoubleMap weights;
 
-        private VisitedVertex(V previousVertex, long distance) {
-            this.previousVertex = previousVertex;
-            this.distance = distance;
+        private Vertex(Graph<V> graph, V value, int id, int keyHash) {
+            this.graph = graph;
+            this.value = value;
+            this.id = id;
+            this.keyHash = keyHash;
         }
 
-        public V getPreviousVertex() {
-            return previousVertex;
+        public V getValue() {
+            return value;
         }
 
-        public long getDistance() {
-            return distance;
+        /**
+         * @return dense id of the vertex, ids are assigned in the order vertexes are added,
+         * the last vertex takes the id of a removed one
+         */
+        public int getId() {
+            return id;
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            VisitedVertex<?> that = (VisitedVertex<?>) o;
-            return distance == that.distance &&
-                    Objects.equals(previousVertex, that.previousVertex);
+        public Set<V> getEdgesTo() {
+            return new ValueSet<>(graph, edgesTo);
         }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(previousVertex, distance);
+        AdjacencySet getEdgesToIds() {
+            return edgesTo;
         }
 
-        @Override
-        public String toString() {
-            return "VisitedVertex{" +
-                    "previousVertex=" + previousVertex +
-                    ", distance=" + distance +
-                    '}';
+        boolean addEdgeTo(Vertex<V> vertex) {
+            return edgesTo.add(vertex.id);
         }
-    }
 
-    static class Vertex<V> {
-        private final V value;
-        private final Set<V> edgesTo;
+        /**
+         * Removes outgoing edge and its weight.
+         *
+         * @param vertex vertex to
+         * @return true if the edge existed
+         */
+        boolean removeEdgeTo(Vertex<V> vertex) {
+            if (weights != null) {
+                weights.remove(vertex.id);
+            }
+            return edgesTo.remove(vertex.id);
+        }
 
-        private Vertex(V value) {
-            this.value = value;
-            this.edgesTo = new HashSet<>();
+        public double getWeight(V value) {
+            Vertex<V> vertex = graph.vertexes.get(value);
+            return vertex == null ? DEFAULT_WEIGHT : getWeight(vertex.id);
         }
 
-        public V getValue() {
-            return value;
+        /**
+         * @param value vertex to
+         * @param weight weight of the edge
+         * @throws IllegalArgumentException if vertex is not in the graph
+         */
+        public void setWeight(V value, double weight) {
+            setWeight(graph.getVertex(value).id, weight);
         }
 
-        public Set<V> getEdgesTo() {
-            return edgesTo;
+        double getWeight(int targetId) {
+            return weights == null ? DEFAULT_WEIGHT : weights.get(targetId, DEFAULT_WEIGHT);
+        }
+
+        void setWeight(int targetId, double weight) {
+            if (weight == DEFAULT_WEIGHT) {
+                if (weights != null) {
+                    weights.remove(targetId);
+                }
+                return;
+            }
+            if (weights == null) {
+                weights = new IntDoubleMap(1);
+            }
+            weights.put(targetId, weight);
+        }
+
+        /**
+         * Moves weight of the edge to a vertex which has got a new id.
+         */
+        void renumberWeight(int oldId, int newId) {
+            if (weights == null) {
+                return;
+            }
+            double weight = weights.get(oldId, Double.NaN);
+            if (!Double.isNaN(weight)) {
+                weights.remove(oldId);
+                weights.put(newId, weight);
+            }
+        }
+
+        int getKeyHash() {
+            return keyHash;
+        }
+
+        public Set<V> getEdgesFrom() {
+            return new ValueSet<>(graph, getEdgesFromIds());
+        }
+
+        AdjacencySet getEdgesFromIds() {
+            //the shared empty set is never changed
+            return edgesFrom == null ? NO_EDGES : edgesFrom;
+        }
+
+        /**
+         * Prepares the vertex for the specified number of outgoing and incoming edges.
+         * Only empty sets are resized.
+         *
+         * @param expectedEdgesTo expected number of outgoing edges
+         * @param expectedEdgesFrom expected number of incoming edges
+         */
+        void ensureEdgeCapacity(int expectedEdgesTo, int expectedEdgesFrom) {
+            edgesTo.ensureCapacity(expectedEdgesTo);
+            if (expectedEdgesFrom > 0) {
+                if (edgesFrom == null) {
+                    edgesFrom = new AdjacencySet();
+                }
+                edgesFrom.ensureCapacity(expectedEdgesFrom);
+            }
         }
 
-        public void addEdgeTo(V value) {
-            edgesTo.add(value);
+        void addEdgeFrom(Vertex<V> vertex) {
+            if (edgesFrom == null) {
+                edgesFrom = new AdjacencySet();
+            }
+            edgesFrom.add(vertex.id);
+        }
+
+        void removeEdgeFrom(Vertex<V> vertex) {
+            if (edgesFrom != null) {
+                edgesFrom.remove(vertex.id);
+            }
         }
 
         @Override
@@ -189,20 +1136,67 @@ public abstract class Graph<T> {
             if (o == null || getClass() != o.getClass()) return false;
             Vertex<?> vertex = (Vertex<?>) o;
             return Objects.equals(value, vertex.value) &&
-                    Objects.equals(edgesTo, vertex.edgesTo);
+                    Objects.equals(getEdgesTo(), vertex.getEdgesTo());
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(value, edgesTo);
+            //edges are left out, hashing them costs O(degree)
+            return Objects.hashCode(value);
         }
 
         @Override
         public String toString() {
             return "Node{" +
                     "value=" + value +
-                    ", edgesTo=" + edgesTo +
+                    ", edgesTo=" + getEdgesTo() +
                     '}';
         }
     }
+
+    /**
+     * Read only view of an {@link AdjacencySet} as a set of vertex values.
+     */
+    private static final class ValueSet<V> extends AbstractSet<V> {
+        private final Graph<V> graph;
+        private final AdjacencySet ids;
+
+        private ValueSet(Graph<V> graph, AdjacencySet ids) {
+            this.graph = graph;
+            this.ids = ids;
+        }
+
+        @Override
+        public int size() {
+            return ids.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            Vertex<V> vertex = graph.vertexes.get(o);
+            return vertex != null && ids.contains(vertex.id);
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new Iterator<V>() {
+                private int cursor = ids.next(0);
+
+                @Override
+                public boolean hasNext() {
+                    return cursor >= 0;
+                }
+
+                @Override
+                public V next() {
+                    if (cursor < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    V value = graph.vertexesById.get(ids.idAt(cursor)).value;
+                    cursor = ids.next(cursor + 1);
+                    return value;
+                }
+            };
+        }
+    }
 }
@@ -0,0 +1,96 @@
+package org.natera.test;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Binary graph file format, written from a {@link GraphSnapshot} and read by {@link MappedGraph}.
+ *
+ * All numbers are big endian. The file consists of a header followed by sections:
+ * <pre>
+ * header        magic, format version, flags, vertex count n, edge count m, hash table size k
+ * offsets       int[n + 1], edges of vertex i are targets[offsets[i]] ... targets[offsets[i + 1] - 1]
+ * targets       int[m]
+ * table         int[k], open addressing table of vertex id + 1 by hash of the encoded value, 0 is empty
+ * valueOffsets  int[n + 1], encoded value of vertex i is values[valueOffsets[i]] ... values[valueOffsets[i + 1] - 1]
+ * values        byte[valueOffsets[n]]
+ * </pre>
+ * Vertex ids without a vertex have empty value and are absent from the table.
+ */
+public final class GraphFile {
+
+    static final int MAGIC = 0x4E475246;
+    static final int FORMAT_VERSION = 1;
+    static final int FLAG_DIRECTED = 1;
+    static final int HEADER_SIZE = 32;
+
+    private GraphFile() {
+    }
+
+    /**
+     * Writes snapshot of a graph to the file, the file is replaced if it exists.
+     *
+     * @param snapshot graph snapshot
+     * @param file target file
+     * @param codec encoding of vertex values
+     * @throws IOException if the file cannot be written
+     */
+    public static <T> void write(GraphSnapshot<T> snapshot, Path file, VertexCodec<T> codec) throws IOException {
+        int vertexCount = snapshot.getVertexCount();
+        byte[][] values = new byte[vertexCount][];
+        int[] valueOffsets = new int[vertexCount + 1];
+        int tableSize = GraphSnapshot.tableSize(vertexCount);
+        int[] table = new int[tableSize];
+        for (int id = 0; id < vertexCount; id++) {
+            T value = snapshot.valueOf(id);
+            values[id] = value == null ? new byte[0] : codec.encode(value);
+            valueOffsets[id + 1] = Math.addExact(valueOffsets[id], values[id].length);
+            if (value != null) {
+                int slot = hash(values[id]) & (tableSize - 1);
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & (tableSize - 1);
+                }
+                table[slot] = id + 1;
+            }
+        }
+
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeInt(snapshot.isDirected() ? FLAG_DIRECTED : 0);
+            output.writeInt(vertexCount);
+            output.writeLong(snapshot.getEdgeCount());
+            output.writeInt(tableSize);
+            output.writeInt(0);
+            writeInts(output, snapshot.getOffsets());
+            writeInts(output, snapshot.getTargets());
+            writeInts(output, table);
+            writeInts(output, valueOffsets);
+            for (byte[] value : values) {
+                output.write(value);
+            }
+        }
+    }
+
+    private static void writeInts(DataOutputStream output, int[] values) throws IOException {
+        for (int value : values) {
+            output.writeInt(value);
+        }
+    }
+
+    /**
+     * FNV-1a hash of encoded vertex value.
+     */
+    static int hash(byte[] bytes) {
+        int hash = 0x811C9DC5;
+        for (byte value : bytes) {
+            hash = (hash ^ (value & 0xFF)) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,277 @@
+package org.natera.test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Bulk loader of edges into a graph.
+ *
+ * Missing vertexes are added on the fly. Vertexes are looked up once per edge endpoint and edges are added
+ * without going through {@link Graph#addEdge(Object, Object)} argument checks.
+ *
+ * Edge list files have one edge per line: vertex from, vertex to and optional weight separated by
+ * whitespace or comma. Empty lines and lines starting with '#' are skipped. Lines are parsed in parallel
+ * chunks. The file is read twice: the first pass adds vertexes and counts their degrees, the second one
+ * adds edges into adjacency sets sized up front.
+ *
+ * Not thread safe, the graph must not be used by other threads during loading.
+ *
+ * @param <T>
+ */
+public class GraphLoader<T> {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final Graph<T> graph;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int expectedVertexes;
+
+    public GraphLoader(Graph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph must be not null");
+        }
+        this.graph = graph;
+    }
+
+    /**
+     * @param parallelism number of threads parsing edge list files
+     * @return this loader
+     * @throws IllegalArgumentException if parallelism is not positive
+     */
+    public GraphLoader<T> setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @param expectedVertexes expected total number of vertexes, used for sizing the vertex map before loading
+     * @return this loader
+     */
+    public GraphLoader<T> setExpectedVertexes(int expectedVertexes) {
+        this.expectedVertexes = expectedVertexes;
+        return this;
+    }
+
+    /**
+     * Adds edges and their missing vertexes to the graph.
+     *
+     * @param edges edges to add
+     * @throws IllegalArgumentException if an edge or its vertex is null
+     */
+    public void load(Iterator<? extends Edge<T>> edges) {
+        graph.ensureVertexCapacity(expectedVertexes);
+        while (edges.hasNext()) {
+            Edge<T> edge = edges.next();
+            if (edge == null) {
+                throw new IllegalArgumentException("Edge is null");
+            }
+            graph.addEdge(addVertex(edge.getVertexFrom()), addVertex(edge.getVertexTo()), Double.NaN);
+        }
+    }
+
+    /**
+     * Adds edges and their missing vertexes to the graph.
+     * Stages of a parallel stream run in parallel, edges are added by the calling thread.
+     *
+     * @param edges edges to add
+     * @throws IllegalArgumentException if an edge or its vertex is null
+     */
+    public void load(Stream<? extends Edge<T>> edges) {
+        load(edges.iterator());
+    }
+
+    /**
+     * Adds edges of the edge list file and their missing vertexes to the graph.
+     *
+     * @param file edge list file
+     * @param parser parser of vertex values
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a line of the file is not an edge
+     */
+    public void loadEdgeList(Path file, Function<String, ? extends T> parser) throws IOException {
+        graph.ensureVertexCapacity(expectedVertexes);
+
+        int[][] degrees = {new int[16], new int[16]};
+        readChunks(file, parser, chunk -> {
+            for (int i = 0; i < chunk.size(); i++) {
+                int from = addVertex(chunk.getVertexFrom(i)).getId();
+                int to = addVertex(chunk.getVertexTo(i)).getId();
+                if (Math.max(from, to) >= degrees[0].length) {
+                    int length = Math.max(degrees[0].length * 2, Math.max(from, to) + 1);
+                    degrees[0] = Arrays.copyOf(degrees[0], length);
+                    degrees[1] = Arrays.copyOf(degrees[1], length);
+                }
+                degrees[0][from]++;
+                if (graph.isDirected()) {
+                    if (graph.isIncomingIndexed()) {
+                        degrees[1][to]++;
+                    }
+                } else {
+                    degrees[0][to]++;
+                }
+            }
+        });
+        for (int id = 0; id < Math.min(graph.getVertexIdBound(), degrees[0].length); id++) {
+            graph.getVertexById(id).ensureEdgeCapacity(degrees[0][id], degrees[1][id]);
+        }
+
+        readChunks(file, parser, chunk -> {
+            for (int i = 0; i < chunk.size(); i++) {
+                graph.addEdge(graph.getVertex(chunk.getVertexFrom(i)), graph.getVertex(chunk.getVertexTo(i)),
+                        chunk.getWeight(i));
+            }
+        });
+    }
+
+    private Graph.Vertex<T> addVertex(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must be not null");
+        }
+        return graph.addVertexIfAbsent(value);
+    }
+
+    /**
+     * Reads the file by chunks of lines, parses chunks in parallel and passes them to the consumer in file order.
+     */
+    private void readChunks(Path file, Function<String, ? extends T> parser,
+                            Consumer<EdgeChunk<T>> consumer) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        Deque<Future<EdgeChunk<T>>> parsedChunks = new ArrayDeque<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            long firstLine = 1;
+            List<String> lines = new ArrayList<>(CHUNK_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+                if (lines.size() == CHUNK_SIZE) {
+                    submit(executor, parsedChunks, lines, firstLine, parser);
+                    firstLine += CHUNK_SIZE;
+                    lines = new ArrayList<>(CHUNK_SIZE);
+                    while (parsedChunks.size() > parallelism * 2) {
+                        consumer.accept(await(parsedChunks.poll()));
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                submit(executor, parsedChunks, lines, firstLine, parser);
+            }
+            while (!parsedChunks.isEmpty()) {
+                consumer.accept(await(parsedChunks.poll()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void submit(ExecutorService executor, Deque<Future<EdgeChunk<T>>> parsedChunks,
+                        List<String> lines, long firstLine, Function<String, ? extends T> parser) {
+        parsedChunks.add(executor.submit(() -> EdgeChunk.parse(lines, firstLine, parser)));
+    }
+
+    private EdgeChunk<T> await(Future<EdgeChunk<T>> parsedChunk) throws IOException {
+        try {
+            return parsedChunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Loading is interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Parsed edges of a chunk of lines.
+     */
+    private static class EdgeChunk<V> {
+        private final Object[] vertexes;
+        private final double[] weights;
+        private int size;
+
+        private EdgeChunk(int capacity) {
+            this.vertexes = new Object[capacity * 2];
+            this.weights = new double[capacity];
+        }
+
+        static <V> EdgeChunk<V> parse(List<String> lines, long firstLine, Function<String, ? extends V> parser) {
+            EdgeChunk<V> chunk = new EdgeChunk<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i).trim();
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+                int fromEnd = nextDelimiter(line, 0);
+                int toStart = skipDelimiters(line, fromEnd);
+                int toEnd = nextDelimiter(line, toStart);
+                int weightStart = skipDelimiters(line, toEnd);
+                if (toStart == toEnd || nextDelimiter(line, weightStart) != line.length()) {
+                    throw new IllegalArgumentException("Line " + (firstLine + i) + " is not an edge: " + line);
+                }
+                try {
+                    chunk.vertexes[chunk.size * 2] = parser.apply(line.substring(0, fromEnd));
+                    chunk.vertexes[chunk.size * 2 + 1] = parser.apply(line.substring(toStart, toEnd));
+                    chunk.weights[chunk.size] = weightStart == line.length()
+                            ? Double.NaN : Double.parseDouble(line.substring(weightStart));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Line " + (firstLine + i) + " is not an edge: " + line, e);
+                }
+                chunk.size++;
+            }
+            return chunk;
+        }
+
+        private static int nextDelimiter(String line, int start) {
+            int position = start;
+            while (position < line.length() && !isDelimiter(line.charAt(position))) {
+                position++;
+            }
+            return position;
+        }
+
+        private static int skipDelimiters(String line, int start) {
+            int position = start;
+            while (position < line.length() && isDelimiter(line.charAt(position))) {
+                position++;
+            }
+            return position;
+        }
+
+        private static boolean isDelimiter(char value) {
+            return value == ',' || Character.isWhitespace(value);
+        }
+
+        int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        V getVertexFrom(int index) {
+            return (V) vertexes[index * 2];
+        }
+
+        @SuppressWarnings("unchecked")
+        V getVertexTo(int index) {
+            return (V) vertexes[index * 2 + 1];
+        }
+
+        double getWeight(int index) {
+            return weights[index];
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.natera.test;
+
+/**
+ * Listener of graph operations, see {@link Graph#setMetrics(GraphMetrics)}.
+ * A graph without metrics doesn't read the clock and calls no listener.
+ *
+ * Implementations shared between graphs used by different threads must be thread safe,
+ * {@link MetricsRegistry} is.
+ */
+public interface GraphMetrics {
+
+    enum Operation {
+        ADD_VERTEX,
+        ADD_EDGE,
+        GET_PATH
+    }
+
+    /**
+     * Called after an operation completed.
+     *
+     * @param operation operation
+     * @param nanos duration of the call
+     */
+    void recordLatency(Operation operation, long nanos);
+
+    /**
+     * Called after {@link Graph#getPath(Object, Object)} searched the graph. Not called when the path
+     * was taken from the cache or the vertexes are known to be not connected.
+     *
+     * @param expandedVertexes number of vertexes whose edges were scanned
+     * @param scannedEdges number of edges scanned
+     * @param levels number of expanded frontier levels, in both directions for a bidirectional search
+     * @param maxFrontier size of the largest frontier level
+     */
+    void recordTraversal(long expandedVertexes, long scannedEdges, int levels, int maxFrontier);
+}
@@ -0,0 +1,386 @@
+package org.natera.test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Immutable compressed sparse row copy of a graph.
+ *
+ * Vertexes are numbered by their dense ids from {@link Graph.Vertex#getId()}. Edges going out of vertex
+ * {@code id} are {@code targets[offsets[id]]} ... {@code targets[offsets[id + 1] - 1]}. The value to id
+ * lookup is an open addressing table of ids, so the snapshot holds no boxed numbers. Values are hashed and
+ * compared by the {@link KeyEncoding} of the graph.
+ * Incoming edges of a directed snapshot are kept in a second compressed sparse row of the same size,
+ * built by the first query which needs them. Undirected snapshots use the same rows in both directions.
+ *
+ * Value of a vertex must be not null.
+ * Thread safe.
+ *
+ * @param <T>
+ */
+public final class GraphSnapshot<T> {
+
+    private final boolean directed;
+    private final Object[] values;
+    private final int[] offsets;
+    private final int[] targets;
+    private final KeyEncoding<T> encoding;
+    //open addressing table of id + 1, 0 marks an empty slot
+    private final int[] index;
+    //offsets and targets of incoming edges, concurrent first calls may build equal copies
+    private volatile int[][] reverseRows;
+
+    GraphSnapshot(boolean directed, Object[] values, int[] offsets, int[] targets, KeyEncoding<T> encoding) {
+        this.directed = directed;
+        this.values = values;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.encoding = encoding;
+        this.index = new int[tableSize(values.length)];
+        for (int id = 0; id < values.length; id++) {
+            if (values[id] != null) {
+                int slot = slot(valueOf(id));
+                while (index[slot] != 0) {
+                    slot = (slot + 1) & (index.length - 1);
+                }
+                index[slot] = id + 1;
+            }
+        }
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * @return number of vertex ids in the snapshot
+     */
+    public int getVertexCount() {
+        return values.length;
+    }
+
+    /**
+     * @return number of directed edges, an undirected edge is counted in both directions
+     */
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    public boolean containsVertex(T value) {
+        return value != null && indexOf(value) >= 0;
+    }
+
+    /**
+     * Return shortest path between two vertexes.
+     * Breadth-first search over the primitive arrays, stops as soon as the target vertex is reached.
+     * Search state is kept in the {@link TraversalContext} of the current thread.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the snapshot
+     */
+    public List<Edge<T>> getPath(T vertexValueFrom, T vertexValueTo) {
+        return getPath(vertexValueFrom, vertexValueTo, TraversalContext.current());
+    }
+
+    /**
+     * Return shortest path between two vertexes, see {@link GraphSnapshot#getPath(Object, Object)}.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @param context scratch space of the search
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the snapshot, or context is null
+     */
+    public List<Edge<T>> getPath(T vertexValueFrom, T vertexValueTo, TraversalContext context) {
+        return findPath(vertexValueFrom, vertexValueTo, context).toList();
+    }
+
+    /**
+     * Return shortest path between two vertexes as a {@link Path}, see {@link GraphSnapshot#getPath(Object, Object)}.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @param context scratch space of the search
+     * @return path. If path does not exist or vertexes are equal, empty path is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the snapshot, or context is null
+     */
+    public Path<T> findPath(T vertexValueFrom, T vertexValueTo, TraversalContext context) {
+        if (context == null) {
+            throw new IllegalArgumentException("Context must be not null");
+        }
+        int source = requireId(vertexValueFrom);
+        int target = requireId(vertexValueTo);
+        if (source == target) {
+            return Path.empty();
+        }
+        int length = search(source, target, offsets, targets, context);
+        return length < 0 ? Path.empty() : collectPath(target, length, false, context);
+    }
+
+    /**
+     * Return shortest path between two vertexes found by breadth-first search from the target vertex
+     * over incoming edges. The path is as long as the one of {@link GraphSnapshot#getPath(Object, Object)},
+     * the backward search is cheaper when the target has fewer incoming edges than the source has outgoing ones.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the snapshot
+     */
+    public List<Edge<T>> getPathReverse(T vertexValueFrom, T vertexValueTo) {
+        return findPathReverse(vertexValueFrom, vertexValueTo, TraversalContext.current()).toList();
+    }
+
+    /**
+     * Return shortest path between two vertexes as a {@link Path}, see {@link GraphSnapshot#getPathReverse(Object, Object)}.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @param context scratch space of the search
+     * @return path. If path does not exist or vertexes are equal, empty path is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the snapshot, or context is null
+     */
+    public Path<T> findPathReverse(T vertexValueFrom, T vertexValueTo, TraversalContext context) {
+        if (context == null) {
+            throw new IllegalArgumentException("Context must be not null");
+        }
+        int source = requireId(vertexValueFrom);
+        int target = requireId(vertexValueTo);
+        if (source == target) {
+            return Path.empty();
+        }
+        int length = search(target, source, getReverseOffsets(), getReverseTargets(), context);
+        return length < 0 ? Path.empty() : collectPath(source, length, true, context);
+    }
+
+    /**
+     * Returns values of vertexes which have an edge to the specified vertex.
+     *
+     * @param vertexValue vertex value
+     * @return list of vertex values
+     * @throws IllegalArgumentException if vertex is null or not in the snapshot
+     */
+    public List<T> getPredecessors(T vertexValue) {
+        int id = requireId(vertexValue);
+        int[] reverseOffsets = getReverseOffsets();
+        int[] reverseTargets = getReverseTargets();
+        List<T> predecessors = new ArrayList<>(reverseOffsets[id + 1] - reverseOffsets[id]);
+        for (int i = reverseOffsets[id]; i < reverseOffsets[id + 1]; i++) {
+            predecessors.add(valueOf(reverseTargets[i]));
+        }
+        return predecessors;
+    }
+
+    /**
+     * @param vertexValue vertex value
+     * @return number of edges going to the vertex
+     * @throws IllegalArgumentException if vertex is null or not in the snapshot
+     */
+    public int getInDegree(T vertexValue) {
+        int id = requireId(vertexValue);
+        int[] reverseOffsets = getReverseOffsets();
+        return reverseOffsets[id + 1] - reverseOffsets[id];
+    }
+
+    /**
+     * @param vertexValue vertex value
+     * @return number of edges going out of the vertex
+     * @throws IllegalArgumentException if vertex is null or not in the snapshot
+     */
+    public int getOutDegree(T vertexValue) {
+        int id = requireId(vertexValue);
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * Breadth-first search over the specified rows, stops as soon as the goal vertex is reached.
+     *
+     * @return distance from start to goal, -1 if the goal is not reachable
+     */
+    private int search(int start, int goal, int[] rowOffsets, int[] rowTargets, TraversalContext context) {
+        context.begin(values.length);
+        int[] queue = context.getQueue(TraversalContext.FORWARD);
+        int head = 0;
+        int tail = 0;
+        context.visit(TraversalContext.FORWARD, start, -1, 0);
+        queue[tail++] = start;
+        int levelStart = 0;
+        long levelEdges = 0;
+        while (head < tail) {
+            int current = queue[head++];
+            int nextDepth = context.getDepth(TraversalContext.FORWARD, current) + 1;
+            if (head > 1 && nextDepth != context.getDepth(TraversalContext.FORWARD, queue[head - 2]) + 1) {
+                context.addLevel(head - 1 - levelStart, levelEdges);
+                levelStart = head - 1;
+                levelEdges = 0;
+            }
+            for (int i = rowOffsets[current]; i < rowOffsets[current + 1]; i++) {
+                int next = rowTargets[i];
+                if (!context.isVisited(TraversalContext.FORWARD, next)) {
+                    context.visit(TraversalContext.FORWARD, next, current, nextDepth);
+                    if (next == goal) {
+                        context.addLevel(head - levelStart, levelEdges + i - rowOffsets[current] + 1);
+                        return nextDepth;
+                    }
+                    queue[tail++] = next;
+                }
+            }
+            levelEdges += rowOffsets[current + 1] - rowOffsets[current];
+        }
+        context.addLevel(head - levelStart, levelEdges);
+        return -1;
+    }
+
+    /**
+     * Creates distance oracle of the snapshot, see {@link LandmarkOracle}.
+     * Costs two breadth-first searches per landmark.
+     *
+     * @param landmarkCount number of landmarks
+     * @return oracle
+     * @throws IllegalArgumentException if number of landmarks is not positive
+     */
+    public LandmarkOracle<T> createLandmarkOracle(int landmarkCount) {
+        return new LandmarkOracle<>(this, landmarkCount);
+    }
+
+    /**
+     * Runs breadth-first search from the vertex over the whole snapshot, see {@link DistanceTree}.
+     *
+     * @param vertexValue source vertex
+     * @return distances and shortest paths from the vertex
+     * @throws IllegalArgumentException if vertex is null or not in the snapshot
+     */
+    public DistanceTree<T> distancesFrom(T vertexValue) {
+        return new DistanceTree<>(this, requireId(vertexValue));
+    }
+
+    /**
+     * Computes distances between all pairs of vertexes, see {@link DistanceMatrix}.
+     *
+     * @param pool pool running batches of sources
+     * @return distances and shortest paths between all vertexes
+     * @throws IllegalArgumentException if pool is null or the matrix doesn't fit in an array
+     */
+    public DistanceMatrix<T> allPairsDistances(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must be not null");
+        }
+        return new DistanceMatrix<>(this, pool);
+    }
+
+    /**
+     * Collects path by following parents from the last visited vertex.
+     *
+     * @param reverse true if parents point toward the end of the path, as they do after the backward search
+     */
+    private Path<T> collectPath(int last, int length, boolean reverse, TraversalContext context) {
+        Object[] vertexes = new Object[length + 1];
+        for (int current = last, step = 0; step <= length; step++) {
+            vertexes[reverse ? step : length - step] = values[current];
+            current = context.getParent(TraversalContext.FORWARD, current);
+        }
+        return new Path<>(vertexes);
+    }
+
+    /**
+     * @param value vertex value
+     * @return id of the vertex or -1 if the vertex is not in the snapshot
+     */
+    @SuppressWarnings("unchecked")
+    int indexOf(Object value) {
+        int slot = slot((T) value);
+        while (index[slot] != 0) {
+            int id = index[slot] - 1;
+            if (encoding.equals(valueOf(id), (T) value)) {
+                return id;
+            }
+            slot = (slot + 1) & (index.length - 1);
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    T valueOf(int id) {
+        return (T) values[id];
+    }
+
+    int[] getOffsets() {
+        return offsets;
+    }
+
+    int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * @return offsets of incoming edges, the same as outgoing ones for undirected snapshots
+     */
+    int[] getReverseOffsets() {
+        return reverseRows()[0];
+    }
+
+    /**
+     * @return sources of incoming edges, the same as targets of outgoing ones for undirected snapshots
+     */
+    int[] getReverseTargets() {
+        return reverseRows()[1];
+    }
+
+    private int[][] reverseRows() {
+        int[][] rows = reverseRows;
+        if (rows == null) {
+            if (directed) {
+                int[] reverseOffsets = new int[values.length + 1];
+                int[] reverseTargets = new int[targets.length];
+                transpose(offsets, targets, reverseOffsets, reverseTargets);
+                rows = new int[][]{reverseOffsets, reverseTargets};
+            } else {
+                rows = new int[][]{offsets, targets};
+            }
+            reverseRows = rows;
+        }
+        return rows;
+    }
+
+    private static void transpose(int[] offsets, int[] targets, int[] reverseOffsets, int[] reverseTargets) {
+        int vertexCount = offsets.length - 1;
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int id = 0; id < vertexCount; id++) {
+            reverseOffsets[id + 1] += reverseOffsets[id];
+        }
+        int[] fill = Arrays.copyOf(reverseOffsets, vertexCount);
+        for (int id = 0; id < vertexCount; id++) {
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                reverseTargets[fill[targets[i]]++] = id;
+            }
+        }
+    }
+
+    int requireId(T vertexValue) {
+        if (vertexValue == null) {
+            throw new IllegalArgumentException("Value is null");
+        }
+        int id = indexOf(vertexValue);
+        if (id < 0) {
+            throw new IllegalArgumentException("Vertex" + vertexValue + " doesn't exist");
+        }
+        return id;
+    }
+
+    private int slot(T value) {
+        int hash = encoding.hash(value);
+        return (hash ^ (hash >>> 16)) & (index.length - 1);
+    }
+
+    static int tableSize(int size) {
+        int tableSize = 2;
+        while (tableSize < size * 2) {
+            tableSize <<= 1;
+        }
+        return tableSize;
+    }
+}
@@ -0,0 +1,96 @@
+package org.natera.test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Linear deterministic greedy partitioning (LDG) of a {@link GraphSnapshot}.
+ *
+ * Vertexes are streamed in breadth-first order, so neighbours come close to each other, and every vertex goes
+ * to the shard holding most of its already placed neighbours, weighted by the free capacity of the shard:
+ * {@code neighbours(shard) * (1 - size(shard) / capacity)}. Ties go to the smallest shard. Shards stay balanced
+ * within {@link GreedyPartitioner#SLACK} of the average size while far fewer edges cross shards than with
+ * hash partitioning.
+ *
+ * Thread safe.
+ *
+ * @param <T>
+ */
+final class GreedyPartitioner<T> implements Partitioner<T> {
+
+    private static final double SLACK = 0.1;
+
+    private final int shardCount;
+    private final Map<T, Integer> shards;
+
+    GreedyPartitioner(GraphSnapshot<T> snapshot, int shardCount) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot must be not null");
+        }
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Number of shards must be positive");
+        }
+        this.shardCount = shardCount;
+        int vertexCount = snapshot.getVertexCount();
+        int[] offsets = snapshot.getOffsets();
+        int[] targets = snapshot.getTargets();
+        double capacity = Math.ceil(vertexCount * (1 + SLACK) / shardCount) + 1;
+
+        int[] assigned = new int[vertexCount];
+        Arrays.fill(assigned, -1);
+        int[] sizes = new int[shardCount];
+        int[] neighbours = new int[shardCount];
+        boolean[] queued = new boolean[vertexCount];
+        int[] queue = new int[vertexCount];
+        int tail = 0;
+        for (int root = 0; root < vertexCount; root++) {
+            if (queued[root]) {
+                continue;
+            }
+            queued[root] = true;
+            int head = tail;
+            queue[tail++] = root;
+            while (head < tail) {
+                int id = queue[head++];
+                for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                    int next = targets[i];
+                    if (assigned[next] >= 0) {
+                        neighbours[assigned[next]]++;
+                    }
+                    if (!queued[next]) {
+                        queued[next] = true;
+                        queue[tail++] = next;
+                    }
+                }
+                int best = 0;
+                double bestScore = -1;
+                for (int shard = 0; shard < shardCount; shard++) {
+                    double score = neighbours[shard] * (1 - sizes[shard] / capacity);
+                    if (sizes[shard] < capacity
+                            && (score > bestScore || score == bestScore && sizes[shard] < sizes[best])) {
+                        best = shard;
+                        bestScore = score;
+                    }
+                    neighbours[shard] = 0;
+                }
+                assigned[id] = best;
+                sizes[best]++;
+            }
+        }
+
+        shards = new HashMap<>(vertexCount * 2);
+        for (int id = 0; id < vertexCount; id++) {
+            shards.put(snapshot.valueOf(id), assigned[id]);
+        }
+    }
+
+    @Override
+    public int shardOf(T value, int shardCount) {
+        if (shardCount != this.shardCount) {
+            throw new IllegalArgumentException("Partitioner is built for " + this.shardCount + " shards");
+        }
+        Integer shard = shards.get(value);
+        return shard == null ? Partitioner.<T>hash().shardOf(value, shardCount) : shard;
+    }
+}
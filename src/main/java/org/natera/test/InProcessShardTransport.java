@@ -0,0 +1,43 @@
+package org.natera.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transport to shards living in the current JVM, calls go straight to the shards.
+ *
+ * Not thread safe.
+ *
+ * @param <T>
+ */
+public final class InProcessShardTransport<T> implements ShardTransport<T> {
+
+    private final List<Shard<T>> shards = new ArrayList<>();
+
+    /**
+     * @param shardCount number of shards
+     * @throws IllegalArgumentException if number of shards is not positive
+     */
+    public InProcessShardTransport(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Number of shards must be positive");
+        }
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new LocalShard<>());
+        }
+    }
+
+    @Override
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    @Override
+    public Shard<T> getShard(int index) {
+        return shards.get(index);
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,109 @@
+package org.natera.test;
+
+/**
+ * Binary min heap of int ids ordered by double keys.
+ * Keys are kept in a primitive array indexed by id, so no boxing happens on insert or decrease.
+ *
+ * Not thread safe.
+ */
+final class IndexedDoubleHeap {
+
+    private final int[] heap;
+    //heap index + 1 of every id, 0 marks an id not in the heap
+    private final int[] positions;
+    private final double[] keys;
+    private int size;
+
+    IndexedDoubleHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new double[capacity];
+    }
+
+    int capacity() {
+        return positions.length;
+    }
+
+    /**
+     * Removes all ids, in O(size).
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = 0;
+        }
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Inserts id with the key, or lowers the key of id already in the heap.
+     *
+     * @param id id in range [0, capacity)
+     * @param key new key, must be lower than the current key if id is in the heap
+     */
+    void insertOrDecrease(int id, double key) {
+        keys[id] = key;
+        int index = positions[id] - 1;
+        if (index < 0) {
+            index = size++;
+            heap[index] = id;
+            positions[id] = index + 1;
+        }
+        siftUp(index);
+    }
+
+    /**
+     * @return id with the lowest key, removed from the heap
+     */
+    int poll() {
+        int min = heap[0];
+        positions[min] = 0;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 1;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private void siftUp(int index) {
+        int id = heap[index];
+        double key = keys[id];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (keys[heap[parent]] <= key) {
+                break;
+            }
+            move(heap[parent], index);
+            index = parent;
+        }
+        move(id, index);
+    }
+
+    private void siftDown(int index) {
+        int id = heap[index];
+        double key = keys[id];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+            if (key <= keys[heap[child]]) {
+                break;
+            }
+            move(heap[child], index);
+            index = child;
+        }
+        move(id, index);
+    }
+
+    private void move(int id, int index) {
+        heap[index] = id;
+        positions[id] = index + 1;
+    }
+}
@@ -0,0 +1,111 @@
+package org.natera.test;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from not negative ints to doubles with linear probing, no boxing on any operation.
+ *
+ * Not thread safe.
+ */
+final class IntDoubleMap {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private double[] values;
+    private int size;
+
+    IntDoubleMap(int expectedSize) {
+        keys = new int[IntHashSet.capacityFor(expectedSize)];
+        values = new double[keys.length];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param key not negative int
+     * @param defaultValue value returned for an absent key
+     * @return value of the key or the default value
+     */
+    double get(int key, double defaultValue) {
+        int mask = keys.length - 1;
+        for (int slot = IntHashSet.slot(key, mask); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * @param key not negative int
+     * @param value new value of the key
+     */
+    void put(int key, double value) {
+        int mask = keys.length - 1;
+        int slot = IntHashSet.slot(key, mask);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Removes the key and shifts back the following keys of its probe sequence.
+     *
+     * @return true if the key was in the map
+     */
+    boolean remove(int key) {
+        int mask = keys.length - 1;
+        int slot = IntHashSet.slot(key, mask);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = IntHashSet.slot(keys[next], mask);
+            //move the key into the gap unless its home slot lies cyclically in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new int[capacity];
+        values = new double[capacity];
+        Arrays.fill(keys, EMPTY);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = IntHashSet.slot(oldKeys[i], mask);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.natera.test;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Abstract implementation of graph with int vertexes.
+ *
+ * Vertexes are mapped to dense indexes by an open addressing map, edges are int arrays of indexes,
+ * so neither vertexes nor paths are boxed.
+ * Not thread safe.
+ */
+public abstract class IntGraph {
+
+    private final IntIntHashMap indexes = new IntIntHashMap();
+    private final DenseAdjacency adjacency;
+    private int[] values = new int[16];
+
+    IntGraph(boolean directed) {
+        this.adjacency = new DenseAdjacency(directed);
+    }
+
+    /**
+     * Add new vertex to graph.
+     * If the vertex already exists in the graph, nothing happens.
+     *
+     * @param value vertex value
+     */
+    public void addVertex(int value) {
+        if (indexes.get(value) >= 0) {
+            return;
+        }
+        int index = adjacency.addVertex();
+        indexes.putIfAbsent(value, index);
+        if (index == values.length) {
+            values = Arrays.copyOf(values, index * 2);
+        }
+        values[index] = value;
+    }
+
+    public boolean containsVertex(int value) {
+        return indexes.get(value) >= 0;
+    }
+
+    /**
+     * @return number of vertexes
+     */
+    public int size() {
+        return adjacency.size();
+    }
+
+    /**
+     * Abstract method for adding new edge between specified vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     */
+    public abstract void addEdge(int vertexValueFrom, int vertexValueTo);
+
+    /**
+     * Return path between two vertexes.
+     * Breadth-first search which stops as soon as the target vertex is reached and allocates only the result.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return vertexes of the path from vertexValueFrom to vertexValueTo. If path does not exist or vertexes
+     * are equal, empty array is returned.
+     * @throws IllegalArgumentException if from or to vertex is not in the graph
+     */
+    public int[] getPath(int vertexValueFrom, int vertexValueTo) {
+        int[] path = adjacency.findPath(getIndex(vertexValueFrom), getIndex(vertexValueTo));
+        for (int i = 0; i < path.length; i++) {
+            path[i] = values[path[i]];
+        }
+        return path;
+    }
+
+    /**
+     * Return path between two vertexes as a list of edges, see {@link IntGraph#getPath(int, int)}.
+     * The list is a view of the path, edges are created on access.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is not in the graph
+     */
+    public List<Edge<Integer>> getPathEdges(int vertexValueFrom, int vertexValueTo) {
+        int[] path = getPath(vertexValueFrom, vertexValueTo);
+        return new AbstractList<Edge<Integer>>() {
+            @Override
+            public Edge<Integer> get(int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+                }
+                return new Edge<>(path[index], path[index + 1]);
+            }
+
+            @Override
+            public int size() {
+                return Math.max(0, path.length - 1);
+            }
+        };
+    }
+
+    /**
+     * Add edge between two vertexes, in both directions if the graph is undirected.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @throws IllegalArgumentException if from or to vertex is not in the graph
+     */
+    protected void addPath(int vertexValueFrom, int vertexValueTo) {
+        adjacency.addEdge(getIndex(vertexValueFrom), getIndex(vertexValueTo));
+    }
+
+    private int getIndex(int vertexValue) {
+        int index = indexes.get(vertexValue);
+        if (index < 0) {
+            throw new IllegalArgumentException("Vertex" + vertexValue + " doesn't exist");
+        }
+        return index;
+    }
+}
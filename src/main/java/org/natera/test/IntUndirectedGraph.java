@@ -0,0 +1,25 @@
+package org.natera.test;
+
+/**
+ * Implementation of undirected graph with int vertexes
+ *
+ * Not thread safe.
+ */
+public class IntUndirectedGraph extends IntGraph {
+
+    public IntUndirectedGraph() {
+        super(false);
+    }
+
+    /**
+     * Adds new undirected edge between specified vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @throws IllegalArgumentException if from or to vertex is not in the graph
+     */
+    @Override
+    public void addEdge(int vertexValueFrom, int vertexValueTo) {
+        addPath(vertexValueFrom, vertexValueTo);
+    }
+}
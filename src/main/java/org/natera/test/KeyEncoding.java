@@ -0,0 +1,89 @@
+package org.natera.test;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Hashing and equality of vertex values in the vertex map of a {@link Graph}, see
+ * {@link Graph#setKeyEncoding(KeyEncoding)}.
+ *
+ * A value is hashed once per call of the graph API, the hash is cached by its vertex and searches work on
+ * dense vertex ids. A custom encoding helps when {@code hashCode} and {@code equals} of the value type are
+ * expensive: values may be identified by a cheap key, or compared by identity if they are canonical instances.
+ * Values equal by the encoding are the same vertex.
+ *
+ * @param <T>
+ */
+public interface KeyEncoding<T> {
+
+    /**
+     * @param value vertex value, not null
+     * @return hash of the value, equal values must have equal hashes
+     */
+    int hash(T value);
+
+    /**
+     * @param first vertex value, not null
+     * @param second vertex value, not null
+     * @return true if the values are the same vertex
+     */
+    boolean equals(T first, T second);
+
+    /**
+     * @return encoding by {@link Object#hashCode()} and {@link Object#equals(Object)} of the values
+     */
+    static <T> KeyEncoding<T> natural() {
+        return new KeyEncoding<T>() {
+            @Override
+            public int hash(T value) {
+                return value.hashCode();
+            }
+
+            @Override
+            public boolean equals(T first, T second) {
+                return first.equals(second);
+            }
+        };
+    }
+
+    /**
+     * @return encoding by identity of the values, for canonical instances
+     */
+    static <T> KeyEncoding<T> identity() {
+        return new KeyEncoding<T>() {
+            @Override
+            public int hash(T value) {
+                return System.identityHashCode(value);
+            }
+
+            @Override
+            public boolean equals(T first, T second) {
+                return first == second;
+            }
+        };
+    }
+
+    /**
+     * Creates encoding by a key of the values, such as an id field.
+     *
+     * @param key function returning not null key of a value
+     * @return encoding by {@link Object#hashCode()} and {@link Object#equals(Object)} of the keys
+     * @throws IllegalArgumentException if key is null
+     */
+    static <T, K> KeyEncoding<T> by(Function<? super T, ? extends K> key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must be not null");
+        }
+        return new KeyEncoding<T>() {
+            @Override
+            public int hash(T value) {
+                return key.apply(value).hashCode();
+            }
+
+            @Override
+            public boolean equals(T first, T second) {
+                return first == second || Objects.equals(key.apply(first), key.apply(second));
+            }
+        };
+    }
+}
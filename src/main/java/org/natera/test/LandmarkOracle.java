@@ -0,0 +1,348 @@
+package org.natera.test;
+
+import java.util.*;
+
+/**
+ * Distance oracle of a {@link GraphSnapshot} based on landmarks (ALT).
+ *
+ * A few landmark vertexes are selected by farthest point selection, the oracle keeps breadth-first search
+ * distances from every landmark to every vertex and from every vertex to every landmark. By the triangle
+ * inequality they give a lower and an upper bound of the distance between any two vertexes in O(k) time,
+ * where k is the number of landmarks. The bounds drive an exact A* search ({@link LandmarkOracle#getPath})
+ * and an approximate path spliced from the paths through the best landmark
+ * ({@link LandmarkOracle#getApproximatePath}).
+ *
+ * The oracle takes 2 * k ints per vertex, k for undirected graphs.
+ * Thread safe.
+ *
+ * @param <T>
+ */
+public final class LandmarkOracle<T> {
+
+    /**
+     * Distance bound of vertexes which are not connected.
+     */
+    public static final int INFINITE = Integer.MAX_VALUE;
+
+    private final GraphSnapshot<T> snapshot;
+    private final int[] landmarks;
+    //distancesFrom[landmark][id] is distance from the landmark to the vertex
+    private final int[][] distancesFrom;
+    //distancesTo[landmark][id] is distance from the vertex to the landmark, the same arrays if undirected
+    private final int[][] distancesTo;
+    private final int[] reverseOffsets;
+    private final int[] reverseTargets;
+
+    LandmarkOracle(GraphSnapshot<T> snapshot, int landmarkCount) {
+        if (landmarkCount <= 0) {
+            throw new IllegalArgumentException("Number of landmarks must be positive");
+        }
+        this.snapshot = snapshot;
+        int vertexCount = snapshot.getVertexCount();
+        reverseOffsets = snapshot.getReverseOffsets();
+        reverseTargets = snapshot.getReverseTargets();
+
+        int count = Math.min(landmarkCount, vertexCount);
+        landmarks = new int[count];
+        distancesFrom = new int[count][];
+        distancesTo = new int[count][];
+        //distance from the selected landmarks to every vertex in both directions
+        int[] nearest = new int[vertexCount];
+        Arrays.fill(nearest, INFINITE);
+        int next = maxDegreeVertex();
+        for (int landmark = 0; landmark < count; landmark++) {
+            landmarks[landmark] = next;
+            distancesFrom[landmark] = distances(next, snapshot.getOffsets(), snapshot.getTargets());
+            distancesTo[landmark] = snapshot.isDirected()
+                    ? distances(next, reverseOffsets, reverseTargets)
+                    : distancesFrom[landmark];
+            next = 0;
+            long farthest = -1;
+            for (int id = 0; id < vertexCount; id++) {
+                nearest[id] = Math.min(nearest[id],
+                        Math.min(distancesFrom[landmark][id], distancesTo[landmark][id]));
+                //vertexes not connected with any landmark are the farthest ones
+                long distance = nearest[id] == INFINITE ? Long.MAX_VALUE : nearest[id];
+                if (snapshot.valueOf(id) != null && distance > farthest) {
+                    farthest = distance;
+                    next = id;
+                }
+            }
+        }
+    }
+
+    private int maxDegreeVertex() {
+        int[] offsets = snapshot.getOffsets();
+        int best = -1;
+        for (int id = 0; id < offsets.length - 1; id++) {
+            if (snapshot.valueOf(id) != null
+                    && (best < 0 || offsets[id + 1] - offsets[id] > offsets[best + 1] - offsets[best])) {
+                best = id;
+            }
+        }
+        return Math.max(best, 0);
+    }
+
+    private int[] distances(int source, int[] offsets, int[] targets) {
+        int[] distances = new int[offsets.length - 1];
+        Arrays.fill(distances, INFINITE);
+        int[] queue = new int[distances.length];
+        int head = 0;
+        int tail = 0;
+        distances[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int current = queue[head++];
+            for (int i = offsets[current]; i < offsets[current + 1]; i++) {
+                int next = targets[i];
+                if (distances[next] == INFINITE) {
+                    distances[next] = distances[current] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * @return number of landmarks, not more than the number of vertexes
+     */
+    public int getLandmarkCount() {
+        return landmarks.length;
+    }
+
+    public List<T> getLandmarks() {
+        List<T> values = new ArrayList<>(landmarks.length);
+        for (int landmark : landmarks) {
+            values.add(snapshot.valueOf(landmark));
+        }
+        return values;
+    }
+
+    /**
+     * Return lower bound of the number of edges in a path between two vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return lower bound or {@link LandmarkOracle#INFINITE} if the landmarks prove there is no path
+     * @throws IllegalArgumentException if from or to vertex is null or not in the snapshot
+     */
+    public int getLowerBound(T vertexValueFrom, T vertexValueTo) {
+        return lowerBound(requireId(vertexValueFrom), requireId(vertexValueTo));
+    }
+
+    /**
+     * Return upper bound of the number of edges in a path between two vertexes,
+     * the length of the shortest path through a landmark.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return upper bound or {@link LandmarkOracle#INFINITE} if no landmark is on a path between the vertexes
+     * @throws IllegalArgumentException if from or to vertex is null or not in the snapshot
+     */
+    public int getUpperBound(T vertexValueFrom, T vertexValueTo) {
+        int from = requireId(vertexValueFrom);
+        int to = requireId(vertexValueTo);
+        return from == to ? 0 : upperBound(from, to, bestLandmark(from, to));
+    }
+
+    private int lowerBound(int from, int to) {
+        int bound = 0;
+        for (int landmark = 0; landmark < landmarks.length; landmark++) {
+            //d(L, to) <= d(L, from) + d(from, to)
+            int landmarkFrom = distancesFrom[landmark][from];
+            int landmarkTo = distancesFrom[landmark][to];
+            if (landmarkFrom != INFINITE) {
+                if (landmarkTo == INFINITE) {
+                    return INFINITE;
+                }
+                bound = Math.max(bound, landmarkTo - landmarkFrom);
+            }
+            //d(from, L) <= d(from, to) + d(to, L)
+            int fromLandmark = distancesTo[landmark][from];
+            int toLandmark = distancesTo[landmark][to];
+            if (toLandmark != INFINITE) {
+                if (fromLandmark == INFINITE) {
+                    return INFINITE;
+                }
+                bound = Math.max(bound, fromLandmark - toLandmark);
+            }
+        }
+        return bound;
+    }
+
+    private int bestLandmark(int from, int to) {
+        int best = -1;
+        long bestDistance = INFINITE;
+        for (int landmark = 0; landmark < landmarks.length; landmark++) {
+            long distance = (long) distancesTo[landmark][from] + distancesFrom[landmark][to];
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = landmark;
+            }
+        }
+        return best;
+    }
+
+    private int upperBound(int from, int to, int landmark) {
+        return landmark < 0 ? INFINITE : distancesTo[landmark][from] + distancesFrom[landmark][to];
+    }
+
+    /**
+     * Return shortest path between two vertexes found by A* search with the landmark lower bounds.
+     * Pairs which the landmarks prove not connected are answered without a search.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the snapshot
+     */
+    public List<Edge<T>> getPath(T vertexValueFrom, T vertexValueTo) {
+        int source = requireId(vertexValueFrom);
+        int target = requireId(vertexValueTo);
+        if (source == target || lowerBound(source, target) == INFINITE) {
+            return Collections.emptyList();
+        }
+
+        int[] offsets = snapshot.getOffsets();
+        int[] targets = snapshot.getTargets();
+        //forward side: distance from the source and parent, unvisited vertexes are infinitely far;
+        //backward side: lower bound to the target as depth and 1 as parent once the vertex is closed
+        TraversalContext context = TraversalContext.current();
+        context.begin(snapshot.getVertexCount());
+        IndexedDoubleHeap open = context.getHeap();
+        int sourceBound = lowerBound(source, target);
+        context.visit(TraversalContext.FORWARD, source, source, 0);
+        context.visit(TraversalContext.BACKWARD, source, 0, sourceBound);
+        open.insertOrDecrease(source, sourceBound);
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            if (current == target) {
+                return pathOf(context, source, target);
+            }
+            context.visit(TraversalContext.BACKWARD, current, 1, context.getDepth(TraversalContext.BACKWARD, current));
+            int distance = context.getDepth(TraversalContext.FORWARD, current) + 1;
+            for (int i = offsets[current]; i < offsets[current + 1]; i++) {
+                int next = targets[i];
+                boolean bounded = context.isVisited(TraversalContext.BACKWARD, next);
+                if (bounded && context.getParent(TraversalContext.BACKWARD, next) == 1
+                        || context.isVisited(TraversalContext.FORWARD, next)
+                        && distance >= context.getDepth(TraversalContext.FORWARD, next)) {
+                    continue;
+                }
+                if (!bounded) {
+                    context.visit(TraversalContext.BACKWARD, next, 0, lowerBound(next, target));
+                }
+                int bound = context.getDepth(TraversalContext.BACKWARD, next);
+                if (bound == INFINITE) {
+                    continue;
+                }
+                context.visit(TraversalContext.FORWARD, next, current, distance);
+                open.insertOrDecrease(next, distance + bound);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Return path between two vertexes through the landmark giving the least upper bound,
+     * repeated vertexes are cut out. No search is run: the path is followed along the landmark distances,
+     * so the cost is the length of the path times the degree of its vertexes. The path may be not optimal.
+     * If no landmark is on a path between the vertexes, the exact {@link LandmarkOracle#getPath} is returned.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the snapshot
+     */
+    public List<Edge<T>> getApproximatePath(T vertexValueFrom, T vertexValueTo) {
+        int source = requireId(vertexValueFrom);
+        int target = requireId(vertexValueTo);
+        if (source == target) {
+            return Collections.emptyList();
+        }
+        int landmark = bestLandmark(source, target);
+        if (landmark < 0) {
+            return getPath(vertexValueFrom, vertexValueTo);
+        }
+
+        int length = upperBound(source, target, landmark);
+        int[] ids = new int[length + 1];
+        int[] toLandmark = distancesTo[landmark];
+        int[] fromLandmark = distancesFrom[landmark];
+        int[] offsets = snapshot.getOffsets();
+        int[] targets = snapshot.getTargets();
+        int position = 0;
+        ids[0] = source;
+        //descend to the landmark along outgoing edges
+        for (int current = source; toLandmark[current] > 0; ) {
+            current = neighborAt(current, toLandmark[current] - 1, toLandmark, offsets, targets);
+            ids[++position] = current;
+        }
+        //climb back from the target to the landmark along incoming edges
+        position = length;
+        ids[position] = target;
+        for (int current = target; fromLandmark[current] > 0; ) {
+            current = neighborAt(current, fromLandmark[current] - 1, fromLandmark, reverseOffsets, reverseTargets);
+            ids[--position] = current;
+        }
+        return edgesOf(removeLoops(ids));
+    }
+
+    private static int neighborAt(int vertex, int distance, int[] distances, int[] offsets, int[] targets) {
+        for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+            if (distances[targets[i]] == distance) {
+                return targets[i];
+            }
+        }
+        throw new IllegalStateException("Distance to landmark is inconsistent");
+    }
+
+    private static int[] removeLoops(int[] ids) {
+        Map<Integer, Integer> positions = new HashMap<>();
+        int[] result = new int[ids.length];
+        int size = 0;
+        for (int id : ids) {
+            Integer seen = positions.get(id);
+            if (seen != null) {
+                for (int i = seen + 1; i < size; i++) {
+                    positions.remove(result[i]);
+                }
+                size = seen + 1;
+                continue;
+            }
+            positions.put(id, size);
+            result[size++] = id;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private List<Edge<T>> pathOf(TraversalContext context, int source, int target) {
+        int length = context.getDepth(TraversalContext.FORWARD, target);
+        int[] ids = new int[length + 1];
+        for (int current = target; length >= 0; current = context.getParent(TraversalContext.FORWARD, current)) {
+            ids[length--] = current;
+        }
+        return edgesOf(ids);
+    }
+
+    private List<Edge<T>> edgesOf(int[] ids) {
+        @SuppressWarnings("unchecked")
+        Edge<T>[] path = (Edge<T>[]) new Edge<?>[ids.length - 1];
+        for (int i = 0; i < path.length; i++) {
+            path[i] = new Edge<>(snapshot.valueOf(ids[i]), snapshot.valueOf(ids[i + 1]));
+        }
+        return Arrays.asList(path);
+    }
+
+    private int requireId(T vertexValue) {
+        if (vertexValue == null) {
+            throw new IllegalArgumentException("Value is null");
+        }
+        int id = snapshot.indexOf(vertexValue);
+        if (id < 0) {
+            throw new IllegalArgumentException("Vertex" + vertexValue + " doesn't exist");
+        }
+        return id;
+    }
+}
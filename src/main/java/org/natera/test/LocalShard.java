@@ -0,0 +1,130 @@
+package org.natera.test;
+
+import java.util.*;
+
+/**
+ * Shard kept in a {@link DirectedGraph}.
+ * Targets of edges which belong to other shards are kept as ghost vertexes without edges.
+ *
+ * Not thread safe.
+ *
+ * @param <T>
+ */
+final class LocalShard<T> implements Shard<T> {
+
+    private final DirectedGraph<T> graph = new DirectedGraph<>();
+    private final Set<T> ghosts = new HashSet<>();
+    private long search = -1;
+    //visited vertexes of the shard mapped to their parents
+    private Map<T, T> parents = new HashMap<>();
+    private List<T> frontier = new ArrayList<>();
+
+    @Override
+    public boolean addVertex(T value) {
+        if (graph.getVertexes().containsKey(value)) {
+            return ghosts.remove(value);
+        }
+        graph.addVertex(value);
+        return true;
+    }
+
+    @Override
+    public boolean containsVertex(T value) {
+        return graph.getVertexes().containsKey(value) && !ghosts.contains(value);
+    }
+
+    @Override
+    public boolean addArc(T vertexValueFrom, T vertexValueTo) {
+        if (!containsVertex(vertexValueFrom)) {
+            throw new IllegalArgumentException("Vertex " + vertexValueFrom + " doesn't exist in the shard");
+        }
+        Graph.Vertex<T> vertexFrom = graph.getVertex(vertexValueFrom);
+        Graph.Vertex<T> vertexTo = graph.getVertexes().get(vertexValueTo);
+        if (vertexTo == null) {
+            graph.addVertex(vertexValueTo);
+            ghosts.add(vertexValueTo);
+        } else if (vertexFrom.getEdgesToIds().contains(vertexTo.getId())) {
+            return false;
+        }
+        graph.addEdge(vertexValueFrom, vertexValueTo);
+        return true;
+    }
+
+    @Override
+    public int getVertexCount() {
+        return graph.getVertexIdBound() - ghosts.size();
+    }
+
+    @Override
+    public long getArcCount() {
+        return graph.getArcCount();
+    }
+
+    @Override
+    public FrontierBatch<T> expand(long search, T vertexValueTo, FrontierBatch<T> batch) {
+        if (search != this.search) {
+            finishSearch(this.search);
+            this.search = search;
+        }
+        List<T> current = frontier;
+        frontier = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            T vertex = batch.getVertexes().get(i);
+            if (!parents.containsKey(vertex)) {
+                parents.put(vertex, batch.getParents().get(i));
+                if (vertex.equals(vertexValueTo)) {
+                    return new FrontierBatch<>(Collections.emptyList(), Collections.emptyList(), true, 0);
+                }
+                current.add(vertex);
+            }
+        }
+
+        //other shards' vertexes reached by this level, the first parent wins
+        Map<T, T> remote = new LinkedHashMap<>();
+        for (T value : current) {
+            AdjacencySet edgesTo = graph.getVertex(value).getEdgesToIds();
+            for (int cursor = edgesTo.next(0); cursor >= 0; cursor = edgesTo.next(cursor + 1)) {
+                T next = graph.getVertexById(edgesTo.idAt(cursor)).getValue();
+                if (ghosts.contains(next)) {
+                    remote.putIfAbsent(next, value);
+                } else if (!parents.containsKey(next)) {
+                    parents.put(next, value);
+                    if (next.equals(vertexValueTo)) {
+                        return new FrontierBatch<>(Collections.emptyList(), Collections.emptyList(), true, 0);
+                    }
+                    frontier.add(next);
+                }
+            }
+        }
+        return new FrontierBatch<>(new ArrayList<>(remote.keySet()), new ArrayList<>(remote.values()),
+                false, frontier.size());
+    }
+
+    @Override
+    public List<T> tracePath(long search, T vertexValue) {
+        if (search != this.search || !parents.containsKey(vertexValue)) {
+            throw new IllegalArgumentException("Vertex " + vertexValue + " is not visited by search " + search);
+        }
+        List<T> chain = new ArrayList<>();
+        T current = vertexValue;
+        chain.add(current);
+        while (containsVertex(current)) {
+            T parent = parents.get(current);
+            if (parent.equals(current)) {
+                break;
+            }
+            chain.add(parent);
+            current = parent;
+        }
+        return chain;
+    }
+
+    @Override
+    public void finishSearch(long search) {
+        if (search == this.search) {
+            parents = new HashMap<>();
+            frontier = new ArrayList<>();
+            this.search = -1;
+        }
+    }
+}
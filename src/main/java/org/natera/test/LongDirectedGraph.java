@@ -0,0 +1,25 @@
+package org.natera.test;
+
+/**
+ * Implementation of directed graph with long vertexes
+ *
+ * Not thread safe.
+ */
+public class LongDirectedGraph extends LongGraph {
+
+    public LongDirectedGraph() {
+        super(true);
+    }
+
+    /**
+     * Adds new directed edge between specified vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @throws IllegalArgumentException if from or to vertex is not in the graph
+     */
+    @Override
+    public void addEdge(long vertexValueFrom, long vertexValueTo) {
+        addPath(vertexValueFrom, vertexValueTo);
+    }
+}
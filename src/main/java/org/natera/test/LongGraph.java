@@ -0,0 +1,125 @@
+package org.natera.test;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Abstract implementation of graph with long vertexes.
+ *
+ * Vertexes are mapped to dense indexes by an open addressing map, edges are int arrays of indexes,
+ * so neither vertexes nor paths are boxed.
+ * Not thread safe.
+ */
+public abstract class LongGraph {
+
+    private final LongIntHashMap indexes = new LongIntHashMap();
+    private final DenseAdjacency adjacency;
+    private long[] values = new long[16];
+
+    LongGraph(boolean directed) {
+        this.adjacency = new DenseAdjacency(directed);
+    }
+
+    /**
+     * Add new vertex to graph.
+     * If the vertex already exists in the graph, nothing happens.
+     *
+     * @param value vertex value
+     */
+    public void addVertex(long value) {
+        if (indexes.get(value) >= 0) {
+            return;
+        }
+        int index = adjacency.addVertex();
+        indexes.putIfAbsent(value, index);
+        if (index == values.length) {
+            values = Arrays.copyOf(values, index * 2);
+        }
+        values[index] = value;
+    }
+
+    public boolean containsVertex(long value) {
+        return indexes.get(value) >= 0;
+    }
+
+    /**
+     * @return number of vertexes
+     */
+    public int size() {
+        return adjacency.size();
+    }
+
+    /**
+     * Abstract method for adding new edge between specified vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     */
+    public abstract void addEdge(long vertexValueFrom, long vertexValueTo);
+
+    /**
+     * Return path between two vertexes.
+     * Breadth-first search which stops as soon as the target vertex is reached and allocates only the result.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return vertexes of the path from vertexValueFrom to vertexValueTo. If path does not exist or vertexes
+     * are equal, empty array is returned.
+     * @throws IllegalArgumentException if from or to vertex is not in the graph
+     */
+    public long[] getPath(long vertexValueFrom, long vertexValueTo) {
+        int[] pathIndexes = adjacency.findPath(getIndex(vertexValueFrom), getIndex(vertexValueTo));
+        long[] path = new long[pathIndexes.length];
+        for (int i = 0; i < pathIndexes.length; i++) {
+            path[i] = values[pathIndexes[i]];
+        }
+        return path;
+    }
+
+    /**
+     * Return path between two vertexes as a list of edges, see {@link LongGraph#getPath(long, long)}.
+     * The list is a view of the path, edges are created on access.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is not in the graph
+     */
+    public List<Edge<Long>> getPathEdges(long vertexValueFrom, long vertexValueTo) {
+        long[] path = getPath(vertexValueFrom, vertexValueTo);
+        return new AbstractList<Edge<Long>>() {
+            @Override
+            public Edge<Long> get(int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+                }
+                return new Edge<>(path[index], path[index + 1]);
+            }
+
+            @Override
+            public int size() {
+                return Math.max(0, path.length - 1);
+            }
+        };
+    }
+
+    /**
+     * Add edge between two vertexes, in both directions if the graph is undirected.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @throws IllegalArgumentException if from or to vertex is not in the graph
+     */
+    protected void addPath(long vertexValueFrom, long vertexValueTo) {
+        adjacency.addEdge(getIndex(vertexValueFrom), getIndex(vertexValueTo));
+    }
+
+    private int getIndex(long vertexValue) {
+        int index = indexes.get(vertexValue);
+        if (index < 0) {
+            throw new IllegalArgumentException("Vertex" + vertexValue + " doesn't exist");
+        }
+        return index;
+    }
+}
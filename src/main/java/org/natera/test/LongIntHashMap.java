@@ -0,0 +1,83 @@
+package org.natera.test;
+
+/**
+ * Open addressing map from long keys to not negative int values with linear probing.
+ *
+ * Not thread safe.
+ */
+final class LongIntHashMap {
+
+    private long[] keys;
+    //value + 1, 0 marks an empty slot
+    private int[] values;
+    private int size;
+
+    LongIntHashMap() {
+        keys = new long[16];
+        values = new int[16];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return value of the key or -1 if the key is absent
+     */
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); values[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Puts the value if the key is absent.
+     *
+     * @param key key
+     * @param value not negative value
+     * @return value of the key before the call or -1 if the key was absent
+     */
+    int putIfAbsent(long key, int value) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (values[slot] != 0) {
+            if (keys[slot] == key) {
+                return values[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value + 1;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return -1;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                int slot = slot(oldKeys[i], mask);
+                while (values[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,353 @@
+package org.natera.test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transport to shards served over TCP on the loopback interface.
+ *
+ * Every shard is a {@link LocalShard} served by its own thread through its own socket, so every call pays
+ * the encoding and a network round trip as it would with shards in other processes. Requests and responses
+ * are framed with {@link DataOutputStream}, vertex values are encoded by the {@link VertexCodec}.
+ * A request is an operation code followed by its arguments, a response is a status followed by the result,
+ * or by the message of the {@link IllegalArgumentException} thrown by the shard.
+ *
+ * Not thread safe.
+ *
+ * @param <T>
+ */
+public final class LoopbackShardTransport<T> implements ShardTransport<T> {
+
+    private static final byte ADD_VERTEX = 1;
+    private static final byte CONTAINS_VERTEX = 2;
+    private static final byte ADD_ARC = 3;
+    private static final byte GET_VERTEX_COUNT = 4;
+    private static final byte GET_ARC_COUNT = 5;
+    private static final byte EXPAND = 6;
+    private static final byte TRACE_PATH = 7;
+    private static final byte FINISH_SEARCH = 8;
+
+    private static final byte OK = 0;
+    private static final byte ILLEGAL_ARGUMENT = 1;
+
+    private final VertexCodec<T> codec;
+    private final List<ServerSocket> servers = new ArrayList<>();
+    private final List<Thread> serverThreads = new ArrayList<>();
+    private final List<RemoteShard> shards = new ArrayList<>();
+
+    /**
+     * Starts the shard servers and connects to them.
+     *
+     * @param shardCount number of shards
+     * @param codec encoding of vertex values
+     * @throws IllegalArgumentException if number of shards is not positive or codec is null
+     * @throws IOException if a socket cannot be opened
+     */
+    public LoopbackShardTransport(int shardCount, VertexCodec<T> codec) throws IOException {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Number of shards must be positive");
+        }
+        if (codec == null) {
+            throw new IllegalArgumentException("Codec must be not null");
+        }
+        this.codec = codec;
+        try {
+            for (int i = 0; i < shardCount; i++) {
+                ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+                servers.add(server);
+                Thread thread = new Thread(() -> serve(server), "shard-server-" + servers.size());
+                thread.setDaemon(true);
+                thread.start();
+                serverThreads.add(thread);
+                shards.add(new RemoteShard(new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort())));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    @Override
+    public Shard<T> getShard(int index) {
+        return shards.get(index);
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (RemoteShard shard : shards) {
+            try {
+                shard.socket.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        for (ServerSocket server : servers) {
+            try {
+                server.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        for (Thread thread : serverThreads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Serves requests of the only client until it disconnects.
+     */
+    private void serve(ServerSocket server) {
+        LocalShard<T> shard = new LocalShard<>();
+        try (Socket socket = server.accept();
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (true) {
+                int operation = in.read();
+                if (operation < 0) {
+                    return;
+                }
+                try {
+                    handle((byte) operation, shard, in, out);
+                } catch (IllegalArgumentException e) {
+                    out.writeByte(ILLEGAL_ARGUMENT);
+                    out.writeUTF(String.valueOf(e.getMessage()));
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            //the client disconnected or the transport is closed
+        }
+    }
+
+    private void handle(byte operation, LocalShard<T> shard, DataInputStream in, DataOutputStream out)
+            throws IOException {
+        switch (operation) {
+            case ADD_VERTEX: {
+                boolean added = shard.addVertex(readValue(in));
+                out.writeByte(OK);
+                out.writeBoolean(added);
+                break;
+            }
+            case CONTAINS_VERTEX: {
+                boolean contains = shard.containsVertex(readValue(in));
+                out.writeByte(OK);
+                out.writeBoolean(contains);
+                break;
+            }
+            case ADD_ARC: {
+                boolean added = shard.addArc(readValue(in), readValue(in));
+                out.writeByte(OK);
+                out.writeBoolean(added);
+                break;
+            }
+            case GET_VERTEX_COUNT:
+                out.writeByte(OK);
+                out.writeInt(shard.getVertexCount());
+                break;
+            case GET_ARC_COUNT:
+                out.writeByte(OK);
+                out.writeLong(shard.getArcCount());
+                break;
+            case EXPAND: {
+                long search = in.readLong();
+                T target = readValue(in);
+                FrontierBatch<T> batch = shard.expand(search, target, readBatch(in));
+                out.writeByte(OK);
+                writeBatch(out, batch);
+                break;
+            }
+            case TRACE_PATH: {
+                long search = in.readLong();
+                List<T> chain = shard.tracePath(search, readValue(in));
+                out.writeByte(OK);
+                writeValues(out, chain);
+                break;
+            }
+            case FINISH_SEARCH:
+                shard.finishSearch(in.readLong());
+                out.writeByte(OK);
+                break;
+            default:
+                throw new IOException("Unknown operation " + operation);
+        }
+    }
+
+    private void writeValue(DataOutputStream out, T value) throws IOException {
+        byte[] bytes = codec.encode(value);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private T readValue(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return codec.decode(bytes);
+    }
+
+    private void writeValues(DataOutputStream out, List<T> values) throws IOException {
+        out.writeInt(values.size());
+        for (T value : values) {
+            writeValue(out, value);
+        }
+    }
+
+    private List<T> readValues(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<T> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readValue(in));
+        }
+        return values;
+    }
+
+    private void writeBatch(DataOutputStream out, FrontierBatch<T> batch) throws IOException {
+        writeValues(out, batch.getVertexes());
+        writeValues(out, batch.getParents());
+        out.writeBoolean(batch.isTargetReached());
+        out.writeInt(batch.getLocalFrontierSize());
+    }
+
+    private FrontierBatch<T> readBatch(DataInputStream in) throws IOException {
+        List<T> vertexes = readValues(in);
+        List<T> parents = readValues(in);
+        return new FrontierBatch<>(vertexes, parents, in.readBoolean(), in.readInt());
+    }
+
+    /**
+     * Client side of a shard, every call is one request and one response.
+     */
+    private final class RemoteShard implements Shard<T> {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        private RemoteShard(Socket socket) throws IOException {
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        @Override
+        public boolean addVertex(T value) {
+            try {
+                out.writeByte(ADD_VERTEX);
+                writeValue(out, value);
+                return receive().readBoolean();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean containsVertex(T value) {
+            try {
+                out.writeByte(CONTAINS_VERTEX);
+                writeValue(out, value);
+                return receive().readBoolean();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean addArc(T vertexValueFrom, T vertexValueTo) {
+            try {
+                out.writeByte(ADD_ARC);
+                writeValue(out, vertexValueFrom);
+                writeValue(out, vertexValueTo);
+                return receive().readBoolean();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public int getVertexCount() {
+            try {
+                out.writeByte(GET_VERTEX_COUNT);
+                return receive().readInt();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public long getArcCount() {
+            try {
+                out.writeByte(GET_ARC_COUNT);
+                return receive().readLong();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public FrontierBatch<T> expand(long search, T vertexValueTo, FrontierBatch<T> batch) {
+            try {
+                out.writeByte(EXPAND);
+                out.writeLong(search);
+                writeValue(out, vertexValueTo);
+                writeBatch(out, batch);
+                return readBatch(receive());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public List<T> tracePath(long search, T vertexValue) {
+            try {
+                out.writeByte(TRACE_PATH);
+                out.writeLong(search);
+                writeValue(out, vertexValue);
+                return readValues(receive());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finishSearch(long search) {
+            try {
+                out.writeByte(FINISH_SEARCH);
+                out.writeLong(search);
+                receive();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Sends the request and reads the status of the response.
+         *
+         * @return stream positioned at the result
+         */
+        private DataInputStream receive() throws IOException {
+            out.flush();
+            byte status = in.readByte();
+            if (status == ILLEGAL_ARGUMENT) {
+                throw new IllegalArgumentException(in.readUTF());
+            }
+            return in;
+        }
+    }
+}
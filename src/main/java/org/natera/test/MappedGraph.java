@@ -0,0 +1,271 @@
+package org.natera.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Read only graph answering queries directly from a memory mapped {@link GraphFile}.
+ *
+ * Opening the file maps its sections without reading them, the operating system pages data in on access,
+ * so the graph is queryable right after open and its adjacency lives outside of the java heap.
+ * Every section must be smaller than 2GB.
+ *
+ * Value of a vertex must be not null.
+ * Thread safe.
+ *
+ * @param <T>
+ */
+public final class MappedGraph<T> {
+
+    private final VertexCodec<T> codec;
+    private final boolean directed;
+    private final int vertexCount;
+    private final int edgeCount;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer table;
+    private final IntBuffer valueOffsets;
+    private final ByteBuffer values;
+
+    private MappedGraph(VertexCodec<T> codec, boolean directed, int vertexCount, int edgeCount,
+                        IntBuffer offsets, IntBuffer targets, IntBuffer table,
+                        IntBuffer valueOffsets, ByteBuffer values) {
+        this.codec = codec;
+        this.directed = directed;
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.table = table;
+        this.valueOffsets = valueOffsets;
+        this.values = values;
+    }
+
+    /**
+     * Maps graph file into memory.
+     *
+     * @param file file written by {@link GraphFile#write(GraphSnapshot, java.nio.file.Path, VertexCodec)}
+     * @param codec encoding of vertex values used for writing the file
+     * @return mapped graph
+     * @throws IOException if the file cannot be read or is not a graph file
+     */
+    public static <T> MappedGraph<T> open(java.nio.file.Path file, VertexCodec<T> codec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < GraphFile.HEADER_SIZE) {
+                throw new IOException("File " + file + " is not a graph file");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, GraphFile.HEADER_SIZE);
+            if (header.getInt() != GraphFile.MAGIC) {
+                throw new IOException("File " + file + " is not a graph file");
+            }
+            int formatVersion = header.getInt();
+            if (formatVersion != GraphFile.FORMAT_VERSION) {
+                throw new IOException("Unsupported graph file version " + formatVersion);
+            }
+            boolean directed = (header.getInt() & GraphFile.FLAG_DIRECTED) != 0;
+            int vertexCount = header.getInt();
+            long edgeCount = header.getLong();
+            int tableSize = header.getInt();
+            if (edgeCount > Integer.MAX_VALUE) {
+                throw new IOException("Graph file has too many edges: " + edgeCount);
+            }
+
+            long position = GraphFile.HEADER_SIZE;
+            IntBuffer offsets = mapInts(channel, position, vertexCount + 1);
+            position += (vertexCount + 1L) * Integer.BYTES;
+            IntBuffer targets = mapInts(channel, position, (int) edgeCount);
+            position += edgeCount * Integer.BYTES;
+            IntBuffer table = mapInts(channel, position, tableSize);
+            position += (long) tableSize * Integer.BYTES;
+            IntBuffer valueOffsets = mapInts(channel, position, vertexCount + 1);
+            position += (vertexCount + 1L) * Integer.BYTES;
+            ByteBuffer values = channel.map(FileChannel.MapMode.READ_ONLY, position, valueOffsets.get(vertexCount));
+            return new MappedGraph<>(codec, directed, vertexCount, (int) edgeCount,
+                    offsets, targets, table, valueOffsets, values);
+        }
+    }
+
+    private static IntBuffer mapInts(FileChannel channel, long position, int count) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, (long) count * Integer.BYTES).asIntBuffer();
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * @return number of directed edges, an undirected edge is counted in both directions
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public boolean containsVertex(T value) {
+        return value != null && indexOf(codec.encode(value)) >= 0;
+    }
+
+    /**
+     * Return shortest path between two vertexes.
+     * Breadth-first search over the mapped arrays, stops as soon as the target vertex is reached.
+     * Search state is kept in the {@link TraversalContext} of the current thread.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    public List<Edge<T>> getPath(T vertexValueFrom, T vertexValueTo) {
+        return findPath(vertexValueFrom, vertexValueTo).toList();
+    }
+
+    /**
+     * Return shortest path between two vertexes as a {@link Path}, see {@link MappedGraph#getPath(Object, Object)}.
+     * Edges of the path are not created unless they are requested.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return path. If path does not exist or vertexes are equal, empty path is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    public Path<T> findPath(T vertexValueFrom, T vertexValueTo) {
+        return findPath(vertexValueFrom, vertexValueTo, TraversalContext.current());
+    }
+
+    /**
+     * Return shortest path between two vertexes as a {@link Path}, see {@link MappedGraph#getPath(Object, Object)}.
+     * The search keeps its state in the specified context instead of the context of the current thread.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @param context scratch space of the search
+     * @return path. If path does not exist or vertexes are equal, empty path is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph, or context is null
+     */
+    public Path<T> findPath(T vertexValueFrom, T vertexValueTo, TraversalContext context) {
+        if (context == null) {
+            throw new IllegalArgumentException("Context must be not null");
+        }
+        int source = requireId(vertexValueFrom);
+        int target = requireId(vertexValueTo);
+        if (source == target) {
+            return Path.empty();
+        }
+
+        context.begin(vertexCount);
+        int[] queue = context.getQueue(TraversalContext.FORWARD);
+        int head = 0;
+        int tail = 0;
+        context.visit(TraversalContext.FORWARD, source, -1, 0);
+        queue[tail++] = source;
+        while (head < tail) {
+            int current = queue[head++];
+            int nextDepth = context.getDepth(TraversalContext.FORWARD, current) + 1;
+            int end = offsets.get(current + 1);
+            for (int i = offsets.get(current); i < end; i++) {
+                int next = targets.get(i);
+                if (!context.isVisited(TraversalContext.FORWARD, next)) {
+                    context.visit(TraversalContext.FORWARD, next, current, nextDepth);
+                    if (next == target) {
+                        return collectPath(target, nextDepth, context);
+                    }
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return Path.empty();
+    }
+
+    private Path<T> collectPath(int target, int length, TraversalContext context) {
+        Object[] vertexes = new Object[length + 1];
+        for (int current = target, index = length; index >= 0; index--) {
+            vertexes[index] = valueOf(current);
+            current = context.getParent(TraversalContext.FORWARD, current);
+        }
+        return new Path<>(vertexes);
+    }
+
+    private int requireId(T vertexValue) {
+        if (vertexValue == null) {
+            throw new IllegalArgumentException("Value is null");
+        }
+        int id = indexOf(codec.encode(vertexValue));
+        if (id < 0) {
+            throw new IllegalArgumentException("Vertex" + vertexValue + " doesn't exist");
+        }
+        return id;
+    }
+
+    private int indexOf(byte[] encoded) {
+        int mask = table.capacity() - 1;
+        int slot = GraphFile.hash(encoded) & mask;
+        while (table.get(slot) != 0) {
+            int id = table.get(slot) - 1;
+            if (valueEquals(id, encoded)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean valueEquals(int id, byte[] encoded) {
+        int start = valueOffsets.get(id);
+        if (valueOffsets.get(id + 1) - start != encoded.length) {
+            return false;
+        }
+        for (int i = 0; i < encoded.length; i++) {
+            if (values.get(start + i) != encoded[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private T valueOf(int id) {
+        return codec.decode(encodedValueOf(id));
+    }
+
+    private byte[] encodedValueOf(int id) {
+        int start = valueOffsets.get(id);
+        byte[] encoded = new byte[valueOffsets.get(id + 1) - start];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = values.get(start + i);
+        }
+        return encoded;
+    }
+
+    /**
+     * Adds vertexes and edges of the file to the graph.
+     *
+     * @param graph graph of the same kind, directed or undirected
+     */
+    @SuppressWarnings("unchecked")
+    void copyTo(Graph<T> graph) {
+        Object[] vertexValues = new Object[vertexCount];
+        for (int id = 0; id < vertexCount; id++) {
+            byte[] encoded = encodedValueOf(id);
+            //ids without a vertex are absent from the table
+            if (indexOf(encoded) == id) {
+                vertexValues[id] = codec.decode(encoded);
+                graph.addVertex((T) vertexValues[id]);
+            }
+        }
+        for (int id = 0; id < vertexCount; id++) {
+            for (int i = offsets.get(id); i < offsets.get(id + 1); i++) {
+                int target = targets.get(i);
+                //an undirected edge is stored in both directions
+                if (vertexValues[id] != null && vertexValues[target] != null && (directed || id <= target)) {
+                    graph.addEdge((T) vertexValues[id], (T) vertexValues[target]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.natera.test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link GraphMetrics} keeping a {@link LatencyHistogram} per operation and totals of traversal statistics.
+ * May be shared by several graphs.
+ *
+ * Thread safe.
+ */
+public class MetricsRegistry implements GraphMetrics {
+
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final LongAdder traversals = new LongAdder();
+    private final LongAdder expandedVertexes = new LongAdder();
+    private final LongAdder scannedEdges = new LongAdder();
+    private final LongAdder levels = new LongAdder();
+    private final AtomicInteger maxFrontier = new AtomicInteger();
+
+    public MetricsRegistry() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+        }
+    }
+
+    @Override
+    public void recordLatency(Operation operation, long nanos) {
+        latencies.get(operation).record(nanos);
+    }
+
+    @Override
+    public void recordTraversal(long expandedVertexes, long scannedEdges, int levels, int maxFrontier) {
+        traversals.increment();
+        this.expandedVertexes.add(expandedVertexes);
+        this.scannedEdges.add(scannedEdges);
+        this.levels.add(levels);
+        if (maxFrontier > this.maxFrontier.get()) {
+            this.maxFrontier.accumulateAndGet(maxFrontier, Math::max);
+        }
+    }
+
+    /**
+     * @param operation operation
+     * @return histogram of the operation durations in nanoseconds
+     */
+    public LatencyHistogram getLatency(Operation operation) {
+        return latencies.get(operation);
+    }
+
+    /**
+     * @return number of path searches
+     */
+    public long getTraversalCount() {
+        return traversals.sum();
+    }
+
+    public long getExpandedVertexes() {
+        return expandedVertexes.sum();
+    }
+
+    public long getScannedEdges() {
+        return scannedEdges.sum();
+    }
+
+    public long getLevels() {
+        return levels.sum();
+    }
+
+    /**
+     * @return size of the largest frontier level of all searches
+     */
+    public int getMaxFrontier() {
+        return maxFrontier.get();
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : latencies.values()) {
+            histogram.reset();
+        }
+        traversals.reset();
+        expandedVertexes.reset();
+        scannedEdges.reset();
+        levels.reset();
+        maxFrontier.set(0);
+    }
+}
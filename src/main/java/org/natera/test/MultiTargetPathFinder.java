@@ -0,0 +1,74 @@
+package org.natera.test;
+
+import java.util.*;
+
+/**
+ * Breadth-first search from one vertex to several targets at once.
+ * The search stops as soon as all targets are reached, unreachable targets are detected
+ * when the reachable component is exhausted.
+ * Search state lives in the {@link TraversalContext} of the current thread.
+ */
+class MultiTargetPathFinder {
+
+    /**
+     * Finds shortest paths from one vertex to each of the targets.
+     *
+     * @param graph graph to search
+     * @param source id of vertex from
+     * @param targets ids of target vertexes
+     * @return path for every target in the same order, empty list if the path does not exist
+     * or target equals source
+     */
+    <T> List<List<Edge<T>>> findPaths(Graph<T> graph, int source, int[] targets) {
+        IntHashSet pending = new IntHashSet(targets.length);
+        for (int target : targets) {
+            if (target != source) {
+                pending.add(target);
+            }
+        }
+
+        TraversalContext context = TraversalContext.current();
+        context.begin(graph.getVertexIdBound());
+        int[] queue = context.getQueue(TraversalContext.FORWARD);
+        int head = 0;
+        int tail = 0;
+        context.visit(TraversalContext.FORWARD, source, -1, 0);
+        queue[tail++] = source;
+        int pendingCount = pending.size();
+        while (pendingCount > 0 && head < tail) {
+            int current = queue[head++];
+            int nextDepth = context.getDepth(TraversalContext.FORWARD, current) + 1;
+            AdjacencySet edgesTo = graph.getVertexById(current).getEdgesToIds();
+            for (int cursor = edgesTo.next(0); cursor >= 0; cursor = edgesTo.next(cursor + 1)) {
+                int next = edgesTo.idAt(cursor);
+                if (context.isVisited(TraversalContext.FORWARD, next)) {
+                    continue;
+                }
+                context.visit(TraversalContext.FORWARD, next, current, nextDepth);
+                queue[tail++] = next;
+                if (pending.contains(next) && --pendingCount == 0) {
+                    break;
+                }
+            }
+        }
+
+        List<List<Edge<T>>> paths = new ArrayList<>(targets.length);
+        for (int target : targets) {
+            paths.add(collectPath(graph, context, source, target));
+        }
+        return paths;
+    }
+
+    private <T> List<Edge<T>> collectPath(Graph<T> graph, TraversalContext context, int source, int target) {
+        if (target == source || !context.isVisited(TraversalContext.FORWARD, target)) {
+            return Collections.emptyList();
+        }
+        int length = context.getDepth(TraversalContext.FORWARD, target);
+        Object[] vertexes = new Object[length + 1];
+        for (int current = target, index = length; index >= 0; index--) {
+            vertexes[index] = graph.getVertexById(current).getValue();
+            current = context.getParent(TraversalContext.FORWARD, current);
+        }
+        return new Path<T>(vertexes).toList();
+    }
+}
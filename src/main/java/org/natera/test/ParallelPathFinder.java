@@ -0,0 +1,238 @@
+package org.natera.test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Level synchronous breadth-first search which expands large frontiers on a {@link ForkJoinPool}.
+ *
+ * Frontiers smaller than {@link Graph#getParallelFrontierThreshold()} are expanded by the calling thread.
+ * Larger ones are expanded in parallel, either top-down (frontier vertexes claim their unvisited neighbours
+ * with compare-and-set on the parent array) or bottom-up (unvisited vertexes look for a parent in the frontier
+ * bitmap over their incoming edges). Bottom-up is chosen when the frontier has more edges than
+ * 1 / {@link ParallelPathFinder#TOP_DOWN_RATIO} of the edges not explored yet and the graph indexes
+ * incoming edges.
+ *
+ * The search stops after the level which reaches the target, so the path has the shortest hop count,
+ * the same as the one returned by the serial strategies.
+ *
+ * Parents live in the shared parent array of the {@link TraversalContext}: the low half of an entry is
+ * parent id + 1, the high half the number of the search which wrote it, so the array is never cleared.
+ */
+class ParallelPathFinder implements PathFinder {
+
+    private static final int TOP_DOWN_RATIO = 14;
+    //number of vertexes expanded by one task
+    private static final int TASK_SIZE = 512;
+    private static final long EPOCH_MASK = 0xFFFFFFFF00000000L;
+
+    @Override
+    public <T> Path<T> findPath(Graph<T> graph, T vertexValueFrom, T vertexValueTo,
+                                      TraversalContext context) {
+        int vertexCount = graph.getVertexIdBound();
+        int source = graph.getVertex(vertexValueFrom).getId();
+        int target = graph.getVertex(vertexValueTo).getId();
+        ForkJoinPool pool = graph.getParallelPool();
+        int threshold = graph.getParallelFrontierThreshold();
+
+        context.begin(vertexCount);
+        AtomicLongArray parents = context.getSharedParents();
+        long stamp = (long) context.getEpoch() << 32;
+        parents.set(source, stamp | (source + 1));
+        IdList frontier = new IdList(1);
+        frontier.add(source);
+        long unexploredEdges = graph.getArcCount();
+
+        while (frontier.size() > 0 && !isVisited(parents, stamp, target)) {
+            long frontierEdges = 0;
+            for (int i = 0; i < frontier.size(); i++) {
+                frontierEdges += graph.getVertexById(frontier.get(i)).getEdgesToIds().size();
+            }
+            unexploredEdges -= frontierEdges;
+            context.addLevel(frontier.size(), frontierEdges);
+
+            if (frontier.size() < threshold) {
+                frontier = expand(graph, parents, stamp, frontier, 0, frontier.size());
+            } else if (frontierEdges * TOP_DOWN_RATIO < unexploredEdges || !graph.isIncomingIndexed()) {
+                frontier = pool.invoke(new TopDownTask<>(graph, parents, stamp, frontier, 0, frontier.size()));
+            } else {
+                long[] frontierBits = new long[(vertexCount + 63) >>> 6];
+                for (int i = 0; i < frontier.size(); i++) {
+                    int id = frontier.get(i);
+                    frontierBits[id >>> 6] |= 1L << id;
+                }
+                frontier = pool.invoke(new BottomUpTask<>(graph, parents, stamp, frontierBits, 0, vertexCount));
+            }
+        }
+
+        if (!isVisited(parents, stamp, target)) {
+            return Path.empty();
+        }
+        return collectPath(graph, source, target, parents);
+    }
+
+    private static boolean isVisited(AtomicLongArray parents, long stamp, int id) {
+        return (parents.get(id) & EPOCH_MASK) == stamp;
+    }
+
+    private static int parentOf(AtomicLongArray parents, int id) {
+        return (int) parents.get(id) - 1;
+    }
+
+    private <T> Path<T> collectPath(Graph<T> graph, int source, int target, AtomicLongArray parents) {
+        int length = 0;
+        for (int current = target; current != source; current = parentOf(parents, current)) {
+            length++;
+        }
+        Object[] vertexes = new Object[length + 1];
+        for (int current = target, index = length; index >= 0; current = parentOf(parents, current), index--) {
+            vertexes[index] = graph.getVertexById(current).getValue();
+        }
+        return new Path<>(vertexes);
+    }
+
+    /**
+     * Visits unvisited neighbours of frontier[from] ... frontier[to - 1].
+     */
+    private static class TopDownTask<T> extends RecursiveTask<IdList> {
+        private static final long serialVersionUID = 1L;
+
+        private final Graph<T> graph;
+        private final AtomicLongArray parents;
+        private final long stamp;
+        private final IdList frontier;
+        private final int from;
+        private final int to;
+
+        private TopDownTask(Graph<T> graph, AtomicLongArray parents, long stamp, IdList frontier, int from, int to) {
+            this.graph = graph;
+            this.parents = parents;
+            this.stamp = stamp;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected IdList compute() {
+            if (to - from > TASK_SIZE) {
+                int middle = (from + to) >>> 1;
+                TopDownTask<T> left = new TopDownTask<>(graph, parents, stamp, frontier, from, middle);
+                left.fork();
+                IdList right = new TopDownTask<>(graph, parents, stamp, frontier, middle, to).compute();
+                return left.join().addAll(right);
+            }
+            return expand(graph, parents, stamp, frontier, from, to);
+        }
+    }
+
+    /**
+     * Visits unvisited neighbours of frontier[from] ... frontier[to - 1] in the calling thread.
+     */
+    private static <T> IdList expand(Graph<T> graph, AtomicLongArray parents, long stamp,
+                                     IdList frontier, int from, int to) {
+        IdList nextFrontier = new IdList(to - from);
+        for (int i = from; i < to; i++) {
+            int current = frontier.get(i);
+            AdjacencySet edgesTo = graph.getVertexById(current).getEdgesToIds();
+            for (int cursor = edgesTo.next(0); cursor >= 0; cursor = edgesTo.next(cursor + 1)) {
+                int next = edgesTo.idAt(cursor);
+                long entry = parents.get(next);
+                if ((entry & EPOCH_MASK) != stamp && parents.compareAndSet(next, entry, stamp | (current + 1))) {
+                    nextFrontier.add(next);
+                }
+            }
+        }
+        return nextFrontier;
+    }
+
+    /**
+     * Looks for parents of unvisited vertexes with ids from ... to - 1 in the frontier.
+     */
+    private static class BottomUpTask<T> extends RecursiveTask<IdList> {
+        private static final long serialVersionUID = 1L;
+
+        private final Graph<T> graph;
+        private final AtomicLongArray parents;
+        private final long stamp;
+        private final long[] frontierBits;
+        private final int from;
+        private final int to;
+
+        private BottomUpTask(Graph<T> graph, AtomicLongArray parents, long stamp, long[] frontierBits,
+                             int from, int to) {
+            this.graph = graph;
+            this.parents = parents;
+            this.stamp = stamp;
+            this.frontierBits = frontierBits;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected IdList compute() {
+            if (to - from > TASK_SIZE * 8) {
+                int middle = (from + to) >>> 1;
+                BottomUpTask<T> left = new BottomUpTask<>(graph, parents, stamp, frontierBits, from, middle);
+                left.fork();
+                IdList right = new BottomUpTask<>(graph, parents, stamp, frontierBits, middle, to).compute();
+                return left.join().addAll(right);
+            }
+            IdList nextFrontier = new IdList(16);
+            for (int id = from; id < to; id++) {
+                if (isVisited(parents, stamp, id)) {
+                    continue;
+                }
+                AdjacencySet incoming = graph.getIncomingIds(graph.getVertexById(id));
+                for (int cursor = incoming.next(0); cursor >= 0; cursor = incoming.next(cursor + 1)) {
+                    int previous = incoming.idAt(cursor);
+                    if ((frontierBits[previous >>> 6] & (1L << previous)) != 0) {
+                        //every vertex is written by the only task owning its id
+                        parents.set(id, stamp | (previous + 1));
+                        nextFrontier.add(id);
+                        break;
+                    }
+                }
+            }
+            return nextFrontier;
+        }
+    }
+
+    /**
+     * Growable list of vertex ids.
+     */
+    private static class IdList {
+        private int[] ids;
+        private int size;
+
+        private IdList(int capacity) {
+            this.ids = new int[Math.max(1, capacity)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(int index) {
+            return ids[index];
+        }
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        IdList addAll(IdList other) {
+            if (size + other.size > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.ids, 0, ids, size, other.size);
+            size += other.size;
+            return this;
+        }
+    }
+}
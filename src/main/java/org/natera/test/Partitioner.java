@@ -0,0 +1,71 @@
+package org.natera.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Assignment of vertexes to shards of a {@link ShardedGraph}.
+ * Must be deterministic: the same value is always assigned to the same shard.
+ *
+ * @param <T>
+ */
+public interface Partitioner<T> {
+
+    /**
+     * @param value vertex value, not null
+     * @param shardCount number of shards
+     * @return shard index from 0 to shardCount - 1
+     */
+    int shardOf(T value, int shardCount);
+
+    /**
+     * @return partitioner spreading vertexes by their hash codes
+     */
+    static <T> Partitioner<T> hash() {
+        return (value, shardCount) -> {
+            int hash = value.hashCode();
+            return Math.floorMod(hash ^ (hash >>> 16), shardCount);
+        };
+    }
+
+    /**
+     * Creates partitioner of ordered values: shard i holds values below upperBounds[i] and not below
+     * upperBounds[i - 1], the last shard holds values not below the last bound.
+     *
+     * @param upperBounds ascending bounds, one less than the number of shards
+     * @return range partitioner
+     * @throws IllegalArgumentException if bounds are null or not ascending
+     */
+    static <T extends Comparable<? super T>> Partitioner<T> range(List<T> upperBounds) {
+        if (upperBounds == null) {
+            throw new IllegalArgumentException("Bounds must be not null");
+        }
+        List<T> bounds = new ArrayList<>(upperBounds);
+        for (int i = 1; i < bounds.size(); i++) {
+            if (bounds.get(i - 1).compareTo(bounds.get(i)) >= 0) {
+                throw new IllegalArgumentException("Bounds must be ascending");
+            }
+        }
+        return (value, shardCount) -> {
+            if (shardCount != bounds.size() + 1) {
+                throw new IllegalArgumentException(bounds.size() + " bounds don't split " + shardCount + " shards");
+            }
+            int index = Collections.binarySearch(bounds, value);
+            return index >= 0 ? index + 1 : -index - 1;
+        };
+    }
+
+    /**
+     * Creates partitioner which keeps neighbouring vertexes of the snapshot in one shard, see
+     * {@link GreedyPartitioner}. Vertexes not in the snapshot are assigned by {@link Partitioner#hash()}.
+     *
+     * @param snapshot graph to partition
+     * @param shardCount number of shards
+     * @return partitioner for the specified number of shards
+     * @throws IllegalArgumentException if snapshot is null or number of shards is not positive
+     */
+    static <T> Partitioner<T> greedy(GraphSnapshot<T> snapshot, int shardCount) {
+        return new GreedyPartitioner<>(snapshot, shardCount);
+    }
+}
@@ -0,0 +1,185 @@
+package org.natera.test;
+
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Path between two vertexes backed by the array of its vertexes.
+ *
+ * Path searches fill the array from the end while walking the parent chain back from the target,
+ * so no reversal is needed. Edges are created only when they are iterated, or requested by
+ * {@link Path#getEdge(int)} or {@link Path#asList()}.
+ *
+ * Immutable if the vertex values are immutable.
+ *
+ * @param <T>
+ */
+public final class Path<T> implements Iterable<Edge<T>> {
+
+    private static final Path<?> EMPTY = new Path<>(new Object[0]);
+
+    //vertexes of the path in forward order, empty array if there is no path
+    private final Object[] vertexes;
+    private List<Edge<T>> list;
+
+    /**
+     * @param vertexes vertexes in forward order, the array is not copied
+     */
+    Path(Object[] vertexes) {
+        this.vertexes = vertexes;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Path<T> empty() {
+        return (Path<T>) EMPTY;
+    }
+
+    /**
+     * @return number of edges in the path
+     */
+    public int length() {
+        return Math.max(0, vertexes.length - 1);
+    }
+
+    /**
+     * @return true if path does not exist or leads from a vertex to itself
+     */
+    public boolean isEmpty() {
+        return vertexes.length < 2;
+    }
+
+    /**
+     * @param index index of the vertex, 0 is the first vertex and {@link Path#length()} the last one
+     * @return vertex value
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public T getVertex(int index) {
+        return (T) vertexes[index];
+    }
+
+    /**
+     * @param index index of the edge from 0 to {@link Path#length()} - 1
+     * @return new edge
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    public Edge<T> getEdge(int index) {
+        if (index < 0 || index >= length()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length());
+        }
+        return new Edge<>(getVertex(index), getVertex(index + 1));
+    }
+
+    /**
+     * @return iterator of edges in forward order, every edge is created when it is reached
+     */
+    @Override
+    public Iterator<Edge<T>> iterator() {
+        return new Iterator<Edge<T>>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < length();
+            }
+
+            @Override
+            public Edge<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return getEdge(index++);
+            }
+        };
+    }
+
+    /**
+     * @return iterator of vertexes in forward order, empty if the path is empty
+     */
+    public Iterator<T> vertexIterator() {
+        return new Iterator<T>() {
+            private int index = isEmpty() ? vertexes.length : 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < vertexes.length;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return getVertex(index++);
+            }
+        };
+    }
+
+    public Stream<Edge<T>> edges() {
+        return asList().stream();
+    }
+
+    public Stream<T> vertices() {
+        Spliterator<T> spliterator = Spliterators.spliterator(vertexIterator(), isEmpty() ? 0 : vertexes.length,
+                Spliterator.ORDERED | Spliterator.IMMUTABLE);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * @return unmodifiable list view of the edges, the same instance on every call
+     */
+    public List<Edge<T>> asList() {
+        if (list == null) {
+            list = new EdgeList();
+        }
+        return list;
+    }
+
+    /**
+     * @return new modifiable list of the edges, or an immutable empty list if the path is empty
+     */
+    public List<Edge<T>> toList() {
+        if (isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Edge<T>> edges = new ArrayList<>(length());
+        for (int i = 0; i < length(); i++) {
+            edges.add(getEdge(i));
+        }
+        return edges;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Path<?> path = (Path<?>) o;
+        return isEmpty() ? path.isEmpty() : Arrays.equals(vertexes, path.vertexes);
+    }
+
+    @Override
+    public int hashCode() {
+        return isEmpty() ? 1 : Arrays.hashCode(vertexes);
+    }
+
+    @Override
+    public String toString() {
+        return "Path{" +
+                "vertexes=" + (isEmpty() ? "[]" : Arrays.toString(vertexes)) +
+                '}';
+    }
+
+    private final class EdgeList extends AbstractList<Edge<T>> implements RandomAccess {
+
+        @Override
+        public Edge<T> get(int index) {
+            return getEdge(index);
+        }
+
+        @Override
+        public int size() {
+            return length();
+        }
+    }
+}
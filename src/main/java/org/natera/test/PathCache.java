@@ -0,0 +1,179 @@
+package org.natera.test;
+
+import java.util.*;
+
+/**
+ * Size bounded LRU cache of {@link Graph#getPath(Object, Object)} results.
+ *
+ * Every entry remembers the graph version it was computed at. A change of the graph which may affect
+ * cached paths moves the invalidation version forward, entries older than it are dropped when they are read,
+ * so invalidation takes constant time regardless of the cache size.
+ *
+ * With precise invalidation the cache keeps entries which a change provably cannot affect: a new vertex
+ * changes no path, and an edge going out of a vertex without incoming edges only changes paths starting
+ * in that vertex, which are evicted one by one. Removal of a vertex or an edge invalidates all entries.
+ *
+ * Entries are keyed by the dense ids of the vertexes, so lookups hash no vertex values. Ids are reused only
+ * after a removal, which invalidates all entries.
+ *
+ * Not thread safe.
+ *
+ * @param <T>
+ */
+public class PathCache<T> {
+
+    private final int maximumSize;
+    private final boolean preciseInvalidation;
+    //keyed by id from in the high half and id to in the low half
+    private final Map<Long, CachedPath<T>> paths;
+    private long invalidatedVersion;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long invalidationCount;
+
+    PathCache(int maximumSize, boolean preciseInvalidation, long version) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.preciseInvalidation = preciseInvalidation;
+        this.invalidatedVersion = version;
+        this.paths = new LinkedHashMap<Long, CachedPath<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedPath<T>> eldest) {
+                if (size() > PathCache.this.maximumSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public boolean isPreciseInvalidation() {
+        return preciseInvalidation;
+    }
+
+    /**
+     * @return number of cached paths, including ones invalidated but not read since then
+     */
+    public int size() {
+        return paths.size();
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return number of entries removed because the cache was full
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return number of entries removed because the graph was changed
+     */
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    public void clear() {
+        paths.clear();
+    }
+
+    Path<T> get(int idFrom, int idTo) {
+        Long key = key(idFrom, idTo);
+        CachedPath<T> cachedPath = paths.get(key);
+        if (cachedPath == null) {
+            missCount++;
+            return null;
+        }
+        if (cachedPath.getVersion() < invalidatedVersion) {
+            paths.remove(key);
+            invalidationCount++;
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return cachedPath.getPath();
+    }
+
+    void put(int idFrom, int idTo, Path<T> path, long version) {
+        paths.put(key(idFrom, idTo), new CachedPath<>(path, version));
+    }
+
+    private static Long key(int idFrom, int idTo) {
+        return ((long) idFrom << 32) | (idTo & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Called after a new vertex is added.
+     *
+     * @param version graph version after the change
+     */
+    void onVertexAdded(long version) {
+        if (!preciseInvalidation) {
+            invalidatedVersion = version;
+        }
+    }
+
+    /**
+     * Called after a new directed edge is added.
+     *
+     * @param idFrom id of vertex from
+     * @param unreachableFrom whether vertex from had no incoming edges before the change
+     * @param version graph version after the change
+     */
+    void onEdgeAdded(int idFrom, boolean unreachableFrom, long version) {
+        if (!preciseInvalidation || !unreachableFrom) {
+            invalidatedVersion = version;
+            return;
+        }
+        Iterator<Long> keys = paths.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next() >>> 32 == idFrom) {
+                keys.remove();
+                invalidationCount++;
+            }
+        }
+    }
+
+    /**
+     * Called after a change which may affect any path, such as a removal.
+     *
+     * @param version graph version after the change
+     */
+    void onGraphChanged(long version) {
+        invalidatedVersion = version;
+    }
+
+    private static class CachedPath<V> {
+        private final Path<V> path;
+        private final long version;
+
+        private CachedPath(Path<V> path, long version) {
+            this.path = path;
+            this.version = version;
+        }
+
+        public Path<V> getPath() {
+            return path;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.natera.test;
+
+/**
+ * Path search algorithm behind {@link PathStrategy}.
+ * Implementations are stateless and may be shared between graphs.
+ */
+interface PathFinder {
+
+    /**
+     * Finds path between two vertexes which are known to be in the graph.
+     *
+     * @param graph graph to search
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @param context scratch space of the search, finders which don't use it may ignore it
+     * @return path. If path does not exist, empty path is returned.
+     */
+    <T> Path<T> findPath(Graph<T> graph, T vertexValueFrom, T vertexValueTo, TraversalContext context);
+}
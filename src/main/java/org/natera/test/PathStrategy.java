@@ -0,0 +1,41 @@
+package org.natera.test;
+
+/**
+ * Algorithm used by {@link Graph#getPath(Object, Object)}.
+ */
+public enum PathStrategy {
+
+    /**
+     * Depth-first search with an explicit stack which returns the first path found.
+     * The path is not necessarily the shortest one, but the search usually visits far fewer vertexes.
+     */
+    ANY(new AnyPathFinder()),
+
+    /**
+     * Single-direction breadth-first search.
+     */
+    SHORTEST(new ShortestPathFinder()),
+
+    /**
+     * Breadth-first search from both ends at once which stops as soon as the frontiers meet.
+     * Directed graphs are searched backward over incoming edges.
+     */
+    BIDIRECTIONAL(new BidirectionalPathFinder()),
+
+    /**
+     * Level synchronous breadth-first search which expands large frontiers in parallel, switching between
+     * top-down and bottom-up expansion. See {@link Graph#setParallelPool(java.util.concurrent.ForkJoinPool)}
+     * and {@link Graph#setParallelFrontierThreshold(int)}.
+     */
+    PARALLEL(new ParallelPathFinder());
+
+    private final PathFinder finder;
+
+    PathStrategy(PathFinder finder) {
+        this.finder = finder;
+    }
+
+    PathFinder getFinder() {
+        return finder;
+    }
+}
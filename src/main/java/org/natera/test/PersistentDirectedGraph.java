@@ -0,0 +1,46 @@
+package org.natera.test;
+
+/**
+ * Immutable implementation of directed graph
+ *
+ * Value of a vertex must be not null.
+ * Thread safe.
+ *
+ * @param <T>
+ */
+public class PersistentDirectedGraph<T> extends PersistentGraph<T> {
+
+    /**
+     * Creates empty graph.
+     */
+    public PersistentDirectedGraph() {
+        this(PersistentHashMap.empty(), 0);
+    }
+
+    private PersistentDirectedGraph(PersistentHashMap<T, PersistentHashSet<T>> vertexes, long arcCount) {
+        super(vertexes, arcCount);
+    }
+
+    @Override
+    public PersistentDirectedGraph<T> addVertex(T value) {
+        return (PersistentDirectedGraph<T>) super.addVertex(value);
+    }
+
+    /**
+     * Return version of the graph with a new directed edge between specified vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return new version of the graph
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    @Override
+    public PersistentDirectedGraph<T> addEdge(T vertexValueFrom, T vertexValueTo) {
+        return (PersistentDirectedGraph<T>) addPath(vertexValueFrom, vertexValueTo);
+    }
+
+    @Override
+    PersistentDirectedGraph<T> newVersion(PersistentHashMap<T, PersistentHashSet<T>> vertexes, long arcCount) {
+        return new PersistentDirectedGraph<>(vertexes, arcCount);
+    }
+}
@@ -0,0 +1,151 @@
+package org.natera.test;
+
+import java.util.*;
+
+/**
+ * Abstract implementation of immutable graph.
+ *
+ * The vertex map and the adjacency sets are hash array mapped tries, see {@link PersistentHashMap}.
+ * {@link PersistentGraph#addVertex(T)} and {@link PersistentGraph#addEdge(T, T)} never change the graph,
+ * they return a new version in O(log n) which shares all unchanged nodes with this one.
+ * Any version can be read by any number of threads without locks while newer versions are created.
+ *
+ * Value of a vertex must be not null.
+ * Thread safe.
+ *
+ * @param <T>
+ */
+public abstract class PersistentGraph<T> {
+
+    private final PersistentHashMap<T, PersistentHashSet<T>> vertexes;
+    //number of directed edges, an undirected edge is counted in both directions
+    private final long arcCount;
+
+    PersistentGraph(PersistentHashMap<T, PersistentHashSet<T>> vertexes, long arcCount) {
+        this.vertexes = vertexes;
+        this.arcCount = arcCount;
+    }
+
+    /**
+     * Return version of the graph with a new vertex.
+     * If the vertex already exists in the graph, this version is returned.
+     *
+     * @param value vertex value
+     * @return new version of the graph
+     * @throws IllegalArgumentException if value is null
+     */
+    public PersistentGraph<T> addVertex(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must be not null");
+        }
+        if (vertexes.containsKey(value)) {
+            return this;
+        }
+        return newVersion(vertexes.put(value, PersistentHashSet.empty()), arcCount);
+    }
+
+    /**
+     * Abstract method returning version of the graph with a new edge between specified vertexes.
+     * {@link PersistentGraph#addPath(T, T)} must be used for adding new directed edge.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return new version of the graph
+     */
+    public abstract PersistentGraph<T> addEdge(T vertexValueFrom, T vertexValueTo);
+
+    abstract PersistentGraph<T> newVersion(PersistentHashMap<T, PersistentHashSet<T>> vertexes, long arcCount);
+
+    /**
+     * Return version of the graph with a new directed edge between two vertexes.
+     * If the edge already exists, this version is returned.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return new version of the graph
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    protected PersistentGraph<T> addPath(T vertexValueFrom, T vertexValueTo) {
+        PersistentHashSet<T> edgesTo = getEdgesTo(vertexValueFrom);
+        getEdgesTo(vertexValueTo);
+        PersistentHashSet<T> newEdgesTo = edgesTo.add(vertexValueTo);
+        if (newEdgesTo == edgesTo) {
+            return this;
+        }
+        return newVersion(vertexes.put(vertexValueFrom, newEdgesTo), arcCount + 1);
+    }
+
+    public boolean containsVertex(T value) {
+        return value != null && vertexes.containsKey(value);
+    }
+
+    public int getVertexCount() {
+        return vertexes.size();
+    }
+
+    /**
+     * @return number of directed edges, an undirected edge is counted in both directions
+     */
+    public long getEdgeCount() {
+        return arcCount;
+    }
+
+    /**
+     * Return path between two vertexes of this version.
+     * Breadth-first search which stops as soon as the target vertex is reached.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    public List<Edge<T>> getPath(T vertexValueFrom, T vertexValueTo) {
+        getEdgesTo(vertexValueFrom);
+        getEdgesTo(vertexValueTo);
+        if (vertexValueFrom.equals(vertexValueTo)) {
+            return Collections.emptyList();
+        }
+
+        Map<T, T> parents = new HashMap<>();
+        Deque<T> queue = new ArrayDeque<>();
+        parents.put(vertexValueFrom, vertexValueFrom);
+        queue.add(vertexValueFrom);
+        while (!queue.isEmpty()) {
+            T currentVertex = queue.poll();
+            for (T nextVertex : vertexes.get(currentVertex)) {
+                if (parents.containsKey(nextVertex)) {
+                    continue;
+                }
+                parents.put(nextVertex, currentVertex);
+                if (nextVertex.equals(vertexValueTo)) {
+                    return collectPath(vertexValueFrom, vertexValueTo, parents);
+                }
+                queue.add(nextVertex);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private List<Edge<T>> collectPath(T vertexValueFrom, T vertexValueTo, Map<T, T> parents) {
+        List<Edge<T>> fullPath = new ArrayList<>();
+        T currentVertex = vertexValueTo;
+        while (!currentVertex.equals(vertexValueFrom)) {
+            T previousVertex = parents.get(currentVertex);
+            fullPath.add(new Edge<>(previousVertex, currentVertex));
+            currentVertex = previousVertex;
+        }
+        Collections.reverse(fullPath);
+        return fullPath;
+    }
+
+    private PersistentHashSet<T> getEdgesTo(T vertexValue) {
+        if (vertexValue == null) {
+            throw new IllegalArgumentException("Value is null");
+        }
+        PersistentHashSet<T> edgesTo = vertexes.get(vertexValue);
+        if (edgesTo == null) {
+            throw new IllegalArgumentException("Vertex" + vertexValue + " doesn't exist");
+        }
+        return edgesTo;
+    }
+}
@@ -0,0 +1,315 @@
+package org.natera.test;
+
+import java.util.*;
+
+/**
+ * Immutable hash array mapped trie.
+ *
+ * Every level of the trie consumes 5 bits of the hash: a node keeps a 32 bit bitmap of occupied slots
+ * and a compact array of entries and child nodes. {@link PersistentHashMap#put} copies only the nodes
+ * on the path to the changed entry, O(log32 n), all other nodes are shared with the previous version.
+ * Keys with equal hashes share a collision node.
+ *
+ * Key must be not null.
+ * Thread safe.
+ *
+ * @param <K>
+ * @param <V>
+ */
+final class PersistentHashMap<K, V> implements Iterable<Map.Entry<K, V>> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    //levels of bitmap nodes plus the collision level
+    private static final int MAX_DEPTH = 8;
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(new BitmapNode<>(0, new Object[0]), 0);
+
+    private final Node<K, V> root;
+    private final int size;
+
+    private PersistentHashMap(Node<K, V> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return value of the key or null if there is no such key
+     */
+    V get(Object key) {
+        return root.get(key, hash(key), 0);
+    }
+
+    /**
+     * @return new version of the map with the key mapped to the value, this map if the key is already
+     * mapped to the same value instance
+     */
+    PersistentHashMap<K, V> put(K key, V value) {
+        boolean[] added = new boolean[1];
+        Node<K, V> newRoot = root.put(new Leaf<>(key, value, hash(key)), 0, added);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        return new LeafIterator<>(root);
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private abstract static class Node<K, V> {
+
+        abstract V get(Object key, int hash, int shift);
+
+        /**
+         * @param added set to true if the key was not in the node
+         * @return new node or this node if nothing changed
+         */
+        abstract Node<K, V> put(Leaf<K, V> leaf, int shift, boolean[] added);
+
+        abstract Object[] getSlots();
+    }
+
+    private static final class BitmapNode<K, V> extends Node<K, V> {
+        private final int bitmap;
+        //every slot is a Leaf or a Node
+        private final Object[] slots;
+
+        private BitmapNode(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V get(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = slots[Integer.bitCount(bitmap & (bit - 1))];
+            if (slot instanceof Node) {
+                return ((Node<K, V>) slot).get(key, hash, shift + BITS);
+            }
+            Leaf<K, V> leaf = (Leaf<K, V>) slot;
+            return leaf.hash == hash && leaf.key.equals(key) ? leaf.value : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Node<K, V> put(Leaf<K, V> leaf, int shift, boolean[] added) {
+            int bit = bit(leaf.hash, shift);
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] newSlots = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, newSlots, 0, index);
+                newSlots[index] = leaf;
+                System.arraycopy(slots, index, newSlots, index + 1, slots.length - index);
+                added[0] = true;
+                return new BitmapNode<>(bitmap | bit, newSlots);
+            }
+
+            Object slot = slots[index];
+            Object newSlot;
+            if (slot instanceof Node) {
+                newSlot = ((Node<K, V>) slot).put(leaf, shift + BITS, added);
+            } else {
+                Leaf<K, V> existing = (Leaf<K, V>) slot;
+                if (existing.hash == leaf.hash && existing.key.equals(leaf.key)) {
+                    newSlot = existing.value == leaf.value ? existing : leaf;
+                } else {
+                    newSlot = merge(existing, leaf, shift + BITS);
+                    added[0] = true;
+                }
+            }
+            if (newSlot == slot) {
+                return this;
+            }
+            Object[] newSlots = slots.clone();
+            newSlots[index] = newSlot;
+            return new BitmapNode<>(bitmap, newSlots);
+        }
+
+        @Override
+        Object[] getSlots() {
+            return slots;
+        }
+    }
+
+    private static <K, V> Node<K, V> merge(Leaf<K, V> first, Leaf<K, V> second, int shift) {
+        if (first.hash == second.hash) {
+            return new CollisionNode<>(first.hash, new Object[]{first, second});
+        }
+        int firstBit = bit(first.hash, shift);
+        int secondBit = bit(second.hash, shift);
+        if (firstBit == secondBit) {
+            return new BitmapNode<>(firstBit, new Object[]{merge(first, second, shift + BITS)});
+        }
+        Object[] slots = Integer.compareUnsigned(firstBit, secondBit) < 0
+                ? new Object[]{first, second}
+                : new Object[]{second, first};
+        return new BitmapNode<>(firstBit | secondBit, slots);
+    }
+
+    /**
+     * Leaves of keys with the same hash.
+     */
+    private static final class CollisionNode<K, V> extends Node<K, V> {
+        private final int hash;
+        private final Object[] leaves;
+
+        private CollisionNode(int hash, Object[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V get(Object key, int hash, int shift) {
+            if (hash != this.hash) {
+                return null;
+            }
+            for (Object slot : leaves) {
+                Leaf<K, V> leaf = (Leaf<K, V>) slot;
+                if (leaf.key.equals(key)) {
+                    return leaf.value;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Node<K, V> put(Leaf<K, V> leaf, int shift, boolean[] added) {
+            if (leaf.hash != hash) {
+                //the hashes differ in a part above the current level
+                return new BitmapNode<K, V>(bit(hash, shift), new Object[]{this}).put(leaf, shift, added);
+            }
+            for (int i = 0; i < leaves.length; i++) {
+                Leaf<K, V> existing = (Leaf<K, V>) leaves[i];
+                if (existing.key.equals(leaf.key)) {
+                    if (existing.value == leaf.value) {
+                        return this;
+                    }
+                    Object[] newLeaves = leaves.clone();
+                    newLeaves[i] = leaf;
+                    return new CollisionNode<>(hash, newLeaves);
+                }
+            }
+            Object[] newLeaves = Arrays.copyOf(leaves, leaves.length + 1);
+            newLeaves[leaves.length] = leaf;
+            added[0] = true;
+            return new CollisionNode<>(hash, newLeaves);
+        }
+
+        @Override
+        Object[] getSlots() {
+            return leaves;
+        }
+    }
+
+    private static final class Leaf<K, V> implements Map.Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final int hash;
+
+        private Leaf(K key, V value, int hash) {
+            this.key = key;
+            this.value = value;
+            this.hash = hash;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            throw new UnsupportedOperationException("Map is immutable");
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Depth first walk over the slots of the trie.
+     */
+    private static final class LeafIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final Object[][] stack = new Object[MAX_DEPTH][];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth;
+        private Leaf<K, V> next;
+
+        private LeafIterator(Node<K, V> root) {
+            stack[0] = root.getSlots();
+            advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                if (positions[depth] == stack[depth].length) {
+                    depth--;
+                    continue;
+                }
+                Object slot = stack[depth][positions[depth]++];
+                if (slot instanceof Node) {
+                    depth++;
+                    stack[depth] = ((Node<K, V>) slot).getSlots();
+                    positions[depth] = 0;
+                } else {
+                    next = (Leaf<K, V>) slot;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Leaf<K, V> current = next;
+            advance();
+            return current;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.natera.test;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Immutable set on top of {@link PersistentHashMap}, {@link PersistentHashSet#add} shares all nodes
+ * except the path to the new element with the previous version.
+ *
+ * Element must be not null.
+ * Thread safe.
+ *
+ * @param <E>
+ */
+final class PersistentHashSet<E> implements Iterable<E> {
+
+    private static final PersistentHashSet<?> EMPTY = new PersistentHashSet<>(PersistentHashMap.empty());
+
+    private final PersistentHashMap<E, Boolean> elements;
+
+    private PersistentHashSet(PersistentHashMap<E, Boolean> elements) {
+        this.elements = elements;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> PersistentHashSet<E> empty() {
+        return (PersistentHashSet<E>) EMPTY;
+    }
+
+    int size() {
+        return elements.size();
+    }
+
+    boolean contains(Object element) {
+        return elements.containsKey(element);
+    }
+
+    /**
+     * @return new version of the set with the element, this set if it already contains the element
+     */
+    PersistentHashSet<E> add(E element) {
+        PersistentHashMap<E, Boolean> newElements = elements.put(element, Boolean.TRUE);
+        return newElements == elements ? this : new PersistentHashSet<>(newElements);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<Map.Entry<E, Boolean>> entries = elements.iterator();
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return entries.next().getKey();
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package org.natera.test;
+
+/**
+ * Immutable implementation of undirected graph
+ *
+ * Value of a vertex must be not null.
+ * Thread safe.
+ *
+ * @param <T>
+ */
+public class PersistentUndirectedGraph<T> extends PersistentGraph<T> {
+
+    /**
+     * Creates empty graph.
+     */
+    public PersistentUndirectedGraph() {
+        this(PersistentHashMap.empty(), 0);
+    }
+
+    private PersistentUndirectedGraph(PersistentHashMap<T, PersistentHashSet<T>> vertexes, long arcCount) {
+        super(vertexes, arcCount);
+    }
+
+    @Override
+    public PersistentUndirectedGraph<T> addVertex(T value) {
+        return (PersistentUndirectedGraph<T>) super.addVertex(value);
+    }
+
+    /**
+     * Return version of the graph with a new undirected edge between specified vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return new version of the graph
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    @Override
+    public PersistentUndirectedGraph<T> addEdge(T vertexValueFrom, T vertexValueTo) {
+        return (PersistentUndirectedGraph<T>) addPath(vertexValueFrom, vertexValueTo)
+                .addPath(vertexValueTo, vertexValueFrom);
+    }
+
+    @Override
+    PersistentUndirectedGraph<T> newVersion(PersistentHashMap<T, PersistentHashSet<T>> vertexes, long arcCount) {
+        return new PersistentUndirectedGraph<>(vertexes, arcCount);
+    }
+}
@@ -0,0 +1,36 @@
+package org.natera.test;
+
+/**
+ * Index answering whether one vertex of a graph is reachable from another one without a path search.
+ * Vertexes are identified by their dense ids.
+ *
+ * Not thread safe.
+ */
+interface ReachabilityIndex {
+
+    /**
+     * @return whether the index reflects all changes of the graph
+     */
+    boolean isCurrent();
+
+    /**
+     * Builds the index from the current state of the graph.
+     */
+    void rebuild();
+
+    /**
+     * @param from id of vertex from
+     * @param to id of vertex to
+     * @return whether there is a path from vertex from to vertex to, the index must be current
+     */
+    boolean isReachable(int from, int to);
+
+    void onVertexAdded(int id);
+
+    void onEdgeAdded(int from, int to);
+
+    /**
+     * Called after a vertex or an edge is removed, the index is not current until it is rebuilt.
+     */
+    void invalidate();
+}
@@ -0,0 +1,63 @@
+package org.natera.test;
+
+/**
+ * Single-direction breadth-first search from the target vertex over incoming edges, see
+ * {@link Graph#getIncomingIds(Graph.Vertex)}, which stops as soon as the source vertex is reached.
+ * The graph must keep the index of incoming edges.
+ * Search state lives in the {@link TraversalContext}.
+ */
+class ReversePathFinder implements PathFinder {
+
+    @Override
+    public <T> Path<T> findPath(Graph<T> graph, T vertexValueFrom, T vertexValueTo,
+                                      TraversalContext context) {
+        int source = graph.getVertex(vertexValueFrom).getId();
+        int target = graph.getVertex(vertexValueTo).getId();
+        context.begin(graph.getVertexIdBound());
+        int[] queue = context.getQueue(TraversalContext.BACKWARD);
+        int head = 0;
+        int tail = 0;
+        context.visit(TraversalContext.BACKWARD, target, -1, 0);
+        queue[tail++] = target;
+
+        int levelStart = 0;
+        long levelEdges = 0;
+        while (head < tail) {
+            int current = queue[head++];
+            int nextDepth = context.getDepth(TraversalContext.BACKWARD, current) + 1;
+            if (head > 1 && nextDepth != context.getDepth(TraversalContext.BACKWARD, queue[head - 2]) + 1) {
+                context.addLevel(head - 1 - levelStart, levelEdges);
+                levelStart = head - 1;
+                levelEdges = 0;
+            }
+            AdjacencySet incoming = graph.getIncomingIds(graph.getVertexById(current));
+            levelEdges += incoming.size();
+            for (int cursor = incoming.next(0); cursor >= 0; cursor = incoming.next(cursor + 1)) {
+                int previous = incoming.idAt(cursor);
+                if (context.isVisited(TraversalContext.BACKWARD, previous)) {
+                    continue;
+                }
+                context.visit(TraversalContext.BACKWARD, previous, current, nextDepth);
+                if (previous == source) {
+                    context.addLevel(head - levelStart, levelEdges);
+                    return collectPath(graph, context, source, nextDepth);
+                }
+                queue[tail++] = previous;
+            }
+        }
+        context.addLevel(head - levelStart, levelEdges);
+        return Path.empty();
+    }
+
+    /**
+     * Collects path from the source, parents of the backward search point toward the target.
+     */
+    private <T> Path<T> collectPath(Graph<T> graph, TraversalContext context, int source, int length) {
+        Object[] vertexes = new Object[length + 1];
+        for (int current = source, index = 0; index <= length; index++) {
+            vertexes[index] = graph.getVertexById(current).getValue();
+            current = context.getParent(TraversalContext.BACKWARD, current);
+        }
+        return new Path<>(vertexes);
+    }
+}
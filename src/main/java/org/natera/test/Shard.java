@@ -0,0 +1,72 @@
+package org.natera.test;
+
+import java.util.List;
+
+/**
+ * Part of a {@link ShardedGraph} holding the vertexes assigned to it and the edges going out of them.
+ * Edges may lead to vertexes of other shards.
+ *
+ * A search is driven by the coordinator level by level: {@link Shard#expand} takes the vertexes of the shard
+ * reached by other shards and returns the vertexes of other shards reached by this one. The shard keeps
+ * visited vertexes and their parents until {@link Shard#finishSearch(long)}.
+ *
+ * @param <T>
+ */
+public interface Shard<T> {
+
+    /**
+     * @param value vertex value
+     * @return true if the vertex was added, false if it already exists
+     */
+    boolean addVertex(T value);
+
+    boolean containsVertex(T value);
+
+    /**
+     * Adds directed edge going out of a vertex of the shard.
+     *
+     * @param vertexValueFrom vertex of the shard
+     * @param vertexValueTo vertex of any shard
+     * @return true if the edge was added, false if it already exists
+     * @throws IllegalArgumentException if vertex from is not in the shard
+     */
+    boolean addArc(T vertexValueFrom, T vertexValueTo);
+
+    int getVertexCount();
+
+    /**
+     * @return number of directed edges going out of the vertexes of the shard
+     */
+    long getArcCount();
+
+    /**
+     * Expands one level of a search.
+     * Vertexes of the batch which are not visited yet are visited and join the vertexes the shard visited itself
+     * on the previous call. The shard expands all of them and visits their not visited neighbours: its own ones
+     * are kept for the next call, others are returned. The expansion stops once the target is visited.
+     *
+     * @param search search id, a new id starts a new search
+     * @param vertexValueTo target of the search
+     * @param batch vertexes of the shard reached by other shards
+     * @return vertexes of other shards reached by the shard
+     */
+    FrontierBatch<T> expand(long search, T vertexValueTo, FrontierBatch<T> batch);
+
+    /**
+     * Follows visited parents from the vertex while they are in the shard.
+     *
+     * @param search search id
+     * @param vertexValue visited vertex of the shard
+     * @return the vertex and its ancestors, ending with the start of the search or the first ancestor
+     * in another shard
+     * @throws IllegalArgumentException if the vertex was not visited by the search
+     */
+    List<T> tracePath(long search, T vertexValue);
+
+    /**
+     * Drops state of the search.
+     *
+     * @param search search id
+     */
+    void finishSearch(long search);
+}
@@ -0,0 +1,27 @@
+package org.natera.test;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Access to the shards of a {@link ShardedGraph}.
+ * Transports which talk to other processes report communication failures as {@link java.io.UncheckedIOException}.
+ *
+ * @param <T>
+ */
+public interface ShardTransport<T> extends Closeable {
+
+    int getShardCount();
+
+    /**
+     * @param index shard index from 0 to {@link ShardTransport#getShardCount()} - 1
+     * @return shard
+     */
+    Shard<T> getShard(int index);
+
+    /**
+     * Releases connections of the transport, the shards are not accessible after that.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,33 @@
+package org.natera.test;
+
+/**
+ * Implementation of directed graph partitioned across shards, see {@link ShardedGraph}.
+ *
+ * Value of a vertex must be not null.
+ * Not thread safe.
+ *
+ * @param <T>
+ */
+public class ShardedDirectedGraph<T> extends ShardedGraph<T> {
+
+    /**
+     * @param transport access to the shards
+     * @param partitioner assignment of vertexes to the shards
+     * @throws IllegalArgumentException if transport or partitioner is null
+     */
+    public ShardedDirectedGraph(ShardTransport<T> transport, Partitioner<T> partitioner) {
+        super(transport, partitioner);
+    }
+
+    /**
+     * Adds new directed edge between specified vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    @Override
+    public void addEdge(T vertexValueFrom, T vertexValueTo) {
+        addPath(vertexValueFrom, vertexValueTo);
+    }
+}
@@ -0,0 +1,212 @@
+package org.natera.test;
+
+import java.util.*;
+
+/**
+ * Abstract implementation of graph partitioned across shards.
+ *
+ * Every vertex lives in the shard chosen by the {@link Partitioner}, together with the edges going out of it.
+ * Shards are reached through a {@link ShardTransport}, in the same process or over the network.
+ *
+ * {@link ShardedGraph#getPath(T, T)} is a level synchronous breadth-first search driven by this coordinator.
+ * On every level each shard with a frontier expands it in one call: neighbours in the same shard are visited
+ * locally, neighbours in other shards are returned to the coordinator, which delivers them to their shards
+ * in one batch per shard with the next level. The path is traced back shard by shard, one call per run of
+ * consecutive vertexes of one shard.
+ *
+ * Value of a vertex must be not null.
+ * Not thread safe.
+ *
+ * @param <T>
+ */
+public abstract class ShardedGraph<T> {
+
+    private final ShardTransport<T> transport;
+    private final Partitioner<T> partitioner;
+    private long nextSearch;
+
+    /**
+     * @param transport access to the shards
+     * @param partitioner assignment of vertexes to the shards
+     * @throws IllegalArgumentException if transport or partitioner is null
+     */
+    protected ShardedGraph(ShardTransport<T> transport, Partitioner<T> partitioner) {
+        if (transport == null || partitioner == null) {
+            throw new IllegalArgumentException("Transport and partitioner must be not null");
+        }
+        this.transport = transport;
+        this.partitioner = partitioner;
+    }
+
+    public int getShardCount() {
+        return transport.getShardCount();
+    }
+
+    /**
+     * @param value vertex value
+     * @return index of the shard the vertex belongs to
+     * @throws IllegalArgumentException if value is null
+     */
+    public int getShardOf(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value is null");
+        }
+        int shard = partitioner.shardOf(value, transport.getShardCount());
+        if (shard < 0 || shard >= transport.getShardCount()) {
+            throw new IllegalStateException("Partitioner returned shard " + shard + " for " + value);
+        }
+        return shard;
+    }
+
+    /**
+     * Add new vertex to graph.
+     * If the vertex already exists in the graph, nothing happens.
+     *
+     * @param value vertex value
+     * @throws IllegalArgumentException if value is null
+     */
+    public void addVertex(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must be not null");
+        }
+        shardOf(value).addVertex(value);
+    }
+
+    /**
+     * Abstract method for adding new edge between specified vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     */
+    public abstract void addEdge(T vertexValueFrom, T vertexValueTo);
+
+    public boolean containsVertex(T value) {
+        return value != null && shardOf(value).containsVertex(value);
+    }
+
+    public int getVertexCount() {
+        int count = 0;
+        for (int i = 0; i < transport.getShardCount(); i++) {
+            count += transport.getShard(i).getVertexCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return number of directed edges, an undirected edge is counted in both directions
+     */
+    public long getEdgeCount() {
+        long count = 0;
+        for (int i = 0; i < transport.getShardCount(); i++) {
+            count += transport.getShard(i).getArcCount();
+        }
+        return count;
+    }
+
+    /**
+     * Return shortest path between two vertexes, see {@link ShardedGraph}.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return list of edges. If path does not exist or vertexes are equal, empty list is returned.
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    public List<Edge<T>> getPath(T vertexValueFrom, T vertexValueTo) {
+        requireVertex(vertexValueFrom);
+        requireVertex(vertexValueTo);
+        if (vertexValueFrom.equals(vertexValueTo)) {
+            return Collections.emptyList();
+        }
+
+        long search = nextSearch++;
+        int shardCount = transport.getShardCount();
+        try {
+            List<List<T>> vertexes = newBatches(shardCount);
+            List<List<T>> parents = newBatches(shardCount);
+            int[] localFrontierSizes = new int[shardCount];
+            vertexes.get(getShardOf(vertexValueFrom)).add(vertexValueFrom);
+            parents.get(getShardOf(vertexValueFrom)).add(vertexValueFrom);
+            while (true) {
+                List<List<T>> nextVertexes = newBatches(shardCount);
+                List<List<T>> nextParents = newBatches(shardCount);
+                boolean expanded = false;
+                for (int shard = 0; shard < shardCount; shard++) {
+                    if (vertexes.get(shard).isEmpty() && localFrontierSizes[shard] == 0) {
+                        continue;
+                    }
+                    expanded = true;
+                    FrontierBatch<T> batch = new FrontierBatch<>(vertexes.get(shard), parents.get(shard), false, 0);
+                    FrontierBatch<T> reached = transport.getShard(shard).expand(search, vertexValueTo, batch);
+                    if (reached.isTargetReached()) {
+                        return tracePath(search, vertexValueFrom, vertexValueTo);
+                    }
+                    localFrontierSizes[shard] = reached.getLocalFrontierSize();
+                    for (int i = 0; i < reached.size(); i++) {
+                        T vertex = reached.getVertexes().get(i);
+                        int owner = getShardOf(vertex);
+                        nextVertexes.get(owner).add(vertex);
+                        nextParents.get(owner).add(reached.getParents().get(i));
+                    }
+                }
+                if (!expanded) {
+                    return Collections.emptyList();
+                }
+                vertexes = nextVertexes;
+                parents = nextParents;
+            }
+        } finally {
+            for (int shard = 0; shard < shardCount; shard++) {
+                transport.getShard(shard).finishSearch(search);
+            }
+        }
+    }
+
+    private List<Edge<T>> tracePath(long search, T vertexValueFrom, T vertexValueTo) {
+        //vertexes from the target back to the source
+        List<T> chain = new ArrayList<>();
+        chain.add(vertexValueTo);
+        while (!chain.get(chain.size() - 1).equals(vertexValueFrom)) {
+            T last = chain.get(chain.size() - 1);
+            List<T> ancestors = shardOf(last).tracePath(search, last);
+            chain.addAll(ancestors.subList(1, ancestors.size()));
+        }
+        Object[] path = new Object[chain.size()];
+        for (int i = 0; i < path.length; i++) {
+            path[i] = chain.get(path.length - 1 - i);
+        }
+        return new Path<T>(path).toList();
+    }
+
+    private static <T> List<List<T>> newBatches(int shardCount) {
+        List<List<T>> batches = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            batches.add(new ArrayList<>());
+        }
+        return batches;
+    }
+
+    /**
+     * Adds directed edge to the shard of vertex from.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    protected void addPath(T vertexValueFrom, T vertexValueTo) {
+        requireVertex(vertexValueTo);
+        shardOf(vertexValueFrom).addArc(vertexValueFrom, vertexValueTo);
+    }
+
+    private void requireVertex(T vertexValue) {
+        if (vertexValue == null) {
+            throw new IllegalArgumentException("Value is null");
+        }
+        if (!shardOf(vertexValue).containsVertex(vertexValue)) {
+            throw new IllegalArgumentException("Vertex" + vertexValue + " doesn't exist");
+        }
+    }
+
+    private Shard<T> shardOf(T value) {
+        return transport.getShard(getShardOf(value));
+    }
+}
@@ -0,0 +1,35 @@
+package org.natera.test;
+
+/**
+ * Implementation of undirected graph partitioned across shards, see {@link ShardedGraph}.
+ * An edge between vertexes of different shards is kept by both shards.
+ *
+ * Value of a vertex must be not null.
+ * Not thread safe.
+ *
+ * @param <T>
+ */
+public class ShardedUndirectedGraph<T> extends ShardedGraph<T> {
+
+    /**
+     * @param transport access to the shards
+     * @param partitioner assignment of vertexes to the shards
+     * @throws IllegalArgumentException if transport or partitioner is null
+     */
+    public ShardedUndirectedGraph(ShardTransport<T> transport, Partitioner<T> partitioner) {
+        super(transport, partitioner);
+    }
+
+    /**
+     * Adds new undirected edge between specified vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    @Override
+    public void addEdge(T vertexValueFrom, T vertexValueTo) {
+        addPath(vertexValueFrom, vertexValueTo);
+        addPath(vertexValueTo, vertexValueFrom);
+    }
+}
@@ -0,0 +1,58 @@
+package org.natera.test;
+
+/**
+ * Single-direction breadth-first search which stops as soon as the target vertex is reached.
+ * Search state lives in the {@link TraversalContext}.
+ */
+class ShortestPathFinder implements PathFinder {
+
+    @Override
+    public <T> Path<T> findPath(Graph<T> graph, T vertexValueFrom, T vertexValueTo,
+                                      TraversalContext context) {
+        int source = graph.getVertex(vertexValueFrom).getId();
+        int target = graph.getVertex(vertexValueTo).getId();
+        context.begin(graph.getVertexIdBound());
+        int[] queue = context.getQueue(TraversalContext.FORWARD);
+        int head = 0;
+        int tail = 0;
+        context.visit(TraversalContext.FORWARD, source, -1, 0);
+        queue[tail++] = source;
+
+        int levelStart = 0;
+        long levelEdges = 0;
+        while (head < tail) {
+            int current = queue[head++];
+            int nextDepth = context.getDepth(TraversalContext.FORWARD, current) + 1;
+            if (head > 1 && nextDepth != context.getDepth(TraversalContext.FORWARD, queue[head - 2]) + 1) {
+                context.addLevel(head - 1 - levelStart, levelEdges);
+                levelStart = head - 1;
+                levelEdges = 0;
+            }
+            AdjacencySet edgesTo = graph.getVertexById(current).getEdgesToIds();
+            levelEdges += edgesTo.size();
+            for (int cursor = edgesTo.next(0); cursor >= 0; cursor = edgesTo.next(cursor + 1)) {
+                int next = edgesTo.idAt(cursor);
+                if (context.isVisited(TraversalContext.FORWARD, next)) {
+                    continue;
+                }
+                context.visit(TraversalContext.FORWARD, next, current, nextDepth);
+                if (next == target) {
+                    context.addLevel(head - levelStart, levelEdges);
+                    return collectPath(graph, context, target, nextDepth);
+                }
+                queue[tail++] = next;
+            }
+        }
+        context.addLevel(head - levelStart, levelEdges);
+        return Path.empty();
+    }
+
+    private <T> Path<T> collectPath(Graph<T> graph, TraversalContext context, int target, int length) {
+        Object[] vertexes = new Object[length + 1];
+        for (int current = target, index = length; index >= 0; index--) {
+            vertexes[index] = graph.getVertexById(current).getValue();
+            current = context.getParent(TraversalContext.FORWARD, current);
+        }
+        return new Path<>(vertexes);
+    }
+}
@@ -0,0 +1,177 @@
+package org.natera.test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Reusable scratch space of path searches over vertex ids.
+ *
+ * A search keeps the visited flag, the parent and the depth of a vertex for the forward
+ * and the backward direction, and a queue per direction. Visited flags are stamped with the number
+ * of the current search, so starting a new search is O(1) and steady-state searches allocate nothing
+ * but the returned path. Arrays grow to the largest graph searched with the context.
+ *
+ * Searches also leave their statistics in the context, see {@link GraphMetrics#recordTraversal}.
+ *
+ * {@link Graph#getPath(Object, Object)} uses a context per thread, a context can also be passed
+ * to {@link Graph#getPath(Object, Object, TraversalContext)} explicitly.
+ * Not thread safe: a context must be used by one search at a time.
+ */
+public final class TraversalContext {
+
+    static final int FORWARD = 0;
+    static final int BACKWARD = 1;
+
+    private static final ThreadLocal<TraversalContext> CURRENT = ThreadLocal.withInitial(TraversalContext::new);
+
+    private int epoch;
+    private final int[][] marks = new int[2][0];
+    private final int[][] parents = new int[2][0];
+    private final int[][] depths = new int[2][0];
+    private final int[][] queues = new int[2][0];
+    private double[] distances = new double[0];
+    private IndexedDoubleHeap heap;
+    //null until the first parallel search and after every reset of the search number
+    private AtomicLongArray sharedParents;
+    //statistics of searches since clearTraversal
+    private boolean searched;
+    private long expandedVertexes;
+    private long scannedEdges;
+    private int levels;
+    private int maxFrontier;
+
+    /**
+     * @return context of the current thread
+     */
+    static TraversalContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Starts a new search, all vertexes become not visited.
+     *
+     * @param vertexCount upper bound (exclusive) of vertex ids
+     */
+    void begin(int vertexCount) {
+        if (marks[FORWARD].length < vertexCount) {
+            int capacity = Math.max(vertexCount, marks[FORWARD].length * 2);
+            for (int side = FORWARD; side <= BACKWARD; side++) {
+                marks[side] = new int[capacity];
+                parents[side] = new int[capacity];
+                depths[side] = new int[capacity];
+                queues[side] = new int[capacity];
+            }
+            epoch = 0;
+            sharedParents = null;
+        }
+        if (++epoch == 0) {
+            Arrays.fill(marks[FORWARD], 0);
+            Arrays.fill(marks[BACKWARD], 0);
+            sharedParents = null;
+            epoch = 1;
+        }
+    }
+
+    /**
+     * @return number of the current search, positive
+     */
+    int getEpoch() {
+        return epoch;
+    }
+
+    boolean isVisited(int side, int id) {
+        return marks[side][id] == epoch;
+    }
+
+    /**
+     * @param side {@link TraversalContext#FORWARD} or {@link TraversalContext#BACKWARD}
+     * @param id visited vertex
+     * @param parent vertex it was reached from, -1 for the start of the search
+     * @param depth distance to the start of the search
+     */
+    void visit(int side, int id, int parent, int depth) {
+        marks[side][id] = epoch;
+        parents[side][id] = parent;
+        depths[side][id] = depth;
+    }
+
+    int getParent(int side, int id) {
+        return parents[side][id];
+    }
+
+    int getDepth(int side, int id) {
+        return depths[side][id];
+    }
+
+    /**
+     * @return queue of vertex ids with room for every vertex, its content is not reset
+     */
+    int[] getQueue(int side) {
+        return queues[side];
+    }
+
+    /**
+     * @return distance per vertex id with room for every vertex of the current search, its content is not reset,
+     * so only distances of visited vertexes are valid
+     */
+    double[] getDistances() {
+        if (distances.length < marks[FORWARD].length) {
+            distances = new double[marks[FORWARD].length];
+        }
+        return distances;
+    }
+
+    /**
+     * @return empty priority queue with room for every vertex of the current search
+     */
+    IndexedDoubleHeap getHeap() {
+        if (heap == null || heap.capacity() < marks[FORWARD].length) {
+            heap = new IndexedDoubleHeap(marks[FORWARD].length);
+        } else {
+            heap.clear();
+        }
+        return heap;
+    }
+
+    /**
+     * @return parent array for searches whose threads visit vertexes concurrently, with room for every vertex
+     * of the current search. Entries written by earlier searches hold their own number in the high half.
+     */
+    AtomicLongArray getSharedParents() {
+        if (sharedParents == null || sharedParents.length() < marks[FORWARD].length) {
+            sharedParents = new AtomicLongArray(marks[FORWARD].length);
+        }
+        return sharedParents;
+    }
+
+    void clearTraversal() {
+        searched = false;
+        expandedVertexes = 0;
+        scannedEdges = 0;
+        levels = 0;
+        maxFrontier = 0;
+    }
+
+    /**
+     * Adds statistics of an expanded frontier level.
+     *
+     * @param frontierSize number of vertexes in the level
+     * @param scannedEdges number of edges scanned by the level
+     */
+    void addLevel(int frontierSize, long scannedEdges) {
+        searched = true;
+        this.expandedVertexes += frontierSize;
+        this.scannedEdges += scannedEdges;
+        this.levels++;
+        this.maxFrontier = Math.max(this.maxFrontier, frontierSize);
+    }
+
+    /**
+     * Passes statistics of levels added since {@link TraversalContext#clearTraversal()} to the metrics.
+     */
+    void reportTraversal(GraphMetrics metrics) {
+        if (searched) {
+            metrics.recordTraversal(expandedVertexes, scannedEdges, levels, maxFrontier);
+        }
+    }
+}
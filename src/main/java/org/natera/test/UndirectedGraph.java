@@ -19,7 +19,46 @@ public class UndirectedGraph<T> extends Graph<T> {
      */
     @Override
     public void addEdge(T vertexValueFrom, T vertexValueTo) {
+        long start = startOperation();
         addPath(vertexValueFrom, vertexValueTo);
         addPath(vertexValueTo, vertexValueFrom);
+        finishOperation(GraphMetrics.Operation.ADD_EDGE, start);
+    }
+
+    /**
+     * Adds new weighted undirected edge between specified vertexes.
+     * If the edge already exists, its weight is replaced.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @param weight not negative weight of the edge
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph, or weight is negative
+     */
+    @Override
+    public void addEdge(T vertexValueFrom, T vertexValueTo, double weight) {
+        long start = startOperation();
+        addPath(vertexValueFrom, vertexValueTo, weight);
+        addPath(vertexValueTo, vertexValueFrom, weight);
+        finishOperation(GraphMetrics.Operation.ADD_EDGE, start);
+    }
+
+    /**
+     * Removes undirected edge, both directions at once between specified vertexes.
+     *
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @return true if the edge existed
+     * @throws IllegalArgumentException if from or to vertex is null or not in the graph
+     */
+    @Override
+    public boolean removeEdge(T vertexValueFrom, T vertexValueTo) {
+        boolean removed = removePath(vertexValueFrom, vertexValueTo);
+        removePath(vertexValueTo, vertexValueFrom);
+        return removed;
+    }
+
+    @Override
+    protected boolean isDirected() {
+        return false;
     }
 }
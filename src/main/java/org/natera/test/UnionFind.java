@@ -0,0 +1,103 @@
+package org.natera.test;
+
+import java.util.Arrays;
+
+/**
+ * Connected components of an undirected graph, maintained incrementally by union-find
+ * with union by rank and path halving. New vertexes and edges keep the index current,
+ * a removal makes it stale until it is rebuilt.
+ *
+ * Not thread safe.
+ */
+final class UnionFind implements ReachabilityIndex {
+
+    private final Graph<?> graph;
+    private int[] parents = new int[16];
+    private byte[] ranks = new byte[16];
+    private boolean current = true;
+
+    UnionFind(Graph<?> graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public boolean isCurrent() {
+        return current;
+    }
+
+    @Override
+    public void rebuild() {
+        int vertexCount = graph.getVertexIdBound();
+        parents = new int[Math.max(16, vertexCount)];
+        ranks = new byte[parents.length];
+        for (int id = 0; id < vertexCount; id++) {
+            parents[id] = id;
+        }
+        rebuildEdges(graph);
+        current = true;
+    }
+
+    private <T> void rebuildEdges(Graph<T> graph) {
+        for (int id = 0; id < graph.getVertexIdBound(); id++) {
+            AdjacencySet edgesTo = graph.getVertexById(id).getEdgesToIds();
+            for (int cursor = edgesTo.next(0); cursor >= 0; cursor = edgesTo.next(cursor + 1)) {
+                union(id, edgesTo.idAt(cursor));
+            }
+        }
+    }
+
+    @Override
+    public boolean isReachable(int from, int to) {
+        return find(from) == find(to);
+    }
+
+    @Override
+    public void onVertexAdded(int id) {
+        if (!current) {
+            return;
+        }
+        if (id >= parents.length) {
+            parents = Arrays.copyOf(parents, Math.max(id + 1, parents.length * 2));
+            ranks = Arrays.copyOf(ranks, parents.length);
+        }
+        parents[id] = id;
+        ranks[id] = 0;
+    }
+
+    @Override
+    public void onEdgeAdded(int from, int to) {
+        if (current) {
+            union(from, to);
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        current = false;
+    }
+
+    private int find(int id) {
+        int current = id;
+        while (parents[current] != current) {
+            parents[current] = parents[parents[current]];
+            current = parents[current];
+        }
+        return current;
+    }
+
+    private void union(int first, int second) {
+        int firstRoot = find(first);
+        int secondRoot = find(second);
+        if (firstRoot == secondRoot) {
+            return;
+        }
+        if (ranks[firstRoot] < ranks[secondRoot]) {
+            parents[firstRoot] = secondRoot;
+        } else if (ranks[firstRoot] > ranks[secondRoot]) {
+            parents[secondRoot] = firstRoot;
+        } else {
+            parents[secondRoot] = firstRoot;
+            ranks[firstRoot]++;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.natera.test;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Versions of changes of a concurrent graph.
+ *
+ * Every change takes the next version in {@link VersionClock#begin()} and publishes it with
+ * {@link VersionClock#commit(long)}. Changes may finish in any order, the committed version only moves
+ * over a contiguous run of finished versions. Readers see data stamped with versions up to the committed one,
+ * so all writes of one change become visible at once.
+ *
+ * Thread safe.
+ */
+final class VersionClock {
+
+    //max number of changes in flight, power of two
+    private static final int WINDOW = 1024;
+
+    private final AtomicLong lastStarted = new AtomicLong();
+    private final AtomicLong lastCommitted = new AtomicLong();
+    private final AtomicLongArray finished = new AtomicLongArray(WINDOW);
+
+    long begin() {
+        long version = lastStarted.incrementAndGet();
+        while (version - lastCommitted.get() > WINDOW) {
+            Thread.yield();
+        }
+        return version;
+    }
+
+    void commit(long version) {
+        finished.set(slot(version), version);
+        long committed = lastCommitted.get();
+        while (finished.get(slot(committed + 1)) == committed + 1) {
+            lastCommitted.compareAndSet(committed, committed + 1);
+            committed = lastCommitted.get();
+        }
+    }
+
+    /**
+     * @return the latest version whose changes and all changes before it are finished
+     */
+    long visible() {
+        return lastCommitted.get();
+    }
+
+    private static int slot(long version) {
+        return (int) (version & (WINDOW - 1));
+    }
+}
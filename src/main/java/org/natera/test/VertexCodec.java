@@ -0,0 +1,59 @@
+package org.natera.test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary encoding of vertex values for graph files.
+ * Equal values must have equal encodings, vertexes are looked up in the file by their encoded bytes.
+ *
+ * @param <T>
+ */
+public interface VertexCodec<T> {
+
+    byte[] encode(T value);
+
+    T decode(byte[] bytes);
+
+    static VertexCodec<Integer> integers() {
+        return new VertexCodec<Integer>() {
+            @Override
+            public byte[] encode(Integer value) {
+                return ByteBuffer.allocate(Integer.BYTES).putInt(value).array();
+            }
+
+            @Override
+            public Integer decode(byte[] bytes) {
+                return ByteBuffer.wrap(bytes).getInt();
+            }
+        };
+    }
+
+    static VertexCodec<Long> longs() {
+        return new VertexCodec<Long>() {
+            @Override
+            public byte[] encode(Long value) {
+                return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+            }
+
+            @Override
+            public Long decode(byte[] bytes) {
+                return ByteBuffer.wrap(bytes).getLong();
+            }
+        };
+    }
+
+    static VertexCodec<String> strings() {
+        return new VertexCodec<String>() {
+            @Override
+            public byte[] encode(String value) {
+                return value.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+}
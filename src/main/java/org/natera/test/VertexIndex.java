@@ -0,0 +1,204 @@
+package org.natera.test;
+
+import java.util.*;
+
+/**
+ * Map from vertex values to vertexes of a {@link Graph}, open addressing with linear probing.
+ *
+ * Values are hashed and compared by the {@link KeyEncoding} of the graph. Every vertex caches the hash of its
+ * value, so probing calls equals only for matching hashes and resizing never hashes values again.
+ * The map is read only outside of the graph.
+ *
+ * Not thread safe.
+ *
+ * @param <T>
+ */
+final class VertexIndex<T> extends AbstractMap<T, Graph.Vertex<T>> {
+
+    private KeyEncoding<T> encoding;
+    private Graph.Vertex<T>[] table;
+    private int size;
+    private Set<Entry<T, Graph.Vertex<T>>> entrySet;
+
+    VertexIndex(KeyEncoding<T> encoding) {
+        this.encoding = encoding;
+        this.table = newTable(16);
+    }
+
+    KeyEncoding<T> getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Replaces the encoding of the empty map.
+     */
+    void setEncoding(KeyEncoding<T> encoding) {
+        this.encoding = encoding;
+    }
+
+    int hash(T value) {
+        return encoding.hash(value);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Graph.Vertex<T> get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        T value = (T) key;
+        return get(value, encoding.hash(value));
+    }
+
+    /**
+     * @param value vertex value
+     * @param hash hash of the value by the encoding
+     * @return vertex or null if the value is absent
+     */
+    Graph.Vertex<T> get(T value, int hash) {
+        int mask = table.length - 1;
+        for (int slot = slot(hash, mask); table[slot] != null; slot = (slot + 1) & mask) {
+            Graph.Vertex<T> vertex = table[slot];
+            if (vertex.getKeyHash() == hash && encoding.equals(vertex.getValue(), value)) {
+                return vertex;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds vertex whose value is known to be absent, the hash of the value must be already cached by the vertex.
+     */
+    void add(Graph.Vertex<T> vertex) {
+        insert(table, vertex);
+        if (++size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Graph.Vertex<T> remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+        T value = (T) key;
+        int hash = encoding.hash(value);
+        int mask = table.length - 1;
+        int hole = slot(hash, mask);
+        while (table[hole] != null
+                && !(table[hole].getKeyHash() == hash && encoding.equals(table[hole].getValue(), value))) {
+            hole = (hole + 1) & mask;
+        }
+        Graph.Vertex<T> vertex = table[hole];
+        if (vertex == null) {
+            return null;
+        }
+        table[hole] = null;
+        size--;
+        //shift back vertexes of the probe sequence, so lookups don't stop at the hole
+        for (int slot = (hole + 1) & mask; table[slot] != null; slot = (slot + 1) & mask) {
+            int home = slot(table[slot].getKeyHash(), mask);
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                table[hole] = table[slot];
+                table[slot] = null;
+                hole = slot;
+            }
+        }
+        return vertex;
+    }
+
+    /**
+     * Prepares the map for the specified number of vertexes, so adding them does not resize it.
+     */
+    void ensureCapacity(int expectedSize) {
+        int capacity = table.length;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        if (capacity > table.length) {
+            rehash(capacity);
+        }
+    }
+
+    @Override
+    public Set<Entry<T, Graph.Vertex<T>>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<T, Graph.Vertex<T>>>() {
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public Iterator<Entry<T, Graph.Vertex<T>>> iterator() {
+                    return new Iterator<Entry<T, Graph.Vertex<T>>>() {
+                        private int slot = nextSlot(0);
+
+                        @Override
+                        public boolean hasNext() {
+                            return slot < table.length;
+                        }
+
+                        @Override
+                        public Entry<T, Graph.Vertex<T>> next() {
+                            if (slot >= table.length) {
+                                throw new NoSuchElementException();
+                            }
+                            Graph.Vertex<T> vertex = table[slot];
+                            slot = nextSlot(slot + 1);
+                            return new SimpleImmutableEntry<>(vertex.getValue(), vertex);
+                        }
+                    };
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private int nextSlot(int from) {
+        int slot = from;
+        while (slot < table.length && table[slot] == null) {
+            slot++;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        Graph.Vertex<T>[] oldTable = table;
+        table = newTable(capacity);
+        for (Graph.Vertex<T> vertex : oldTable) {
+            if (vertex != null) {
+                insert(table, vertex);
+            }
+        }
+    }
+
+    private static <T> void insert(Graph.Vertex<T>[] table, Graph.Vertex<T> vertex) {
+        int mask = table.length - 1;
+        int slot = slot(vertex.getKeyHash(), mask);
+        while (table[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = vertex;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Graph.Vertex<T>[] newTable(int capacity) {
+        return (Graph.Vertex<T>[]) new Graph.Vertex<?>[capacity];
+    }
+
+    private static int slot(int hash, int mask) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
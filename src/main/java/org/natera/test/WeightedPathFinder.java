@@ -0,0 +1,73 @@
+package org.natera.test;
+
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Dijkstra and A* search over edge weights.
+ * Distances, parents and the priority queue are primitive arrays indexed by vertex id,
+ * taken from the {@link TraversalContext}.
+ */
+class WeightedPathFinder {
+
+    /**
+     * Finds path with the lowest total weight between two vertexes which are known to be in the graph.
+     *
+     * @param graph graph to search
+     * @param vertexValueFrom vertex from
+     * @param vertexValueTo vertex to
+     * @param heuristic lower bound of the remaining weight from a vertex to the target, null for Dijkstra
+     * @param context scratch space of the search
+     * @return path. If path does not exist, empty path is returned.
+     */
+    <T> Path<T> findPath(Graph<T> graph, T vertexValueFrom, T vertexValueTo,
+                               ToDoubleBiFunction<T, T> heuristic, TraversalContext context) {
+        int source = graph.getVertex(vertexValueFrom).getId();
+        int target = graph.getVertex(vertexValueTo).getId();
+
+        //distances are valid for visited vertexes only, the others are infinitely far
+        context.begin(graph.getVertexIdBound());
+        double[] distances = context.getDistances();
+        IndexedDoubleHeap queue = context.getHeap();
+
+        context.visit(TraversalContext.FORWARD, source, source, 0);
+        distances[source] = 0;
+        queue.insertOrDecrease(source, estimate(heuristic, vertexValueFrom, vertexValueTo));
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            if (current == target) {
+                return collectPath(graph, source, target, context);
+            }
+            Graph.Vertex<T> currentVertex = graph.getVertexById(current);
+            AdjacencySet edgesTo = currentVertex.getEdgesToIds();
+            for (int cursor = edgesTo.next(0); cursor >= 0; cursor = edgesTo.next(cursor + 1)) {
+                int next = edgesTo.idAt(cursor);
+                double distance = distances[current] + currentVertex.getWeight(next);
+                if (!context.isVisited(TraversalContext.FORWARD, next) || distance < distances[next]) {
+                    context.visit(TraversalContext.FORWARD, next, current, 0);
+                    distances[next] = distance;
+                    //with an inconsistent heuristic a vertex may be polled again after a shorter path is found
+                    queue.insertOrDecrease(next,
+                            distance + estimate(heuristic, graph.getVertexById(next).getValue(), vertexValueTo));
+                }
+            }
+        }
+        return Path.empty();
+    }
+
+    private <T> double estimate(ToDoubleBiFunction<T, T> heuristic, T vertexValue, T vertexValueTo) {
+        return heuristic == null ? 0 : heuristic.applyAsDouble(vertexValue, vertexValueTo);
+    }
+
+    private <T> Path<T> collectPath(Graph<T> graph, int source, int target, TraversalContext context) {
+        int length = 0;
+        for (int current = target; current != source; current = context.getParent(TraversalContext.FORWARD, current)) {
+            length++;
+        }
+        Object[] vertexes = new Object[length + 1];
+        for (int current = target, index = length; index >= 0;
+             current = context.getParent(TraversalContext.FORWARD, current), index--) {
+            vertexes[index] = graph.getVertexById(current).getValue();
+        }
+        return new Path<>(vertexes);
+    }
+}
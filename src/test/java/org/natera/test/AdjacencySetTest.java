@@ -0,0 +1,114 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class AdjacencySetTest {
+
+    @Test
+    public void testAddRemove_matchesHashSet() {
+        //sparse ids keep the set hashed, dense ids turn it into a bitmap
+        for (int idBound : new int[]{20, 200, 100_000, 1_000}) {
+            Random random = new Random(idBound);
+            AdjacencySet set = new AdjacencySet();
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < 3000; i++) {
+                int id = random.nextInt(idBound);
+                if (random.nextInt(4) == 0) {
+                    assertThat(set.remove(id), is(expected.remove(id)));
+                } else {
+                    assertThat(set.add(id), is(expected.add(id)));
+                }
+                assertThat(set.size(), is(expected.size()));
+            }
+            for (int id = 0; id < Math.min(idBound, 5000); id++) {
+                assertThat(set.contains(id), is(expected.contains(id)));
+            }
+            assertThat(collect(set), is(expected));
+        }
+    }
+
+    @Test
+    public void testIteration_ascendingBelowHashedLimit() {
+        AdjacencySet set = new AdjacencySet();
+        for (int id = AdjacencySet.SORTED_LIMIT; id > 0; id--) {
+            set.add(id * 3);
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (int cursor = set.next(0); cursor >= 0; cursor = set.next(cursor + 1)) {
+            ids.add(set.idAt(cursor));
+        }
+        List<Integer> sorted = new ArrayList<>(ids);
+        Collections.sort(sorted);
+
+        assertThat(ids.size(), is(AdjacencySet.SORTED_LIMIT));
+        assertThat(ids, is(sorted));
+    }
+
+    @Test
+    public void testBitmap_denseIds() {
+        AdjacencySet set = new AdjacencySet();
+        for (int id = 0; id < 1000; id++) {
+            set.add(id);
+        }
+        set.remove(500);
+        set.add(60_000);
+
+        List<Integer> ids = new ArrayList<>();
+        for (int cursor = set.next(0); cursor >= 0; cursor = set.next(cursor + 1)) {
+            ids.add(set.idAt(cursor));
+        }
+        assertThat(set.size(), is(1000));
+        assertThat(ids.size(), is(1000));
+        assertThat(ids.get(499), is(499));
+        assertThat(ids.get(500), is(501));
+        assertThat(ids.get(999), is(60_000));
+        assertThat(set.contains(500), is(false));
+        assertThat(set.contains(1_000_000), is(false));
+    }
+
+    @Test
+    public void testBitmap_farIdTurnsIntoTable() {
+        AdjacencySet set = new AdjacencySet();
+        for (int id = 0; id < 1000; id++) {
+            set.add(id);
+        }
+        set.add(100_000_000);
+
+        //cursors of a bitmap are ids, a table keeps them below its capacity
+        int maxCursor = -1;
+        for (int cursor = set.next(0); cursor >= 0; cursor = set.next(cursor + 1)) {
+            maxCursor = cursor;
+        }
+        assertThat(maxCursor < 100_000, is(true));
+        assertThat(set.size(), is(1001));
+        assertThat(set.contains(100_000_000), is(true));
+        assertThat(set.contains(999), is(true));
+        assertThat(set.add(999), is(false));
+        assertThat(collect(set).size(), is(1001));
+    }
+
+    @Test
+    public void testEnsureCapacity() {
+        AdjacencySet set = new AdjacencySet();
+        set.ensureCapacity(1000);
+        for (int id = 0; id < 1000; id += 7) {
+            set.add(id);
+        }
+        assertThat(set.size(), is(143));
+        assertThat(set.contains(994), is(true));
+        assertThat(set.contains(995), is(false));
+    }
+
+    private static Set<Integer> collect(AdjacencySet set) {
+        Set<Integer> ids = new HashSet<>();
+        for (int cursor = set.next(0); cursor >= 0; cursor = set.next(cursor + 1)) {
+            ids.add(set.idAt(cursor));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,102 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.natera.test.TestUtils.edge;
+
+class ConcurrentGraphTest {
+
+    @Test
+    public void testAllMethods_nullSafe() {
+        ConcurrentGraph<Integer> graph = new ConcurrentDirectedGraph<>();
+        graph.addVertex(1);
+        assertThrows(IllegalArgumentException.class, () -> graph.addVertex(null));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(1, null));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(1, 2));
+        assertThrows(IllegalArgumentException.class, () -> graph.getPath(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> graph.getPath(1, 2));
+    }
+
+    @Test
+    public void testGetPath_directed() {
+        ConcurrentGraph<Integer> graph = new ConcurrentDirectedGraph<>();
+        for (int i = 1; i <= 5; i++) {
+            graph.addVertex(i);
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+        graph.addEdge(1, 5);
+        graph.addEdge(5, 4);
+
+        assertThat(graph.getPath(1, 4), contains(edge(1, 5), edge(5, 4)));
+        assertThat(graph.getPath(4, 1), empty());
+        assertThat(graph.getPath(1, 1), empty());
+    }
+
+    @Test
+    public void testGetPath_undirected() {
+        ConcurrentGraph<Integer> graph = new ConcurrentUndirectedGraph<>();
+        for (int i = 1; i <= 4; i++) {
+            graph.addVertex(i);
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+
+        assertThat(graph.getPath(3, 1), contains(edge(3, 2), edge(2, 1)));
+        assertThat(graph.getPath(1, 4), empty());
+    }
+
+    @Test
+    public void testConcurrentWritesAndReads() throws Exception {
+        int size = 2000;
+        ConcurrentGraph<Integer> graph = new ConcurrentUndirectedGraph<>();
+        for (int i = 0; i < size; i++) {
+            graph.addVertex(i);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            Future<?> reader = executor.submit(() -> {
+                while (writing.get()) {
+                    List<Edge<Integer>> path = graph.getPath(0, size - 1);
+                    List<Edge<Integer>> reversePath = graph.getPath(size - 1, 0);
+                    //edges are only added, so a path found once must exist later in both directions
+                    if (!path.isEmpty() && reversePath.size() != path.size()) {
+                        throw new AssertionError("Undirected edge is visible in one direction only");
+                    }
+                }
+            });
+            List<Future<?>> writers = new ArrayList<>();
+            for (int writer = 0; writer < 3; writer++) {
+                int first = writer;
+                writers.add(executor.submit(() -> {
+                    for (int i = first; i < size - 1; i += 3) {
+                        graph.addEdge(i, i + 1);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(graph.getPath(0, size - 1).size(), is(size - 1));
+        assertThat(graph.getPath(size - 1, 0).size(), is(size - 1));
+    }
+}
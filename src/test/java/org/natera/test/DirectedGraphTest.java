@@ -3,6 +3,7 @@ package org.natera.test;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -10,6 +11,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.natera.test.TestUtils.edge;
@@ -455,6 +457,281 @@ class DirectedGraphTest {
         assertThat(reversePath, contains(edge(4, 6), edge(6, 1)));
     }
 
+    @Test
+    public void testGetPath_sameVertex() throws Exception {
+        Graph<Integer> graph = getGraph();
+        graph.addVertex(1);
+        graph.addVertex(2);
+        graph.addEdge(1, 2);
+
+        assertThat(graph.getPath(1, 1), empty());
+    }
+
+    @Test
+    public void testGetPath_strategies() throws Exception {
+        Graph<Integer> graph = getGraph();
+        for (int i = 1; i <= 6; i++) {
+            graph.addVertex(i);
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+        graph.addEdge(4, 5);
+        graph.addEdge(1, 6);
+        graph.addEdge(6, 5);
+
+        for (PathStrategy strategy : PathStrategy.values()) {
+            graph.setPathStrategy(strategy);
+            assertThat(graph.getPathStrategy(), is(strategy));
+            assertThat(graph.getPath(1, 5), contains(edge(1, 6), edge(6, 5)));
+            assertThat(graph.getPath(2, 4), contains(edge(2, 3), edge(3, 4)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> graph.setPathStrategy(null));
+    }
+
+    @Test
+    public void testGetPath_anyLongChain() throws Exception {
+        Graph<Integer> graph = getGraph();
+        int size = 200_000;
+        for (int i = 1; i <= size; i++) {
+            graph.addVertex(i);
+            if (i > 1) {
+                graph.addEdge(i - 1, i);
+            }
+        }
+        graph.addEdge(1, size / 2);
+        graph.setPathStrategy(PathStrategy.ANY);
+
+        List<Edge<Integer>> path = graph.getPath(2, size);
+        assertThat(path.size(), is(size - 2));
+        assertThat(path.get(0), is(edge(2, 3)));
+        assertThat(graph.getPath(size, 1), empty());
+    }
+
+    @Test
+    public void testGetPath_reusedContext() throws Exception {
+        TraversalContext context = new TraversalContext();
+        Graph<Integer> small = getGraph();
+        small.addVertex(1);
+        small.addVertex(2);
+        small.addEdge(1, 2);
+        Graph<Integer> large = getGraph();
+        for (int i = 1; i <= 100; i++) {
+            large.addVertex(i);
+            if (i > 1) {
+                large.addEdge(i - 1, i);
+            }
+        }
+
+        for (PathStrategy strategy : PathStrategy.values()) {
+            small.setPathStrategy(strategy);
+            large.setPathStrategy(strategy);
+            assertThat(small.getPath(1, 2, context), contains(edge(1, 2)));
+            assertThat(large.getPath(1, 100, context).size(), is(99));
+            assertThat(large.getPath(100, 1, context), empty());
+            assertThat(small.getPath(1, 2, context), contains(edge(1, 2)));
+        }
+        assertThat(large.freeze().getPath(98, 100, context), contains(edge(98, 99), edge(99, 100)));
+        assertThrows(IllegalArgumentException.class, () -> small.getPath(1, 2, null));
+    }
+
+    @Test
+    public void testGetPaths_oneSource() throws Exception {
+        Graph<Integer> graph = getGraph();
+        for (int i = 1; i <= 5; i++) {
+            graph.addVertex(i);
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(1, 4);
+
+        Map<Integer, List<Edge<Integer>>> paths = graph.getPaths(1, Arrays.asList(3, 4, 5, 1));
+        assertThat(paths.keySet(), contains(3, 4, 5, 1));
+        assertThat(paths.get(3), contains(edge(1, 2), edge(2, 3)));
+        assertThat(paths.get(4), contains(edge(1, 4)));
+        assertThat(paths.get(5), empty());
+        assertThat(paths.get(1), empty());
+        assertThrows(IllegalArgumentException.class, () -> graph.getPaths(1, Arrays.asList(2, 6)));
+    }
+
+    @Test
+    public void testGetPaths_pairs() throws Exception {
+        Graph<Integer> graph = getGraph();
+        for (int i = 1; i <= 4; i++) {
+            graph.addVertex(i);
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(4, 3);
+
+        Map<Edge<Integer>, List<Edge<Integer>>> paths = graph.getPaths(
+                Arrays.asList(edge(1, 3), edge(4, 3), edge(1, 2), edge(3, 1)));
+        assertThat(paths.size(), is(4));
+        assertThat(paths.get(edge(1, 3)), contains(edge(1, 2), edge(2, 3)));
+        assertThat(paths.get(edge(4, 3)), contains(edge(4, 3)));
+        assertThat(paths.get(edge(1, 2)), contains(edge(1, 2)));
+        assertThat(paths.get(edge(3, 1)), empty());
+        assertThrows(IllegalArgumentException.class, () -> graph.getPaths(Arrays.asList(edge(1, 5))));
+    }
+
+    @Test
+    public void testIsConnected() throws Exception {
+        Graph<Integer> graph = getGraph();
+        for (int i = 1; i <= 5; i++) {
+            graph.addVertex(i);
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 1);
+        graph.addEdge(3, 4);
+
+        assertThat(graph.isConnected(1, 4), is(true));
+        assertThat(graph.isConnected(3, 2), is(true));
+        assertThat(graph.isConnected(4, 1), is(false));
+        assertThat(graph.isConnected(1, 5), is(false));
+        assertThat(graph.isConnected(5, 5), is(true));
+        assertThat(graph.getPath(4, 1), empty());
+
+        graph.addVertex(6);
+        assertThat(graph.isConnected(6, 1), is(false));
+        assertThat(graph.getPath(1, 6), empty());
+        graph.addEdge(4, 6);
+        graph.addEdge(6, 2);
+        assertThat(graph.isConnected(4, 1), is(true));
+        assertThat(graph.getPath(4, 1), contains(edge(4, 6), edge(6, 2), edge(2, 3), edge(3, 1)));
+        assertThrows(IllegalArgumentException.class, () -> graph.isConnected(1, 7));
+    }
+
+    @Test
+    public void testRemoveEdge() throws Exception {
+        Graph<Integer> graph = getGraph();
+        for (int i = 1; i <= 3; i++) {
+            graph.addVertex(i);
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(1, 3, 5.0);
+        assertThat(graph.getPath(1, 3), contains(edge(1, 3)));
+
+        assertThat(graph.removeEdge(1, 3), is(true));
+        assertThat(graph.removeEdge(1, 3), is(false));
+        assertThat(graph.removeEdge(3, 2), is(false));
+        assertThat(graph.getPath(1, 3), contains(edge(1, 2), edge(2, 3)));
+        assertThat(graph.getVertex(3).getEdgesFrom(), contains(2));
+        graph.addEdge(1, 3);
+        assertThat(graph.getEdgeWeight(1, 3), is(Graph.DEFAULT_WEIGHT));
+        assertThrows(IllegalArgumentException.class, () -> graph.removeEdge(1, 4));
+    }
+
+    @Test
+    public void testRemoveVertex() throws Exception {
+        Graph<Integer> graph = getGraph();
+        for (int i = 1; i <= 4; i++) {
+            graph.addVertex(i);
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 2);
+        graph.addEdge(2, 2);
+        graph.addEdge(3, 4);
+        graph.addEdge(1, 4);
+        graph.enablePathCache(10);
+        assertThat(graph.getPath(1, 3), contains(edge(1, 2), edge(2, 3)));
+        assertThat(graph.isConnected(1, 3), is(true));
+
+        assertThat(graph.removeVertex(2), is(true));
+        assertThat(graph.removeVertex(2), is(false));
+        Map<Integer, Graph.Vertex<Integer>> vertexesMap = getVertexesMap(graph);
+        assertThat(vertexesMap.size(), is(3));
+        assertThat(vertexesMap.get(1).getEdgesTo(), contains(4));
+        assertThat(vertexesMap.get(3).getEdgesFrom(), empty());
+        assertThat(graph.getArcCount(), is(2L));
+        assertThat(graph.getVertexIdBound(), is(3));
+        assertThat(graph.getVertexById(1).getValue(), is(4));
+        assertThat(graph.getPath(1, 3), empty());
+        assertThat(graph.isConnected(1, 3), is(false));
+        assertThat(graph.snapshot().getPath(3, 4), contains(edge(3, 4)));
+
+        graph.addVertex(2);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        assertThat(graph.getPath(1, 3), contains(edge(1, 2), edge(2, 3)));
+        assertThrows(IllegalArgumentException.class, () -> graph.removeVertex(null));
+    }
+
+    @Test
+    public void testPredecessors() throws Exception {
+        for (Graph<Integer> graph : Arrays.<Graph<Integer>>asList(getGraph(), new DirectedGraph<>(false))) {
+            for (int i = 1; i <= 4; i++) {
+                graph.addVertex(i);
+            }
+            graph.addEdge(1, 3);
+            graph.addEdge(2, 3);
+            graph.addEdge(3, 3);
+            graph.addEdge(3, 4);
+
+            assertThat(graph.getPredecessors(3), containsInAnyOrder(1, 2, 3));
+            assertThat(graph.getPredecessors(1), empty());
+            assertThat(graph.getInDegree(3), is(3));
+            assertThat(graph.getInDegree(4), is(1));
+            assertThat(graph.getOutDegree(3), is(2));
+            assertThat(graph.getOutDegree(4), is(0));
+            assertThrows(IllegalArgumentException.class, () -> graph.getPredecessors(5));
+            assertThrows(IllegalArgumentException.class, () -> graph.getInDegree(null));
+        }
+    }
+
+    @Test
+    public void testGetPathReverse() throws Exception {
+        for (Graph<Integer> graph : Arrays.<Graph<Integer>>asList(getGraph(), new DirectedGraph<>(false))) {
+            for (int i = 1; i <= 5; i++) {
+                graph.addVertex(i);
+            }
+            graph.addEdge(1, 2);
+            graph.addEdge(2, 3);
+            graph.addEdge(3, 4);
+            graph.addEdge(2, 4);
+            graph.addEdge(4, 1);
+
+            assertThat(graph.getPathReverse(1, 4), contains(edge(1, 2), edge(2, 4)));
+            assertThat(graph.getPathReverse(3, 2), contains(edge(3, 4), edge(4, 1), edge(1, 2)));
+            assertThat(graph.getPathReverse(1, 5), empty());
+            assertThat(graph.getPathReverse(2, 2), empty());
+            graph.addEdge(4, 5);
+            assertThat(graph.getPathReverse(1, 5), contains(edge(1, 2), edge(2, 4), edge(4, 5)));
+            graph.freeze();
+            assertThat(graph.getPathReverse(1, 3), contains(edge(1, 2), edge(2, 3)));
+            assertThrows(IllegalArgumentException.class, () -> graph.getPathReverse(1, 6));
+        }
+    }
+
+    @Test
+    public void testRemoveVertex_notIndexed() throws Exception {
+        Graph<Integer> graph = new DirectedGraph<>(false);
+        for (int i = 1; i <= 4; i++) {
+            graph.addVertex(i);
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 2);
+        graph.addEdge(4, 4);
+        graph.addEdge(4, 1);
+        graph.addEdge(3, 4);
+        for (PathStrategy strategy : PathStrategy.values()) {
+            graph.setPathStrategy(strategy);
+            assertThat(graph.getPath(3, 2), contains(edge(3, 2)));
+            assertThat(graph.getPath(1, 4), contains(edge(1, 2), edge(2, 3), edge(3, 4)));
+        }
+
+        assertThat(graph.removeVertex(2), is(true));
+        assertThat(graph.getArcCount(), is(3L));
+        assertThat(graph.getVertexById(1).getValue(), is(4));
+        assertThat(graph.getVertex(4).getEdgesTo(), containsInAnyOrder(1, 4));
+        assertThat(graph.getPredecessors(4), containsInAnyOrder(3, 4));
+        assertThat(graph.getPath(3, 1), contains(edge(3, 4), edge(4, 1)));
+        assertThat(graph.getPath(1, 3), empty());
+    }
+
     private Graph<Integer> getGraph() {
         return new DirectedGraph<>();
     }
@@ -0,0 +1,103 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.natera.test.TestUtils.edge;
+
+class DistanceMatrixTest {
+
+    @Test
+    public void testChain() {
+        Graph<Integer> graph = new DirectedGraph<>();
+        for (int i = 1; i <= 5; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 1; i < 5; i++) {
+            graph.addEdge(i, i + 1);
+        }
+        DistanceTree<Integer> tree = graph.distancesFrom(2);
+        DistanceMatrix<Integer> matrix = graph.allPairsDistances();
+
+        assertThat(tree.getSource(), is(2));
+        assertThat(tree.getReachableCount(), is(4));
+        assertThat(tree.getDistance(5), is(3));
+        assertThat(tree.getDistance(1), is(DistanceTree.UNREACHABLE));
+        assertThat(tree.getPath(4), contains(edge(2, 3), edge(3, 4)));
+        assertThat(tree.getPath(2), empty());
+        assertThat(tree.getPath(1), empty());
+        assertThat(matrix.getVertexCount(), is(5));
+        assertThat(matrix.getDistance(1, 5), is(4));
+        assertThat(matrix.getDistance(3, 3), is(0));
+        assertThat(matrix.getDistance(5, 1), is(DistanceMatrix.UNREACHABLE));
+        assertThat(matrix.getPath(1, 4), contains(edge(1, 2), edge(2, 3), edge(3, 4)));
+        assertThat(matrix.getPath(4, 1), empty());
+        assertThrows(IllegalArgumentException.class, () -> graph.distancesFrom(6));
+        assertThrows(IllegalArgumentException.class, () -> matrix.getDistance(1, 6));
+    }
+
+    @Test
+    public void testEmptyGraph() {
+        DistanceMatrix<Integer> matrix = new UndirectedGraph<Integer>().allPairsDistances();
+
+        assertThat(matrix.getVertexCount(), is(0));
+    }
+
+    @Test
+    public void testRandomGraph_directed() {
+        checkRandomGraph(new DirectedGraph<>());
+    }
+
+    @Test
+    public void testRandomGraph_undirected() {
+        checkRandomGraph(new UndirectedGraph<>());
+    }
+
+    private void checkRandomGraph(Graph<Integer> graph) {
+        Random random = new Random(5);
+        //more than two batches of sources
+        int vertexCount = 150;
+        for (int i = 0; i < vertexCount; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 300; i++) {
+            graph.addEdge(random.nextInt(vertexCount), random.nextInt(vertexCount));
+        }
+        GraphSnapshot<Integer> snapshot = graph.snapshot();
+        DistanceMatrix<Integer> matrix = snapshot.allPairsDistances(new ForkJoinPool(3));
+
+        for (int from = 0; from < vertexCount; from++) {
+            DistanceTree<Integer> tree = graph.distancesFrom(from);
+            for (int to = 0; to < vertexCount; to++) {
+                List<Edge<Integer>> shortest = snapshot.getPath(from, to);
+                int expected = from == to ? 0 : shortest.isEmpty() ? DistanceMatrix.UNREACHABLE : shortest.size();
+                assertThat(matrix.getDistance(from, to), is(expected));
+                assertThat(tree.getDistance(to), is(expected));
+                assertThat(matrix.getPath(from, to).size(), is(shortest.size()));
+                checkPath(graph, from, to, matrix.getPath(from, to));
+                checkPath(graph, from, to, tree.getPath(to));
+            }
+        }
+    }
+
+    private void checkPath(Graph<Integer> graph, int from, int to, List<Edge<Integer>> path) {
+        if (path.isEmpty()) {
+            return;
+        }
+        int current = from;
+        for (Edge<Integer> edge : path) {
+            assertThat(edge.getVertexFrom(), is(current));
+            assertThat(graph.getVertex(current).getEdgesTo().contains(edge.getVertexTo()), is(true));
+            current = edge.getVertexTo();
+        }
+        assertThat(current, is(to));
+    }
+}
@@ -0,0 +1,148 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.natera.test.TestUtils.edge;
+
+class DurableGraphTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testReopen_directed() throws Exception {
+        try (DurableGraph<Integer> durable = open(new DirectedGraph<>())) {
+            for (int i = 1; i <= 5; i++) {
+                durable.addVertex(i);
+            }
+            durable.addEdge(1, 2);
+            durable.addEdge(2, 3);
+            durable.addEdge(3, 4);
+            durable.addEdge(1, 4);
+            assertThat(durable.removeEdge(1, 4), is(true));
+            assertThat(durable.removeEdge(1, 4), is(false));
+            assertThat(durable.removeVertex(5), is(true));
+            assertThat(durable.removeVertex(5), is(false));
+            assertThrows(IllegalArgumentException.class, () -> durable.addEdge(1, 6));
+            assertThrows(IllegalArgumentException.class, () -> durable.addVertex(null));
+            durable.sync();
+        }
+
+        try (DurableGraph<Integer> durable = open(new DirectedGraph<>())) {
+            Graph<Integer> graph = durable.getGraph();
+            assertThat(graph.getVertexes().size(), is(4));
+            assertThat(graph.getArcCount(), is(3L));
+            assertThat(graph.getPath(1, 4), contains(edge(1, 2), edge(2, 3), edge(3, 4)));
+            assertThat(graph.getPath(4, 1), empty());
+        }
+        assertThrows(IllegalArgumentException.class, () -> DurableGraph.open(directory, graph(), VertexCodec.integers()));
+    }
+
+    @Test
+    public void testCompaction_replaysTail() throws Exception {
+        Graph<Integer> expected = new UndirectedGraph<>();
+        Random random = new Random(5);
+        try (DurableGraph<Integer> durable = open(new UndirectedGraph<>()).setCompactionThreshold(512)) {
+            for (int i = 0; i < 50; i++) {
+                durable.addVertex(i);
+                expected.addVertex(i);
+            }
+            for (int i = 0; i < 200; i++) {
+                int from = random.nextInt(50);
+                int to = random.nextInt(50);
+                if (random.nextInt(4) == 0) {
+                    durable.removeEdge(from, to);
+                    expected.removeEdge(from, to);
+                } else {
+                    durable.addEdge(from, to);
+                    expected.addEdge(from, to);
+                }
+            }
+            durable.removeVertex(7);
+            expected.removeVertex(7);
+            durable.compact();
+            durable.addEdge(1, 2);
+            expected.addEdge(1, 2);
+        }
+        try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+            assertThat(files.filter(file -> file.toString().endsWith(".graph")).count(), is(1L));
+        }
+
+        try (DurableGraph<Integer> durable = open(new UndirectedGraph<>())) {
+            checkSameGraph(expected, durable.getGraph());
+        }
+        assertThrows(IOException.class, () -> open(new DirectedGraph<>()));
+    }
+
+    @Test
+    public void testRecovery_tornTail() throws Exception {
+        try (DurableGraph<Integer> durable = open(new DirectedGraph<>())) {
+            durable.addVertex(1);
+            durable.addVertex(2);
+            durable.addEdge(1, 2);
+        }
+        Path log = directory.resolve("log-0.wal");
+        long size = Files.size(log);
+        //a record cut in the middle of the write
+        Files.write(log, new byte[]{0, 0, 0, 20, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (DurableGraph<Integer> durable = open(new DirectedGraph<>())) {
+            assertThat(Files.size(log), is(size));
+            assertThat(durable.getGraph().getPath(1, 2), contains(edge(1, 2)));
+            durable.addVertex(3);
+            durable.addEdge(2, 3);
+        }
+        //a record with a broken checksum
+        byte[] bytes = Files.readAllBytes(log);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(log, bytes);
+
+        try (DurableGraph<Integer> durable = open(new DirectedGraph<>())) {
+            assertThat(durable.getGraph().getVertexes().size(), is(3));
+            assertThat(durable.getGraph().getPath(1, 3), empty());
+        }
+    }
+
+    @Test
+    public void testClosed() throws Exception {
+        DurableGraph<Integer> durable = open(new DirectedGraph<>()).setSyncInterval(1000);
+        durable.addVertex(1);
+        durable.sync();
+        durable.close();
+        durable.close();
+        assertThrows(IllegalStateException.class, () -> durable.addVertex(2));
+        assertThrows(IllegalArgumentException.class, () -> durable.setSyncInterval(0));
+    }
+
+    private DurableGraph<Integer> open(Graph<Integer> graph) throws IOException {
+        return DurableGraph.open(directory, graph, VertexCodec.integers());
+    }
+
+    private static Graph<Integer> graph() {
+        Graph<Integer> graph = new DirectedGraph<>();
+        graph.addVertex(1);
+        return graph;
+    }
+
+    private void checkSameGraph(Graph<Integer> expected, Graph<Integer> graph) {
+        assertThat(graph.getVertexes().keySet(), is(expected.getVertexes().keySet()));
+        assertThat(graph.getArcCount(), is(expected.getArcCount()));
+        for (Integer from : expected.getVertexes().keySet()) {
+            for (Integer to : expected.getVertex(from).getEdgesTo()) {
+                assertThat(graph.getVertex(from).getEdgesTo().contains(to), is(true));
+            }
+        }
+    }
+}
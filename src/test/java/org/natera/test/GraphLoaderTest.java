@@ -0,0 +1,81 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.natera.test.TestUtils.edge;
+import static org.natera.test.TestUtils.getVertexesMap;
+
+class GraphLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testLoad_iterator() throws Exception {
+        Graph<Integer> graph = new DirectedGraph<>();
+        graph.addVertex(1);
+        new GraphLoader<>(graph).setExpectedVertexes(3)
+                .load(Arrays.asList(edge(1, 2), edge(2, 3), edge(1, 2)).iterator());
+
+        Map<Integer, Graph.Vertex<Integer>> vertexesMap = getVertexesMap(graph);
+        assertThat(vertexesMap.size(), is(3));
+        assertThat(vertexesMap.get(1).getEdgesTo(), contains(2));
+        assertThat(graph.getPath(1, 3), contains(edge(1, 2), edge(2, 3)));
+        assertThat(graph.getPath(3, 1), empty());
+    }
+
+    @Test
+    public void testLoad_stream() {
+        Graph<Integer> graph = new UndirectedGraph<>();
+        new GraphLoader<>(graph).load(IntStream.range(0, 100).parallel().mapToObj(i -> edge(i, i + 1)));
+
+        assertThat(graph.getPath(100, 0).size(), is(100));
+        assertThrows(IllegalArgumentException.class,
+                () -> new GraphLoader<>(graph).load(Arrays.asList(edge(1, null)).iterator()));
+    }
+
+    @Test
+    public void testLoadEdgeList() throws Exception {
+        Path file = directory.resolve("edges.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("# chain with a weighted shortcut\n\n");
+            for (int i = 0; i < 20000; i++) {
+                writer.write(i + "," + (i + 1) + "\n");
+            }
+            writer.write("0\t20000  2.5\n");
+        }
+        Graph<Integer> graph = new DirectedGraph<>();
+        new GraphLoader<>(graph).setParallelism(3).loadEdgeList(file, Integer::valueOf);
+
+        assertThat(getVertexesMap(graph).size(), is(20001));
+        assertThat(getVertexesMap(graph).get(0).getEdgesTo(), containsInAnyOrder(1, 20000));
+        assertThat(getVertexesMap(graph).get(20000).getEdgesFrom(), containsInAnyOrder(19999, 0));
+        assertThat(graph.getPath(0, 20000), contains(edge(0, 20000)));
+        assertThat(graph.getEdgeWeight(0, 20000), is(2.5));
+        assertThat(graph.getPath(5, 9).size(), is(4));
+    }
+
+    @Test
+    public void testLoadEdgeList_invalidLine() throws Exception {
+        Path file = directory.resolve("edges.txt");
+        Files.write(file, Arrays.asList("1 2", "3", "4 5"));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new GraphLoader<>(new UndirectedGraph<Integer>()).loadEdgeList(file, Integer::valueOf));
+        assertThat(exception.getMessage(), is("Line 2 is not an edge: 3"));
+    }
+}
@@ -0,0 +1,91 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.natera.test.TestUtils.edge;
+import static org.natera.test.TestUtils.getChain;
+
+class GraphSnapshotTest {
+
+    @Test
+    public void testSnapshot_directed() {
+        Graph<Integer> graph = getChain(new DirectedGraph<>(), 5);
+        GraphSnapshot<Integer> snapshot = graph.snapshot();
+
+        assertThat(snapshot.isDirected(), is(true));
+        assertThat(snapshot.getVertexCount(), is(5));
+        assertThat(snapshot.getEdgeCount(), is(4));
+        assertThat(snapshot.getPath(1, 4), contains(edge(1, 2), edge(2, 3), edge(3, 4)));
+        assertThat(snapshot.getPath(4, 1), empty());
+        assertThat(snapshot.getPath(3, 3), empty());
+    }
+
+    @Test
+    public void testSnapshot_undirected() {
+        Graph<Integer> graph = getChain(new UndirectedGraph<>(), 5);
+        graph.addEdge(1, 5);
+        GraphSnapshot<Integer> snapshot = graph.snapshot();
+
+        assertThat(snapshot.isDirected(), is(false));
+        assertThat(snapshot.getEdgeCount(), is(10));
+        assertThat(snapshot.getPath(4, 1), contains(edge(4, 5), edge(5, 1)));
+        assertThat(snapshot.getPath(2, 4), contains(edge(2, 3), edge(3, 4)));
+    }
+
+    @Test
+    public void testSnapshot_incomingEdges() {
+        Graph<Integer> graph = getChain(new DirectedGraph<>(), 5);
+        graph.addEdge(1, 3);
+        GraphSnapshot<Integer> snapshot = graph.snapshot();
+
+        assertThat(snapshot.getPredecessors(3), containsInAnyOrder(1, 2));
+        assertThat(snapshot.getPredecessors(1), empty());
+        assertThat(snapshot.getInDegree(3), is(2));
+        assertThat(snapshot.getOutDegree(1), is(2));
+        assertThat(snapshot.getPathReverse(1, 4), contains(edge(1, 3), edge(3, 4)));
+        assertThat(snapshot.getPathReverse(4, 1), empty());
+        assertThat(snapshot.getReverseTargets().length, is(snapshot.getEdgeCount()));
+
+        GraphSnapshot<Integer> undirected = getChain(new UndirectedGraph<>(), 3).snapshot();
+        assertThat(undirected.getReverseTargets(), sameInstance(undirected.getTargets()));
+        assertThat(undirected.getPathReverse(3, 1), contains(edge(3, 2), edge(2, 1)));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getInDegree(6));
+    }
+
+    @Test
+    public void testSnapshot_notChangedByGraph() {
+        Graph<Integer> graph = getChain(new DirectedGraph<>(), 3);
+        GraphSnapshot<Integer> snapshot = graph.snapshot();
+        graph.addVertex(4);
+        graph.addEdge(1, 3);
+        graph.addEdge(3, 4);
+
+        assertThat(snapshot.containsVertex(4), is(false));
+        assertThat(snapshot.getPath(1, 3), contains(edge(1, 2), edge(2, 3)));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getPath(1, 4));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getPath(null, 1));
+    }
+
+    @Test
+    public void testFreeze() {
+        Graph<Integer> graph = getChain(new DirectedGraph<>(), 3);
+        GraphSnapshot<Integer> frozen = graph.freeze();
+        assertThat(graph.freeze(), sameInstance(frozen));
+        assertThat(graph.getPath(1, 3), contains(edge(1, 2), edge(2, 3)));
+
+        graph.addEdge(1, 2);
+        assertThat(graph.freeze(), sameInstance(frozen));
+
+        graph.addEdge(1, 3);
+        assertThat(graph.getPath(1, 3), contains(edge(1, 3)));
+        assertThat(graph.freeze(), not(sameInstance(frozen)));
+    }
+}
@@ -0,0 +1,87 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.natera.test.TestUtils.edge;
+
+class IntGraphTest {
+
+    @Test
+    public void testAddVertex() {
+        IntGraph graph = new IntDirectedGraph();
+        graph.addVertex(-5);
+        graph.addVertex(0);
+        graph.addVertex(-5);
+
+        assertThat(graph.size(), is(2));
+        assertThat(graph.containsVertex(-5), is(true));
+        assertThat(graph.containsVertex(5), is(false));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(-5, 5));
+        assertThrows(IllegalArgumentException.class, () -> graph.getPath(5, 0));
+    }
+
+    @Test
+    public void testGetPath_directed() {
+        IntGraph graph = new IntDirectedGraph();
+        for (int i = 0; i < 100; i++) {
+            graph.addVertex(i * 7);
+        }
+        for (int i = 0; i < 99; i++) {
+            graph.addEdge(i * 7, (i + 1) * 7);
+        }
+        graph.addEdge(0, 350);
+
+        assertArrayEquals(new int[]{0, 350, 357, 364}, graph.getPath(0, 364));
+        assertArrayEquals(new int[0], graph.getPath(364, 0));
+        assertArrayEquals(new int[0], graph.getPath(7, 7));
+        assertThat(graph.getPath(0, 693).length, is(51));
+    }
+
+    @Test
+    public void testGetPath_undirected() {
+        IntGraph graph = new IntUndirectedGraph();
+        for (int i = 1; i <= 4; i++) {
+            graph.addVertex(i);
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+
+        assertArrayEquals(new int[]{3, 2, 1}, graph.getPath(3, 1));
+        assertArrayEquals(new int[0], graph.getPath(1, 4));
+    }
+
+    @Test
+    public void testAddEdge_highDegree() {
+        IntGraph graph = new IntUndirectedGraph();
+        for (int i = 0; i <= 100; i++) {
+            graph.addVertex(i);
+        }
+        for (int repeat = 0; repeat < 2; repeat++) {
+            for (int i = 1; i <= 100; i++) {
+                graph.addEdge(0, i);
+            }
+        }
+
+        assertArrayEquals(new int[]{50, 0, 99}, graph.getPath(50, 99));
+    }
+
+    @Test
+    public void testGetPathEdges() {
+        IntGraph graph = new IntDirectedGraph();
+        graph.addVertex(1);
+        graph.addVertex(2);
+        graph.addVertex(3);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+
+        assertThat(graph.getPathEdges(1, 3), contains(edge(1, 2), edge(2, 3)));
+        assertThat(graph.getPathEdges(3, 1), empty());
+        assertThat(graph.getPathEdges(1, 1), empty());
+    }
+}
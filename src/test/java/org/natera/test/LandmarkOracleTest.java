@@ -0,0 +1,91 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.natera.test.TestUtils.edge;
+
+class LandmarkOracleTest {
+
+    @Test
+    public void testChain() {
+        Graph<Integer> graph = new DirectedGraph<>();
+        for (int i = 1; i <= 5; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 1; i < 5; i++) {
+            graph.addEdge(i, i + 1);
+        }
+        LandmarkOracle<Integer> oracle = graph.snapshot().createLandmarkOracle(2);
+
+        assertThat(oracle.getLandmarkCount(), is(2));
+        assertThat(oracle.getLowerBound(5, 1), is(LandmarkOracle.INFINITE));
+        assertThat(oracle.getPath(1, 4), contains(edge(1, 2), edge(2, 3), edge(3, 4)));
+        assertThat(oracle.getApproximatePath(1, 4), contains(edge(1, 2), edge(2, 3), edge(3, 4)));
+        assertThat(oracle.getPath(4, 1), empty());
+        assertThat(oracle.getApproximatePath(4, 1), empty());
+        assertThat(oracle.getApproximatePath(3, 3), empty());
+        assertThrows(IllegalArgumentException.class, () -> oracle.getPath(1, 6));
+        assertThrows(IllegalArgumentException.class, () -> graph.snapshot().createLandmarkOracle(0));
+    }
+
+    @Test
+    public void testRandomGraph_directed() {
+        checkRandomGraph(new DirectedGraph<>());
+    }
+
+    @Test
+    public void testRandomGraph_undirected() {
+        checkRandomGraph(new UndirectedGraph<>());
+    }
+
+    private void checkRandomGraph(Graph<Integer> graph) {
+        Random random = new Random(3);
+        int vertexCount = 80;
+        for (int i = 0; i < vertexCount; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 200; i++) {
+            graph.addEdge(random.nextInt(vertexCount), random.nextInt(vertexCount));
+        }
+        GraphSnapshot<Integer> snapshot = graph.snapshot();
+        LandmarkOracle<Integer> oracle = snapshot.createLandmarkOracle(4);
+
+        for (int from = 0; from < vertexCount; from++) {
+            for (int to = 0; to < vertexCount; to++) {
+                List<Edge<Integer>> shortest = snapshot.getPath(from, to);
+                List<Edge<Integer>> exact = oracle.getPath(from, to);
+                List<Edge<Integer>> approximate = oracle.getApproximatePath(from, to);
+                assertThat(exact.size(), is(shortest.size()));
+                if (from == to || !shortest.isEmpty()) {
+                    assertThat(oracle.getLowerBound(from, to), lessThanOrEqualTo(shortest.size()));
+                    assertThat(oracle.getUpperBound(from, to), greaterThanOrEqualTo(shortest.size()));
+                    assertThat(approximate.size(), greaterThanOrEqualTo(shortest.size()));
+                    checkPath(graph, from, to, exact);
+                    checkPath(graph, from, to, approximate);
+                } else {
+                    assertThat(approximate, empty());
+                }
+            }
+        }
+    }
+
+    private void checkPath(Graph<Integer> graph, int from, int to, List<Edge<Integer>> path) {
+        int current = from;
+        for (Edge<Integer> edge : path) {
+            assertThat(edge.getVertexFrom(), is(current));
+            assertThat(graph.getVertex(current).getEdgesTo().contains(edge.getVertexTo()), is(true));
+            current = edge.getVertexTo();
+        }
+        assertThat(current, is(to));
+    }
+}
@@ -0,0 +1,47 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        int previous = -1;
+        for (long value = 0; value < 100_000; value++) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertThat(bucket >= previous, is(true));
+            assertThat(LatencyHistogram.highestValueOf(bucket), greaterThanOrEqualTo(value));
+            assertThat(LatencyHistogram.highestValueOf(bucket) - value, lessThanOrEqualTo(value / 64));
+            previous = bucket;
+        }
+        assertThat(LatencyHistogram.highestValueOf(LatencyHistogram.bucketOf(Long.MAX_VALUE)), is(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getValueAtPercentile(50), is(0L));
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertThat(histogram.getCount(), is(1000L));
+        assertThat(histogram.getMax(), is(1_000_000L));
+        assertThat(histogram.getMean(), closeTo(500_500, 0.001));
+        assertThat((double) histogram.getValueAtPercentile(50), closeTo(500_000, 500_000 / 64.0));
+        assertThat((double) histogram.getValueAtPercentile(99), closeTo(990_000, 990_000 / 64.0));
+        assertThat(histogram.getValueAtPercentile(100), is(1_000_000L));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+
+        histogram.reset();
+        assertThat(histogram.getCount(), is(0L));
+        assertThat(histogram.getMax(), is(0L));
+    }
+}
@@ -0,0 +1,43 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongGraphTest {
+
+    @Test
+    public void testGetPath_directed() {
+        LongGraph graph = new LongDirectedGraph();
+        long base = 1L << 40;
+        for (long i = 0; i < 1000; i++) {
+            graph.addVertex(base + i);
+        }
+        for (long i = 0; i < 999; i++) {
+            graph.addEdge(base + i, base + i + 1);
+        }
+
+        assertThat(graph.size(), is(1000));
+        assertArrayEquals(new long[]{base + 10, base + 11, base + 12}, graph.getPath(base + 10, base + 12));
+        assertArrayEquals(new long[0], graph.getPath(base + 12, base + 10));
+        assertThat(graph.getPath(base, base + 999).length, is(1000));
+        assertThrows(IllegalArgumentException.class, () -> graph.getPath(0, base));
+    }
+
+    @Test
+    public void testGetPathEdges_undirected() {
+        LongGraph graph = new LongUndirectedGraph();
+        graph.addVertex(-1L);
+        graph.addVertex(Long.MAX_VALUE);
+        graph.addVertex(Long.MIN_VALUE);
+        graph.addEdge(-1L, Long.MAX_VALUE);
+
+        assertThat(graph.getPathEdges(Long.MAX_VALUE, -1L), contains(new Edge<>(Long.MAX_VALUE, -1L)));
+        assertThat(graph.getPathEdges(Long.MIN_VALUE, -1L), empty());
+    }
+}
@@ -0,0 +1,74 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.natera.test.TestUtils.edge;
+
+class MappedGraphTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testWriteAndOpen_directed() throws Exception {
+        Graph<Integer> graph = new DirectedGraph<>();
+        for (int i = 1; i <= 1000; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 1; i < 1000; i++) {
+            graph.addEdge(i, i + 1);
+        }
+        graph.addEdge(1, 500);
+        Path file = directory.resolve("graph.bin");
+        GraphFile.write(graph.snapshot(), file, VertexCodec.integers());
+
+        MappedGraph<Integer> mapped = MappedGraph.open(file, VertexCodec.integers());
+        assertThat(mapped.isDirected(), is(true));
+        assertThat(mapped.getVertexCount(), is(1000));
+        assertThat(mapped.getEdgeCount(), is(1000));
+        assertThat(mapped.containsVertex(1000), is(true));
+        assertThat(mapped.containsVertex(1001), is(false));
+        assertThat(mapped.getPath(1, 502), contains(edge(1, 500), edge(500, 501), edge(501, 502)));
+        assertThat(mapped.getPath(2, 1), empty());
+        assertThat(mapped.findPath(1, 1000).length(), is(501));
+        assertThat(mapped.findPath(3, 1000, new TraversalContext()).getVertex(1), is(4));
+        assertThat(mapped.findPath(1000, 1).isEmpty(), is(true));
+        assertThrows(IllegalArgumentException.class, () -> mapped.getPath(1, 1001));
+        assertThrows(IllegalArgumentException.class, () -> mapped.getPath(null, 1));
+    }
+
+    @Test
+    public void testWriteAndOpen_undirectedStrings() throws Exception {
+        Graph<String> graph = new UndirectedGraph<>();
+        graph.addVertex("a");
+        graph.addVertex("b");
+        graph.addVertex("c");
+        graph.addVertex("");
+        graph.addEdge("a", "b");
+        graph.addEdge("b", "c");
+        Path file = directory.resolve("graph.bin");
+        GraphFile.write(graph.snapshot(), file, VertexCodec.strings());
+
+        MappedGraph<String> mapped = MappedGraph.open(file, VertexCodec.strings());
+        assertThat(mapped.isDirected(), is(false));
+        assertThat(mapped.getPath("c", "a"), contains(new Edge<>("c", "b"), new Edge<>("b", "a")));
+        assertThat(mapped.getPath("a", ""), empty());
+    }
+
+    @Test
+    public void testOpen_notGraphFile() throws Exception {
+        Path file = directory.resolve("text.txt");
+        Files.write(file, "not a graph file, just some text".getBytes());
+        assertThrows(IOException.class, () -> MappedGraph.open(file, VertexCodec.integers()));
+    }
+}
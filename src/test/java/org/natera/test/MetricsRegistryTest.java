@@ -0,0 +1,56 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class MetricsRegistryTest {
+
+    @Test
+    public void testGraphMetrics() {
+        Graph<Integer> graph = new DirectedGraph<>();
+        MetricsRegistry metrics = new MetricsRegistry();
+        graph.setMetrics(metrics);
+        for (int i = 1; i <= 5; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 1; i < 5; i++) {
+            graph.addEdge(i, i + 1);
+        }
+        graph.addEdge(1, 3, 2.0);
+        graph.setPathStrategy(PathStrategy.SHORTEST);
+        graph.getPath(2, 5);
+
+        assertThat(metrics.getLatency(GraphMetrics.Operation.ADD_VERTEX).getCount(), is(5L));
+        assertThat(metrics.getLatency(GraphMetrics.Operation.ADD_EDGE).getCount(), is(5L));
+        assertThat(metrics.getLatency(GraphMetrics.Operation.GET_PATH).getCount(), is(1L));
+        assertThat(metrics.getTraversalCount(), is(1L));
+        assertThat(metrics.getExpandedVertexes(), is(3L));
+        assertThat(metrics.getScannedEdges(), is(3L));
+        assertThat(metrics.getLevels(), is(3L));
+        assertThat(metrics.getMaxFrontier(), is(1));
+
+        //the second search expands 1, then 2 and 3
+        graph.getPath(1, 5);
+        assertThat(metrics.getTraversalCount(), is(2L));
+        assertThat(metrics.getMaxFrontier(), is(2));
+
+        //answered without a search
+        graph.getPath(3, 3);
+        graph.freeze();
+        graph.getPath(1, 4);
+        graph.setPathStrategy(PathStrategy.BIDIRECTIONAL);
+        graph.addVertex(6);
+        graph.getPath(1, 4);
+        assertThat(metrics.getLatency(GraphMetrics.Operation.GET_PATH).getCount(), is(5L));
+        assertThat(metrics.getTraversalCount(), is(4L));
+
+        metrics.reset();
+        graph.setMetrics(null);
+        graph.getPath(1, 5);
+        assertThat(graph.getMetrics(), nullValue());
+        assertThat(metrics.getTraversalCount(), is(0L));
+    }
+}
@@ -0,0 +1,116 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.natera.test.TestUtils.edge;
+
+class ParallelPathFinderTest {
+
+    @Test
+    public void testGetPath_sameLengthAsSerial() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (Graph<Integer> graph : new Graph[]{new DirectedGraph<Integer>(), new UndirectedGraph<Integer>()}) {
+                Random random = new Random(7);
+                for (int i = 0; i < 3000; i++) {
+                    graph.addVertex(i);
+                }
+                for (int i = 0; i < 9000; i++) {
+                    graph.addEdge(random.nextInt(3000), random.nextInt(3000));
+                }
+                graph.setParallelPool(pool);
+                graph.setParallelFrontierThreshold(1);
+
+                for (int query = 0; query < 50; query++) {
+                    int from = random.nextInt(3000);
+                    int to = random.nextInt(3000);
+                    graph.setPathStrategy(PathStrategy.BIDIRECTIONAL);
+                    List<Edge<Integer>> expected = graph.getPath(from, to);
+                    graph.setPathStrategy(PathStrategy.PARALLEL);
+                    List<Edge<Integer>> path = graph.getPath(from, to);
+
+                    assertThat(path.size(), is(expected.size()));
+                    for (int i = 0; i < path.size(); i++) {
+                        assertThat(graph.getVertexes().get(path.get(i).getVertexFrom()).getEdgesTo()
+                                .contains(path.get(i).getVertexTo()), is(true));
+                    }
+                    if (!path.isEmpty()) {
+                        assertThat(path.get(0).getVertexFrom(), is(from));
+                        assertThat(path.get(path.size() - 1).getVertexTo(), is(to));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testGetPath_staysInConfiguredPool() {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        Graph<Integer> graph = new DirectedGraph<Integer>() {
+            @Override
+            Vertex<Integer> getVertexById(int id) {
+                threads.add(Thread.currentThread());
+                return super.getVertexById(id);
+            }
+        };
+        //source 0, a frontier of 600 vertexes, then the target
+        for (int i = 0; i <= 601; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 1; i <= 600; i++) {
+            graph.addEdge(0, i);
+            graph.addEdge(i, 601);
+        }
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            graph.setParallelPool(pool);
+            graph.setPathStrategy(PathStrategy.PARALLEL);
+
+            //below the default threshold the frontier is expanded by the calling thread only
+            assertThat(graph.getPath(0, 601).size(), is(2));
+            assertThat(threads, contains(Thread.currentThread()));
+
+            graph.setParallelFrontierThreshold(500);
+            threads.clear();
+            assertThat(graph.getPath(0, 601).size(), is(2));
+            for (Thread thread : threads) {
+                assertThat(thread == Thread.currentThread()
+                        || ((ForkJoinWorkerThread) thread).getPool() == pool, is(true));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testGetPath_chain() {
+        Graph<Integer> graph = new DirectedGraph<>();
+        for (int i = 0; i < 5; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 4; i++) {
+            graph.addEdge(i, i + 1);
+        }
+        graph.setPathStrategy(PathStrategy.PARALLEL);
+        graph.setParallelFrontierThreshold(1);
+
+        assertThat(graph.getPath(1, 3), contains(edge(1, 2), edge(2, 3)));
+        assertThat(graph.getPath(3, 1), empty());
+        assertThrows(IllegalArgumentException.class, () -> graph.setParallelFrontierThreshold(0));
+        assertThrows(IllegalArgumentException.class, () -> graph.setParallelPool(null));
+    }
+}
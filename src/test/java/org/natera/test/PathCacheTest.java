@@ -0,0 +1,147 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.natera.test.TestUtils.edge;
+import static org.natera.test.TestUtils.getChain;
+
+class PathCacheTest {
+
+    @Test
+    public void testHitAndMiss() {
+        Graph<Integer> graph = getChain(new DirectedGraph<>(), 4);
+        PathCache<Integer> cache = graph.enablePathCache(10);
+
+        assertThat(graph.getPath(1, 4), contains(edge(1, 2), edge(2, 3), edge(3, 4)));
+        assertThat(graph.getPath(1, 4), sameInstance(graph.getPath(1, 4)));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(2L));
+        assertThrows(UnsupportedOperationException.class, () -> graph.getPath(1, 4).clear());
+    }
+
+    @Test
+    public void testEviction() {
+        Graph<Integer> graph = getChain(new DirectedGraph<>(), 4);
+        PathCache<Integer> cache = graph.enablePathCache(2);
+
+        graph.getPath(1, 2);
+        graph.getPath(1, 3);
+        graph.getPath(1, 2);
+        graph.getPath(1, 4);
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.getEvictionCount(), is(1L));
+        graph.getPath(1, 2);
+        assertThat(cache.getHitCount(), is(2L));
+        graph.getPath(1, 3);
+        assertThat(cache.getMissCount(), is(4L));
+    }
+
+    @Test
+    public void testInvalidation_anyChange() {
+        Graph<Integer> graph = getChain(new DirectedGraph<>(), 4);
+        PathCache<Integer> cache = graph.enablePathCache(10);
+
+        graph.getPath(1, 4);
+        graph.addVertex(5);
+        graph.getPath(1, 4);
+        assertThat(cache.getInvalidationCount(), is(1L));
+
+        graph.addEdge(1, 4);
+        assertThat(graph.getPath(1, 4), contains(edge(1, 4)));
+        assertThat(cache.getInvalidationCount(), is(2L));
+        assertThat(cache.getHitCount(), is(0L));
+    }
+
+    @Test
+    public void testInvalidation_precise() {
+        Graph<Integer> graph = getChain(new DirectedGraph<>(), 4);
+        PathCache<Integer> cache = graph.enablePathCache(10, true);
+
+        graph.getPath(2, 4);
+        graph.getPath(1, 3);
+        graph.addVertex(5);
+        graph.addEdge(5, 3);
+        graph.addEdge(1, 4);
+        graph.getPath(2, 4);
+        assertThat(cache.getHitCount(), is(1L));
+        //vertex 1 has no incoming edges, only paths from it are dropped
+        assertThat(cache.getInvalidationCount(), is(1L));
+        assertThat(graph.getPath(1, 3), contains(edge(1, 2), edge(2, 3)));
+
+        graph.addEdge(2, 4);
+        assertThat(graph.getPath(2, 4), contains(edge(2, 4)));
+        assertThat(cache.getInvalidationCount(), is(2L));
+    }
+
+    @Test
+    public void testInvalidation_precise_undirected() {
+        Graph<Integer> graph = getChain(new UndirectedGraph<>(), 3);
+        PathCache<Integer> cache = graph.enablePathCache(10, true);
+        graph.addVertex(4);
+        graph.addVertex(5);
+
+        //not connected pairs are answered by the reachability index and not cached
+        assertThat(graph.getPath(1, 4), empty());
+        graph.getPath(1, 3);
+        graph.addEdge(4, 5);
+        assertThat(graph.getPath(1, 4), empty());
+        graph.getPath(1, 3);
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(1L));
+
+        graph.addEdge(3, 4);
+        assertThat(graph.getPath(1, 4), contains(edge(1, 2), edge(2, 3), edge(3, 4)));
+        graph.getPath(1, 3);
+        assertThat(cache.getInvalidationCount(), is(1L));
+    }
+
+    @Test
+    public void testIdentityEncoding() {
+        Graph<String> graph = new DirectedGraph<>();
+        graph.setKeyEncoding(KeyEncoding.identity());
+        String first = "a";
+        String second = new String(first);
+        for (String value : new String[]{first, second, "b", "c"}) {
+            graph.addVertex(value);
+        }
+        graph.addEdge(first, "b");
+        graph.addEdge(second, "c");
+        graph.addEdge("c", "b");
+        graph.enablePathCache(100);
+
+        assertThat(graph.getPath(first, "b").size(), is(1));
+        List<Edge<String>> path = graph.getPath(second, "b");
+        assertThat(path.size(), is(2));
+        assertThat(path.get(0).getVertexFrom(), sameInstance(second));
+        assertThat(graph.getPathCache().size(), is(2));
+        //keys of the returned map are compared by equals, so every pair is asked for separately
+        Map<Edge<String>, List<Edge<String>>> paths = graph.getPaths(Arrays.asList(
+                new Edge<>(first, "c"), new Edge<>("c", "b")));
+        assertThat(paths.get(new Edge<>(first, "c")), empty());
+        assertThat(graph.getPaths(Collections.singletonList(new Edge<>(second, "c")))
+                .get(new Edge<>(first, "c")).size(), is(1));
+        assertThat(graph.getPaths(second, Collections.singletonList("b")).get("b").size(), is(2));
+    }
+
+    @Test
+    public void testDisable() {
+        Graph<Integer> graph = getChain(new DirectedGraph<>(), 3);
+        assertThrows(IllegalArgumentException.class, () -> graph.enablePathCache(0));
+        graph.enablePathCache(10);
+        graph.disablePathCache();
+        assertThat(graph.getPathCache() == null, is(true));
+        graph.getPath(1, 3).clear();
+    }
+}
@@ -0,0 +1,111 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.natera.test.TestUtils.edge;
+import static org.natera.test.TestUtils.getChain;
+
+class PathTest {
+
+    @Test
+    public void testFindPath() {
+        Graph<Integer> graph = getChain(new DirectedGraph<>(), 4);
+        Path<Integer> path = graph.findPath(1, 4);
+
+        assertThat(path.length(), is(3));
+        assertThat(path.isEmpty(), is(false));
+        assertThat(path.getVertex(0), is(1));
+        assertThat(path.getVertex(3), is(4));
+        assertThat(path.getEdge(1), is(edge(2, 3)));
+        assertThat(path, contains(edge(1, 2), edge(2, 3), edge(3, 4)));
+        assertThat(path.asList(), contains(edge(1, 2), edge(2, 3), edge(3, 4)));
+        assertThat(path.asList(), sameInstance(path.asList()));
+        assertThat(path.toList(), is(graph.getPath(1, 4)));
+        assertThat(path.vertices().collect(Collectors.toList()), contains(1, 2, 3, 4));
+        assertThat(path.edges().limit(1).collect(Collectors.toList()), contains(edge(1, 2)));
+        assertThat(path, is(graph.findPath(1, 4)));
+        assertThrows(IndexOutOfBoundsException.class, () -> path.getEdge(3));
+        assertThrows(UnsupportedOperationException.class, () -> path.asList().clear());
+    }
+
+    @Test
+    public void testFindPath_noPath() {
+        Graph<Integer> graph = getChain(new DirectedGraph<>(), 3);
+        Path<Integer> path = graph.findPath(3, 1);
+
+        assertThat(path.length(), is(0));
+        assertThat(path.isEmpty(), is(true));
+        assertThat(path.asList(), empty());
+        assertThat(path.toList(), empty());
+        assertThat(path.vertexIterator().hasNext(), is(false));
+        assertThat(path.vertices().count(), is(0L));
+        assertThat(graph.findPath(2, 2), is(path));
+        assertThrows(IllegalArgumentException.class, () -> graph.findPath(1, 5));
+    }
+
+    @Test
+    public void testFindPath_allStrategies() {
+        for (PathStrategy strategy : PathStrategy.values()) {
+            Graph<Integer> graph = getChain(new UndirectedGraph<>(), 6);
+            graph.setPathStrategy(strategy);
+            Path<Integer> path = graph.findPath(6, 1);
+
+            assertThat(strategy.name(), path.length(), is(5));
+            Iterator<Integer> vertexes = path.vertexIterator();
+            for (int expected = 6; expected >= 1; expected--) {
+                assertThat(vertexes.next(), is(expected));
+            }
+            assertThat(vertexes.hasNext(), is(false));
+        }
+    }
+
+    @Test
+    public void testFindPath_anyRandomGraph() {
+        Random random = new Random(9);
+        Graph<Integer> graph = new DirectedGraph<>();
+        int vertexCount = 60;
+        for (int i = 0; i < vertexCount; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 120; i++) {
+            graph.addEdge(random.nextInt(vertexCount), random.nextInt(vertexCount));
+        }
+        GraphSnapshot<Integer> snapshot = graph.snapshot();
+        graph.setPathStrategy(PathStrategy.ANY);
+
+        for (int from = 0; from < vertexCount; from++) {
+            for (int to = 0; to < vertexCount; to++) {
+                Path<Integer> path = graph.findPath(from, to);
+                assertThat(path.isEmpty(), is(snapshot.getPath(from, to).isEmpty()));
+                if (!path.isEmpty()) {
+                    assertThat(path.getVertex(0), is(from));
+                    assertThat(path.getVertex(path.length()), is(to));
+                    for (Edge<Integer> edge : path) {
+                        assertThat(graph.getVertex(edge.getVertexFrom()).getEdgesTo().contains(edge.getVertexTo()),
+                                is(true));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFindPath_snapshot() {
+        GraphSnapshot<Integer> snapshot = getChain(new DirectedGraph<>(), 4).snapshot();
+        List<Edge<Integer>> edges = snapshot.getPath(2, 4);
+
+        assertThat(edges, contains(edge(2, 3), edge(3, 4)));
+        assertThat(snapshot.findPath(2, 4, new TraversalContext()).asList(), is(edges));
+    }
+}
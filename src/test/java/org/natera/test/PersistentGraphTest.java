@@ -0,0 +1,75 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.natera.test.TestUtils.edge;
+
+class PersistentGraphTest {
+
+    @Test
+    public void testVersions_directed() {
+        PersistentDirectedGraph<Integer> empty = new PersistentDirectedGraph<>();
+        PersistentDirectedGraph<Integer> vertexes = empty.addVertex(1).addVertex(2).addVertex(3);
+        PersistentDirectedGraph<Integer> chain = vertexes.addEdge(1, 2).addEdge(2, 3);
+        PersistentDirectedGraph<Integer> shortcut = chain.addEdge(1, 3);
+
+        assertThat(empty.getVertexCount(), is(0));
+        assertThat(vertexes.getVertexCount(), is(3));
+        assertThat(vertexes.getPath(1, 3), empty());
+        assertThat(chain.getPath(1, 3), contains(edge(1, 2), edge(2, 3)));
+        assertThat(chain.getPath(3, 1), empty());
+        assertThat(shortcut.getPath(1, 3), contains(edge(1, 3)));
+        assertThat(chain.getEdgeCount(), is(2L));
+        assertThat(shortcut.getEdgeCount(), is(3L));
+        assertThat(shortcut.addEdge(1, 3), sameInstance(shortcut));
+        assertThat(shortcut.addVertex(1), sameInstance(shortcut));
+        assertThat(empty.containsVertex(1), is(false));
+    }
+
+    @Test
+    public void testVersions_undirected() {
+        PersistentUndirectedGraph<Integer> graph = new PersistentUndirectedGraph<Integer>()
+                .addVertex(1).addVertex(2).addVertex(3);
+        PersistentUndirectedGraph<Integer> connected = graph.addEdge(1, 2).addEdge(2, 3);
+
+        assertThat(connected.getPath(3, 1), contains(edge(3, 2), edge(2, 1)));
+        assertThat(connected.getEdgeCount(), is(4L));
+        assertThat(graph.getPath(3, 1), empty());
+        assertThat(connected.getPath(2, 2), empty());
+    }
+
+    @Test
+    public void testVersions_manyVersionsReadable() {
+        List<PersistentDirectedGraph<Integer>> versions = new ArrayList<>();
+        PersistentDirectedGraph<Integer> graph = new PersistentDirectedGraph<Integer>().addVertex(0);
+        for (int i = 1; i <= 500; i++) {
+            graph = graph.addVertex(i).addEdge(i - 1, i);
+            versions.add(graph);
+        }
+        for (int i = 1; i <= 500; i++) {
+            PersistentDirectedGraph<Integer> version = versions.get(i - 1);
+            assertThat(version.getVertexCount(), is(i + 1));
+            assertThat(version.getPath(0, i).size(), is(i));
+            assertThat(version.containsVertex(i + 1), is(false));
+        }
+    }
+
+    @Test
+    public void testAllMethods_nullSafe() {
+        PersistentDirectedGraph<Integer> graph = new PersistentDirectedGraph<Integer>().addVertex(1);
+        assertThrows(IllegalArgumentException.class, () -> graph.addVertex(null));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(1, null));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(1, 2));
+        assertThrows(IllegalArgumentException.class, () -> graph.getPath(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> graph.getPath(1, 2));
+    }
+}
@@ -0,0 +1,85 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class PersistentHashMapTest {
+
+    @Test
+    public void testPut_matchesHashMap() {
+        Random random = new Random(11);
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            int key = random.nextInt(2000) - 1000;
+            PersistentHashMap<Integer, Integer> previous = map;
+            int previousSize = previous.size();
+            map = map.put(key, i);
+            expected.put(key, i);
+            assertThat(previous.size(), is(previousSize));
+        }
+        assertThat(map.size(), is(expected.size()));
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertThat(map.get(entry.getKey()), is(entry.getValue()));
+        }
+        Map<Integer, Integer> iterated = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : map) {
+            iterated.put(entry.getKey(), entry.getValue());
+        }
+        assertThat(iterated, is(expected));
+        assertThat(map.get(5000), nullValue());
+    }
+
+    @Test
+    public void testPut_collisions() {
+        PersistentHashMap<CollidingKey, String> map = PersistentHashMap.empty();
+        for (int i = 0; i < 40; i++) {
+            map = map.put(new CollidingKey(i, i % 4), "v" + i);
+        }
+        PersistentHashMap<CollidingKey, String> replaced = map.put(new CollidingKey(7, 3), "new");
+
+        assertThat(map.size(), is(40));
+        assertThat(replaced.size(), is(40));
+        for (int i = 0; i < 40; i++) {
+            assertThat(map.get(new CollidingKey(i, i % 4)), is("v" + i));
+        }
+        assertThat(replaced.get(new CollidingKey(7, 3)), is("new"));
+        assertThat(map.get(new CollidingKey(7, 3)), is("v7"));
+        assertThat(map.get(new CollidingKey(40, 0)), nullValue());
+        int count = 0;
+        for (Map.Entry<CollidingKey, String> ignored : replaced) {
+            count++;
+        }
+        assertThat(count, is(40));
+        String value = map.get(new CollidingKey(1, 1));
+        assertThat(map.put(new CollidingKey(1, 1), value), sameInstance(map));
+    }
+
+    private static class CollidingKey {
+        private final int value;
+        private final int hash;
+
+        private CollidingKey(int value, int hash) {
+            this.value = value;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
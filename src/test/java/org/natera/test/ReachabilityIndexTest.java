@@ -0,0 +1,42 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class ReachabilityIndexTest {
+
+    @Test
+    public void testIsConnected_directed_matchesSearch() {
+        checkRandomGraph(new DirectedGraph<>());
+    }
+
+    @Test
+    public void testIsConnected_undirected_matchesSearch() {
+        checkRandomGraph(new UndirectedGraph<>());
+    }
+
+    private void checkRandomGraph(Graph<Integer> graph) {
+        Random random = new Random(7);
+        int vertexCount = 60;
+        for (int i = 0; i < vertexCount; i++) {
+            graph.addVertex(i);
+        }
+        for (int round = 0; round < 6; round++) {
+            for (int i = 0; i < 15; i++) {
+                graph.addEdge(random.nextInt(vertexCount), random.nextInt(vertexCount));
+            }
+            graph.addVertex(vertexCount + round);
+            for (int from = 0; from < vertexCount + round; from++) {
+                for (int to = 0; to < vertexCount + round; to++) {
+                    boolean connected = from == to
+                            || !PathStrategy.SHORTEST.getFinder().findPath(graph, from, to, new TraversalContext()).isEmpty();
+                    assertThat(from + " -> " + to, graph.isConnected(from, to), is(connected));
+                }
+            }
+        }
+    }
+}
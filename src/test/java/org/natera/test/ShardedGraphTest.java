@@ -0,0 +1,154 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.natera.test.TestUtils.edge;
+
+class ShardedGraphTest {
+
+    @Test
+    public void testGetPath_rangeShards() {
+        ShardedGraph<Integer> graph = new ShardedDirectedGraph<>(new InProcessShardTransport<>(3),
+                Partitioner.range(Arrays.asList(3, 5)));
+        for (int i = 1; i <= 6; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 1; i < 6; i++) {
+            graph.addEdge(i, i + 1);
+        }
+        graph.addEdge(1, 6);
+        graph.addEdge(1, 6);
+
+        assertThat(graph.getShardOf(2), is(0));
+        assertThat(graph.getShardOf(3), is(1));
+        assertThat(graph.getShardOf(6), is(2));
+        assertThat(graph.getVertexCount(), is(6));
+        assertThat(graph.getEdgeCount(), is(6L));
+        assertThat(graph.containsVertex(4), is(true));
+        assertThat(graph.containsVertex(7), is(false));
+        assertThat(graph.getPath(2, 6), contains(edge(2, 3), edge(3, 4), edge(4, 5), edge(5, 6)));
+        assertThat(graph.getPath(1, 6), contains(edge(1, 6)));
+        assertThat(graph.getPath(6, 1), empty());
+        assertThat(graph.getPath(3, 3), empty());
+        assertThrows(IllegalArgumentException.class, () -> graph.getPath(1, 7));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(7, 1));
+        assertThrows(IllegalArgumentException.class, () -> graph.addVertex(null));
+    }
+
+    @Test
+    public void testRandomGraph_directed() {
+        checkRandomGraph(new DirectedGraph<>(),
+                new ShardedDirectedGraph<>(new InProcessShardTransport<>(4), Partitioner.hash()));
+    }
+
+    @Test
+    public void testRandomGraph_undirected() {
+        checkRandomGraph(new UndirectedGraph<>(),
+                new ShardedUndirectedGraph<>(new InProcessShardTransport<>(3), Partitioner.hash()));
+    }
+
+    @Test
+    public void testLoopbackTransport() throws Exception {
+        try (LoopbackShardTransport<Integer> transport = new LoopbackShardTransport<>(3, VertexCodec.integers())) {
+            assertThat(transport.getShardCount(), is(3));
+            checkRandomGraph(new UndirectedGraph<>(), new ShardedUndirectedGraph<>(transport, Partitioner.hash()));
+            ShardedGraph<Integer> graph = new ShardedDirectedGraph<>(transport, Partitioner.hash());
+            assertThrows(IllegalArgumentException.class, () -> graph.addEdge(1000, 1));
+            assertThrows(IllegalArgumentException.class,
+                    () -> transport.getShard(graph.getShardOf(1000)).addArc(1000, 1));
+        }
+    }
+
+    @Test
+    public void testGreedyPartitioner_fewerCrossEdges() {
+        Graph<Integer> source = new UndirectedGraph<>();
+        //8 cliques of 10 vertexes joined in a ring
+        for (int i = 0; i < 80; i++) {
+            source.addVertex(i);
+        }
+        for (int i = 0; i < 80; i++) {
+            for (int j = i + 1; j < (i / 10 + 1) * 10; j++) {
+                source.addEdge(i, j);
+            }
+            if (i % 10 == 0) {
+                source.addEdge(i, (i + 15) % 80);
+            }
+        }
+        GraphSnapshot<Integer> snapshot = source.snapshot();
+        Partitioner<Integer> greedy = Partitioner.greedy(snapshot, 4);
+
+        int[] sizes = new int[4];
+        for (int i = 0; i < 80; i++) {
+            sizes[greedy.shardOf(i, 4)]++;
+        }
+        for (int size : sizes) {
+            assertThat(size, lessThan(25));
+        }
+        assertThat(crossEdges(source, greedy), lessThan(crossEdges(source, Partitioner.hash()) / 4));
+        assertThat(greedy.shardOf(1000, 4), is(Partitioner.<Integer>hash().shardOf(1000, 4)));
+        assertThrows(IllegalArgumentException.class, () -> greedy.shardOf(1, 3));
+        assertThrows(IllegalArgumentException.class, () -> Partitioner.range(Arrays.asList(5, 3)));
+
+        ShardedGraph<Integer> graph = new ShardedUndirectedGraph<>(new InProcessShardTransport<>(4), greedy);
+        checkSameGraph(source, graph);
+    }
+
+    private int crossEdges(Graph<Integer> graph, Partitioner<Integer> partitioner) {
+        int count = 0;
+        for (Integer from : graph.getVertexes().keySet()) {
+            for (Integer to : graph.getVertex(from).getEdgesTo()) {
+                if (partitioner.shardOf(from, 4) != partitioner.shardOf(to, 4)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void checkRandomGraph(Graph<Integer> expected, ShardedGraph<Integer> graph) {
+        Random random = new Random(13);
+        int vertexCount = 40;
+        for (int i = 0; i < vertexCount; i++) {
+            expected.addVertex(i);
+        }
+        for (int i = 0; i < 70; i++) {
+            expected.addEdge(random.nextInt(vertexCount), random.nextInt(vertexCount));
+        }
+        checkSameGraph(expected, graph);
+    }
+
+    private void checkSameGraph(Graph<Integer> expected, ShardedGraph<Integer> graph) {
+        for (Integer vertex : expected.getVertexes().keySet()) {
+            graph.addVertex(vertex);
+        }
+        for (Integer from : expected.getVertexes().keySet()) {
+            for (Integer to : expected.getVertex(from).getEdgesTo()) {
+                graph.addEdge(from, to);
+            }
+        }
+        assertThat(graph.getVertexCount(), is(expected.getVertexes().size()));
+        assertThat(graph.getEdgeCount(), is(expected.getArcCount()));
+        for (Integer from : expected.getVertexes().keySet()) {
+            for (Integer to : expected.getVertexes().keySet()) {
+                List<Edge<Integer>> path = graph.getPath(from, to);
+                assertThat(from + " -> " + to, path.size(), is(expected.getPath(from, to).size()));
+                Integer current = from;
+                for (Edge<Integer> edge : path) {
+                    assertThat(edge.getVertexFrom(), is(current));
+                    assertThat(expected.getVertex(current).getEdgesTo().contains(edge.getVertexTo()), is(true));
+                    current = edge.getVertexTo();
+                }
+            }
+        }
+    }
+}
@@ -19,4 +19,17 @@ public class TestUtils {
     public static Edge<Integer> edge(Integer from, Integer to) {
         return new Edge<>(from, to);
     }
+
+    /**
+     * Adds vertexes 1 ... size and edges from every vertex to the next one.
+     */
+    public static Graph<Integer> getChain(Graph<Integer> graph, int size) {
+        for (int i = 1; i <= size; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 1; i < size; i++) {
+            graph.addEdge(i, i + 1);
+        }
+        return graph;
+    }
 }
@@ -416,6 +416,107 @@ class UndirectedGraphTest {
         assertThat(reversePath, contains(edge(4, 3), edge(3, 2), edge(2, 1)));
     }
 
+    @Test
+    public void testGetPath_sameVertex() throws Exception {
+        Graph<Integer> graph = getGraph();
+        graph.addVertex(1);
+        graph.addVertex(2);
+        graph.addEdge(1, 2);
+
+        assertThat(graph.getPath(1, 1), empty());
+    }
+
+    @Test
+    public void testGetPath_strategies() throws Exception {
+        Graph<Integer> graph = getGraph();
+        for (int i = 1; i <= 6; i++) {
+            graph.addVertex(i);
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+        graph.addEdge(4, 5);
+        graph.addEdge(1, 6);
+        graph.addEdge(6, 5);
+
+        for (PathStrategy strategy : PathStrategy.values()) {
+            graph.setPathStrategy(strategy);
+            assertThat(graph.getPathStrategy(), is(strategy));
+            assertThat(graph.getPath(1, 5), contains(edge(1, 6), edge(6, 5)));
+            assertThat(graph.getPath(2, 4), contains(edge(2, 3), edge(3, 4)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> graph.setPathStrategy(null));
+    }
+
+    @Test
+    public void testIsConnected() throws Exception {
+        Graph<Integer> graph = getGraph();
+        for (int i = 1; i <= 5; i++) {
+            graph.addVertex(i);
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(3, 4);
+
+        assertThat(graph.isConnected(2, 1), is(true));
+        assertThat(graph.isConnected(1, 3), is(false));
+        assertThat(graph.isConnected(5, 5), is(true));
+        assertThat(graph.getPath(1, 4), empty());
+
+        graph.addEdge(2, 3);
+        assertThat(graph.isConnected(4, 1), is(true));
+        assertThat(graph.getPath(1, 4), contains(edge(1, 2), edge(2, 3), edge(3, 4)));
+        assertThat(graph.isConnected(1, 5), is(false));
+        assertThrows(IllegalArgumentException.class, () -> graph.isConnected(null, 1));
+    }
+
+    @Test
+    public void testRemoveEdge() throws Exception {
+        Graph<Integer> graph = getGraph();
+        for (int i = 1; i <= 3; i++) {
+            graph.addVertex(i);
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        assertThat(graph.isConnected(1, 3), is(true));
+
+        assertThat(graph.removeEdge(3, 2), is(true));
+        assertThat(graph.removeEdge(2, 3), is(false));
+        Map<Integer, Graph.Vertex<Integer>> vertexesMap = getVertexesMap(graph);
+        assertThat(vertexesMap.get(2).getEdgesTo(), contains(1));
+        assertThat(vertexesMap.get(3).getEdgesTo(), empty());
+        assertThat(graph.getPath(1, 3), empty());
+        assertThat(graph.isConnected(1, 3), is(false));
+        assertThat(graph.getArcCount(), is(2L));
+    }
+
+    @Test
+    public void testRemoveVertex() throws Exception {
+        Graph<Integer> graph = getGraph();
+        for (int i = 1; i <= 4; i++) {
+            graph.addVertex(i);
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 3);
+        graph.addEdge(1, 4);
+        graph.addEdge(4, 3);
+        assertThat(graph.getPath(1, 3), contains(edge(1, 2), edge(2, 3)));
+
+        assertThat(graph.removeVertex(3), is(true));
+        Map<Integer, Graph.Vertex<Integer>> vertexesMap = getVertexesMap(graph);
+        assertThat(vertexesMap.size(), is(3));
+        assertThat(vertexesMap.get(2).getEdgesTo(), contains(1));
+        assertThat(vertexesMap.get(4).getEdgesTo(), contains(1));
+        assertThat(graph.getArcCount(), is(4L));
+        assertThat(graph.getPath(2, 4), contains(edge(2, 1), edge(1, 4)));
+
+        assertThat(graph.removeVertex(1), is(true));
+        assertThat(graph.getPath(2, 4), empty());
+        assertThat(graph.isConnected(2, 4), is(false));
+        assertThat(graph.getArcCount(), is(0L));
+        assertThat(graph.removeVertex(5), is(false));
+    }
+
     private Graph<Integer> getGraph() {
         return new UndirectedGraph<>();
     }
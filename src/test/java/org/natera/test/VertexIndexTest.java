@@ -0,0 +1,114 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.natera.test.TestUtils.edge;
+
+class VertexIndexTest {
+
+    @Test
+    public void testAddRemove_matchesHashSet() {
+        //few distinct hashes make long probe sequences, removals must keep them reachable
+        KeyEncoding<Integer> colliding = new KeyEncoding<Integer>() {
+            @Override
+            public int hash(Integer value) {
+                return value % 7;
+            }
+
+            @Override
+            public boolean equals(Integer first, Integer second) {
+                return first.equals(second);
+            }
+        };
+        Graph<Integer> graph = new DirectedGraph<>();
+        graph.setKeyEncoding(colliding);
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 3000; i++) {
+            int value = random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                assertThat(graph.removeVertex(value), is(expected.remove(value)));
+            } else {
+                graph.addVertex(value);
+                expected.add(value);
+            }
+            assertThat(graph.getVertexes().size(), is(expected.size()));
+        }
+        for (int value = 0; value < 300; value++) {
+            assertThat(graph.getVertexes().containsKey(value), is(expected.contains(value)));
+        }
+        assertThat(graph.getVertexes().keySet(), is(expected));
+        assertThat(graph.getVertexes().get(-1), nullValue());
+        assertThrows(UnsupportedOperationException.class, () -> graph.getVertexes().put(1, null));
+    }
+
+    @Test
+    public void testKeyEncoding_byKey() {
+        Graph<Domain> graph = new UndirectedGraph<>();
+        graph.setKeyEncoding(KeyEncoding.by(domain -> domain.key));
+        for (int i = 0; i < 5; i++) {
+            graph.addVertex(new Domain(i));
+        }
+        graph.addEdge(new Domain(0), new Domain(1));
+        graph.addEdge(new Domain(1), new Domain(4));
+        graph.addVertex(new Domain(4));
+        graph.freeze();
+
+        int hashes = Domain.hashCodeCalls;
+        assertThat(graph.getVertexes().size(), is(5));
+        assertThat(graph.getPath(new Domain(0), new Domain(4)).size(), is(2));
+        assertThat(graph.findPath(new Domain(0), new Domain(4)).getVertex(1).key, is(1));
+        assertThat(graph.snapshot().getPath(new Domain(4), new Domain(0)).size(), is(2));
+        assertThat(graph.getPath(new Domain(2), new Domain(3)), empty());
+        assertThat(Domain.hashCodeCalls, is(hashes));
+        assertThrows(IllegalStateException.class, () -> graph.setKeyEncoding(KeyEncoding.natural()));
+    }
+
+    @Test
+    public void testKeyEncoding_identity() {
+        Graph<String> graph = new DirectedGraph<>();
+        graph.setKeyEncoding(KeyEncoding.identity());
+        String first = "vertex";
+        String second = new String(first);
+        graph.addVertex(first);
+        graph.addVertex(second);
+        graph.addEdge(first, second);
+
+        assertThat(graph.getVertexes().size(), is(2));
+        assertThat(graph.getPath(first, second), contains(new Edge<>(first, second)));
+        assertThat(graph.getPath(second, first), empty());
+        assertThat(graph.snapshot().getPath(first, second).size(), is(1));
+        assertThrows(IllegalArgumentException.class, () -> graph.setKeyEncoding(null));
+    }
+
+    /**
+     * Value identified by its key, which counts calls of its own hashCode.
+     */
+    private static final class Domain {
+        private static int hashCodeCalls;
+        private final int key;
+
+        private Domain(int key) {
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Domain && ((Domain) o).key == key;
+        }
+
+        @Override
+        public int hashCode() {
+            hashCodeCalls++;
+            return key;
+        }
+    }
+}
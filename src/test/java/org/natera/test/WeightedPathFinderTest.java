@@ -0,0 +1,155 @@
+package org.natera.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.natera.test.TestUtils.edge;
+
+class WeightedPathFinderTest {
+
+    @Test
+    public void testAddEdge_weight() {
+        Graph<Integer> graph = getGraph(new DirectedGraph<>(), 3);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3, 2.5);
+
+        assertThat(graph.getEdgeWeight(1, 2), is(Graph.DEFAULT_WEIGHT));
+        assertThat(graph.getEdgeWeight(2, 3), is(2.5));
+        graph.addEdge(2, 3, 0.5);
+        assertThat(graph.getEdgeWeight(2, 3), is(0.5));
+        assertThrows(IllegalArgumentException.class, () -> graph.getEdgeWeight(3, 2));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(1, 3, -1));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(1, 3, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(1, 4, 1));
+    }
+
+    @Test
+    public void testEdgeWeights_manyTargets() {
+        Graph<Integer> graph = getGraph(new DirectedGraph<>(), 500);
+        for (int i = 2; i <= 500; i++) {
+            graph.addEdge(1, i, i * 0.5);
+        }
+        for (int i = 2; i <= 500; i += 3) {
+            graph.removeEdge(1, i);
+        }
+        graph.addEdge(1, 2);
+
+        assertThat(graph.getEdgeWeight(1, 2), is(Graph.DEFAULT_WEIGHT));
+        for (int i = 3; i <= 500; i++) {
+            if (i % 3 == 2) {
+                int removed = i;
+                assertThrows(IllegalArgumentException.class, () -> graph.getEdgeWeight(1, removed));
+            } else {
+                assertThat(graph.getEdgeWeight(1, i), is(i * 0.5));
+            }
+        }
+    }
+
+    @Test
+    public void testGetShortestPath_directed() {
+        Graph<Integer> graph = getGraph(new DirectedGraph<>(), 5);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 5, 10);
+        graph.addEdge(1, 3, 2);
+        graph.addEdge(3, 4, 2);
+        graph.addEdge(4, 5, 2);
+
+        assertThat(graph.getPath(1, 5), contains(edge(1, 2), edge(2, 5)));
+        assertThat(graph.getShortestPath(1, 5), contains(edge(1, 3), edge(3, 4), edge(4, 5)));
+        assertThat(graph.getShortestPath(5, 1), empty());
+        assertThat(graph.getShortestPath(1, 1), empty());
+    }
+
+    @Test
+    public void testGetShortestPath_undirected() {
+        Graph<Integer> graph = getGraph(new UndirectedGraph<>(), 4);
+        graph.addEdge(1, 2, 5);
+        graph.addEdge(1, 3, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(4, 2, 1);
+
+        assertThat(graph.getShortestPath(2, 1), contains(edge(2, 4), edge(4, 3), edge(3, 1)));
+        assertThat(graph.getEdgeWeight(2, 1), is(5.0));
+    }
+
+    @Test
+    public void testRemoveVertex_keepsWeights() {
+        for (Graph<Integer> graph : Arrays.<Graph<Integer>>asList(getGraph(new DirectedGraph<>(), 4),
+                getGraph(new DirectedGraph<>(false), 4), getGraph(new UndirectedGraph<>(), 4))) {
+            graph.addEdge(1, 4, 3);
+            graph.addEdge(4, 4, 2);
+            graph.addEdge(4, 3, 0.5);
+            graph.addEdge(1, 2, 7);
+
+            //vertex 4 takes the id of the removed vertex 2
+            assertThat(graph.removeVertex(2), is(true));
+            assertThat(graph.getEdgeWeight(1, 4), is(3.0));
+            assertThat(graph.getEdgeWeight(4, 4), is(2.0));
+            assertThat(graph.getEdgeWeight(4, 3), is(0.5));
+            assertThat(graph.getShortestPath(1, 3), contains(edge(1, 4), edge(4, 3)));
+            graph.addVertex(2);
+            graph.addEdge(1, 2);
+            assertThat(graph.getEdgeWeight(1, 2), is(Graph.DEFAULT_WEIGHT));
+        }
+    }
+
+    @Test
+    public void testGetShortestPath_heuristic() {
+        //grid 10 x 10 with vertex value row * 10 + column
+        Graph<Integer> graph = new UndirectedGraph<>();
+        for (int i = 0; i < 100; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 100; i++) {
+            if (i % 10 != 9) {
+                graph.addEdge(i, i + 1, 1);
+            }
+            if (i < 90) {
+                graph.addEdge(i, i + 10, i % 10 == 5 ? 1 : 3);
+            }
+        }
+
+        //the only cheap column is 5: 5 steps right, 9 steps down, 4 steps right
+        assertThat(getWeight(graph, graph.getShortestPath(0, 99)), is(18.0));
+        assertThat(getWeight(graph, graph.getShortestPath(0, 99, (vertex, target) ->
+                Math.abs(vertex % 10 - target % 10) + Math.abs(vertex / 10 - target / 10))), is(18.0));
+    }
+
+    @Test
+    public void testGetShortestPath_defaultWeightsMatchBreadthFirst() {
+        //queries of one thread share the traversal context, early stops leave vertexes in its queue
+        Graph<Integer> graph = getGraph(new DirectedGraph<>(), 400);
+        Random random = new Random(11);
+        for (int i = 0; i < 1200; i++) {
+            graph.addEdge(random.nextInt(400) + 1, random.nextInt(400) + 1);
+        }
+        for (int query = 0; query < 200; query++) {
+            int from = random.nextInt(400) + 1;
+            int to = random.nextInt(400) + 1;
+            assertThat(graph.getShortestPath(from, to).size(), is(graph.getPath(from, to).size()));
+        }
+    }
+
+    private double getWeight(Graph<Integer> graph, List<Edge<Integer>> path) {
+        double weight = 0;
+        for (Edge<Integer> edge : path) {
+            weight += graph.getEdgeWeight(edge.getVertexFrom(), edge.getVertexTo());
+        }
+        return weight;
+    }
+
+    private Graph<Integer> getGraph(Graph<Integer> graph, int size) {
+        for (int i = 1; i <= size; i++) {
+            graph.addVertex(i);
+        }
+        return graph;
+    }
+}